@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.benchmark;
+
+import com.google.zxing.BufferedImageLuminanceSource;
+import com.google.zxing.LuminanceSource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Loads the blackbox and benchmark images that ship with the core module's tests, so that
+ * the benchmarks measure exactly the inputs the unit tests already validate.
+ *
+ * <p>Image sets are named relative to {@code core/src/test/resources}, for example
+ * {@code "blackbox/qrcode-1"} or {@code "benchmark/android-1"}. The root can be overridden
+ * with the {@code zxing.benchmark.images} system property.</p>
+ */
+final class BenchmarkImages {
+
+  static final String ROOT_PROPERTY = "zxing.benchmark.images";
+
+  private static final String RESOURCES = "core/src/test/resources";
+
+  private BenchmarkImages() {
+  }
+
+  /**
+   * @param imageSet directory of images, relative to the test resources root
+   * @return a luminance source for every image in the directory, in file name order
+   * @throws IOException if the directory can't be found or an image can't be read
+   */
+  static List<LuminanceSource> load(String imageSet) throws IOException {
+    Path dir = resolve(imageSet);
+    List<Path> paths = new ArrayList<>();
+    try (DirectoryStream<Path> pathIt = Files.newDirectoryStream(dir, "*.{jpg,jpeg,gif,png,JPG,JPEG,GIF,PNG}")) {
+      for (Path path : pathIt) {
+        paths.add(path);
+      }
+    }
+    Collections.sort(paths);
+    List<LuminanceSource> sources = new ArrayList<>(paths.size());
+    for (Path path : paths) {
+      BufferedImage image = ImageIO.read(path.toFile());
+      if (image == null) {
+        throw new IOException("Could not read " + path);
+      }
+      sources.add(new BufferedImageLuminanceSource(image));
+    }
+    if (sources.isEmpty()) {
+      throw new IOException("No images in " + dir);
+    }
+    return sources;
+  }
+
+  private static Path resolve(String imageSet) throws IOException {
+    String root = System.getProperty(ROOT_PROPERTY);
+    if (root != null) {
+      return Paths.get(root).resolve(imageSet);
+    }
+    // Work when run from either the project root or one of the module directories
+    for (String candidate : new String[] {RESOURCES, "../" + RESOURCES, "zxing-master/" + RESOURCES}) {
+      Path dir = Paths.get(candidate).resolve(imageSet);
+      if (Files.isDirectory(dir)) {
+        return dir;
+      }
+    }
+    throw new IOException("Can't find " + imageSet + "; set -D" + ROOT_PROPERTY + " to the test resources dir");
+  }
+
+}
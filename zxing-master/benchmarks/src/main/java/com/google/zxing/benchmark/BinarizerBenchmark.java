@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.benchmark;
+
+import com.google.zxing.ByteBufferLuminanceSource;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.DecodeWorkspace;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures binarization alone: {@link HybridBinarizer#getBlackMatrix()} as used by the 2D readers,
+ * with and without a {@link DecodeWorkspace}, and {@link GlobalHistogramBinarizer#getBlackRow(int, BitArray)}
+ * over every row as used by the 1D readers. Each operation processes every image in the set once.
+ * The workspace only avoids allocation between consecutive images of the same size.
+ * The same images are also binarized from direct {@link ByteBuffer}s through
+ * {@link ByteBufferLuminanceSource}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinarizerBenchmark {
+
+  @Param({"benchmark/android-1", "benchmark/android-2", "blackbox/qrcode-2", "blackbox/ean13-1"})
+  public String imageSet;
+
+  private List<LuminanceSource> sources;
+  private List<LuminanceSource> bufferSources;
+  private DecodeWorkspace workspace;
+
+  @Setup
+  public void setUp() throws IOException {
+    sources = BenchmarkImages.load(imageSet);
+    bufferSources = new ArrayList<>(sources.size());
+    for (LuminanceSource source : sources) {
+      byte[] matrix = source.getMatrix();
+      int size = source.getWidth() * source.getHeight();
+      ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+      buffer.put(matrix, 0, size);
+      // Through Buffer, as ByteBuffer.flip() doesn't exist before Java 9
+      ((Buffer) buffer).flip();
+      bufferSources.add(new ByteBufferLuminanceSource(buffer, source.getWidth(), source.getHeight()));
+    }
+    workspace = new DecodeWorkspace();
+  }
+
+  @Benchmark
+  public void hybridBlackMatrix(Blackhole blackhole) {
+    for (LuminanceSource source : sources) {
+      try {
+        // A new binarizer each time, since HybridBinarizer caches its matrix
+        blackhole.consume(new HybridBinarizer(source).getBlackMatrix());
+      } catch (NotFoundException nfe) {
+        blackhole.consume(nfe);
+      }
+    }
+  }
+
+  @Benchmark
+  public void hybridBlackMatrixWithWorkspace(Blackhole blackhole) {
+    for (LuminanceSource source : sources) {
+      try {
+        blackhole.consume(new HybridBinarizer(source, workspace).getBlackMatrix());
+      } catch (NotFoundException nfe) {
+        blackhole.consume(nfe);
+      }
+    }
+  }
+
+  @Benchmark
+  public void hybridBlackMatrixFromDirectBuffer(Blackhole blackhole) {
+    for (LuminanceSource source : bufferSources) {
+      try {
+        blackhole.consume(new HybridBinarizer(source, workspace).getBlackMatrix());
+      } catch (NotFoundException nfe) {
+        blackhole.consume(nfe);
+      }
+    }
+  }
+
+  @Benchmark
+  public void globalHistogramBlackRows(Blackhole blackhole) {
+    BitArray row = null;
+    for (LuminanceSource source : sources) {
+      GlobalHistogramBinarizer binarizer = new GlobalHistogramBinarizer(source);
+      int height = source.getHeight();
+      for (int y = 0; y < height; y++) {
+        try {
+          row = binarizer.getBlackRow(y, row);
+          blackhole.consume(row);
+        } catch (NotFoundException nfe) {
+          blackhole.consume(nfe);
+        }
+      }
+    }
+  }
+
+}
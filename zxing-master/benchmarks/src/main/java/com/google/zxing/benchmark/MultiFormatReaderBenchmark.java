@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.benchmark;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PyramidLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-to-end {@link MultiFormatReader} decoding, including binarization, the way a
+ * continuous scan client uses it: hints are set once and {@link MultiFormatReader#decodeWithState}
+ * is called per image. Image sets mix hits and misses; a miss costs a full pass over every reader,
+ * so the "fail" images in the benchmark sets matter as much as the ones that decode.
+ * {@code decodeWithPyramid} wraps each image in a {@link PyramidLuminanceSource}, so that 2D
+ * detection starts at reduced resolution; it only differs for images at least 512 pixels across.
+ * {@code decodeConcurrently} races the readers on a thread pool instead of trying them in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiFormatReaderBenchmark {
+
+  @Param({"benchmark/android-1", "benchmark/android-2", "blackbox/qrcode-2", "blackbox/ean13-1",
+      "blackbox/datamatrix-2", "blackbox/falsepositives"})
+  public String imageSet;
+
+  @Param({"false", "true"})
+  public boolean tryHarder;
+
+  private List<LuminanceSource> sources;
+  private MultiFormatReader reader;
+  private MultiFormatReader concurrentReader;
+  private ExecutorService executor;
+
+  @Setup
+  public void setUp() throws IOException {
+    sources = BenchmarkImages.load(imageSet);
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    if (tryHarder) {
+      hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    }
+    reader = new MultiFormatReader();
+    reader.setHints(hints);
+    executor = Executors.newCachedThreadPool();
+    concurrentReader = new MultiFormatReader();
+    concurrentReader.setHints(hints);
+    concurrentReader.setExecutor(executor);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Benchmark
+  public void decode(Blackhole blackhole) {
+    for (LuminanceSource source : sources) {
+      BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+      try {
+        blackhole.consume(reader.decodeWithState(bitmap));
+      } catch (NotFoundException nfe) {
+        blackhole.consume(nfe);
+      }
+    }
+  }
+
+  @Benchmark
+  public void decodeWithPyramid(Blackhole blackhole) {
+    for (LuminanceSource source : sources) {
+      BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new PyramidLuminanceSource(source)));
+      try {
+        blackhole.consume(reader.decodeWithState(bitmap));
+      } catch (NotFoundException nfe) {
+        blackhole.consume(nfe);
+      }
+    }
+  }
+
+  @Benchmark
+  public void decodeConcurrently(Blackhole blackhole) {
+    for (LuminanceSource source : sources) {
+      BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+      try {
+        blackhole.consume(concurrentReader.decodeWithState(bitmap));
+      } catch (NotFoundException nfe) {
+        blackhole.consume(nfe);
+      }
+    }
+  }
+
+}
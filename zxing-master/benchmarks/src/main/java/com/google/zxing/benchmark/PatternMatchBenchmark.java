@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.benchmark;
+
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.Result;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.oned.OneDReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching digits' counters against every pattern, as the 1D readers do for each
+ * character: by the floating point {@code OneDReader.patternMatchVariance()}, by its integer
+ * fixed-point form, and by {@code OneDReader.bestPatternMatch()}, which also tries the previous
+ * digit's pattern first and stops at a clear match. The counters are those of the UPC/EAN digits
+ * at various module widths, with a pixel of noise here and there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternMatchBenchmark {
+
+  // The UPC/EAN "L" patterns of the digits 0-9
+  private static final int[][] PATTERNS = {
+      {3, 2, 1, 1},
+      {2, 2, 2, 1},
+      {2, 1, 2, 2},
+      {1, 4, 1, 1},
+      {1, 1, 3, 2},
+      {1, 2, 3, 1},
+      {1, 1, 1, 4},
+      {1, 3, 1, 2},
+      {1, 2, 1, 3},
+      {3, 1, 1, 2}
+  };
+  private static final float MAX_AVG_VARIANCE = 0.48f;
+  private static final float MAX_INDIVIDUAL_VARIANCE = 0.7f;
+
+  private int[][] digitCounters;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0xC0FFEE);
+    digitCounters = new int[1000][];
+    for (int i = 0; i < digitCounters.length; i++) {
+      int[] pattern = PATTERNS[random.nextInt(PATTERNS.length)];
+      int moduleWidth = 2 + random.nextInt(4);
+      int[] counters = new int[pattern.length];
+      for (int j = 0; j < counters.length; j++) {
+        counters[j] = Math.max(1, pattern[j] * moduleWidth + random.nextInt(3) - 1);
+      }
+      digitCounters[i] = counters;
+    }
+  }
+
+  @Benchmark
+  public int floatVariance() {
+    int digits = 0;
+    for (int[] counters : digitCounters) {
+      digits += Matcher.floatBestMatch(counters);
+    }
+    return digits;
+  }
+
+  @Benchmark
+  public int integerVariance() {
+    int digits = 0;
+    for (int[] counters : digitCounters) {
+      digits += Matcher.integerBestMatch(counters);
+    }
+    return digits;
+  }
+
+  @Benchmark
+  public int integerBestPatternMatch() {
+    int digits = 0;
+    int previous = 0;
+    for (int[] counters : digitCounters) {
+      int digit = Matcher.bestMatchFrom(counters, previous);
+      if (digit >= 0) {
+        previous = digit;
+      }
+      digits += digit;
+    }
+    return digits;
+  }
+
+  /**
+   * Exposes {@link OneDReader}'s pattern matching, which is for its subclasses.
+   */
+  private static final class Matcher extends OneDReader {
+
+    private static final int MAX_AVG_VARIANCE_FIXED =
+        (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * MAX_AVG_VARIANCE);
+    private static final int MAX_INDIVIDUAL_VARIANCE_FIXED =
+        (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * MAX_INDIVIDUAL_VARIANCE);
+
+    static int floatBestMatch(int[] counters) {
+      float bestVariance = MAX_AVG_VARIANCE;
+      int bestMatch = -1;
+      for (int i = 0; i < PATTERNS.length; i++) {
+        float variance = patternMatchVariance(counters, PATTERNS[i], MAX_INDIVIDUAL_VARIANCE);
+        if (variance < bestVariance) {
+          bestVariance = variance;
+          bestMatch = i;
+        }
+      }
+      return bestMatch;
+    }
+
+    static int integerBestMatch(int[] counters) {
+      int bestVariance = MAX_AVG_VARIANCE_FIXED;
+      int bestMatch = -1;
+      for (int i = 0; i < PATTERNS.length; i++) {
+        int variance = patternMatchVariance(counters, PATTERNS[i], MAX_INDIVIDUAL_VARIANCE_FIXED);
+        if (variance < bestVariance) {
+          bestVariance = variance;
+          bestMatch = i;
+        }
+      }
+      return bestMatch;
+    }
+
+    static int bestMatchFrom(int[] counters, int firstPattern) {
+      return bestPatternMatch(counters, PATTERNS, firstPattern,
+          MAX_AVG_VARIANCE_FIXED, MAX_INDIVIDUAL_VARIANCE_FIXED);
+    }
+
+    @Override
+    public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.benchmark;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Reader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.aztec.AztecReader;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.datamatrix.DataMatrixReader;
+import com.google.zxing.maxicode.MaxiCodeReader;
+import com.google.zxing.oned.CodaBarReader;
+import com.google.zxing.oned.Code128Reader;
+import com.google.zxing.oned.Code39Reader;
+import com.google.zxing.oned.Code93Reader;
+import com.google.zxing.oned.EAN13Reader;
+import com.google.zxing.oned.EAN8Reader;
+import com.google.zxing.oned.ITFReader;
+import com.google.zxing.oned.UPCAReader;
+import com.google.zxing.oned.UPCEReader;
+import com.google.zxing.oned.rss.RSS14Reader;
+import com.google.zxing.oned.rss.expanded.RSSExpandedReader;
+import com.google.zxing.pdf417.PDF417Reader;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each format-specific {@link Reader} on its own blackbox image set, without the
+ * cost of the other readers that {@link com.google.zxing.MultiFormatReader} would also try.
+ * 2D images are binarized once up front, so the numbers are for detection and decoding only;
+ * 1D readers binarize rows on demand, which is part of their cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReaderBenchmark {
+
+  @Param({"AZTEC", "CODABAR", "CODE_39", "CODE_93", "CODE_128", "DATA_MATRIX", "EAN_8", "EAN_13", "ITF",
+      "MAXICODE", "PDF_417", "QR_CODE", "RSS_14", "RSS_EXPANDED", "UPC_A", "UPC_E"})
+  public BarcodeFormat format;
+
+  @Param({"false", "true"})
+  public boolean tryHarder;
+
+  private List<BinaryBitmap> bitmaps;
+  private Reader reader;
+  private Map<DecodeHintType,Object> hints;
+
+  @Setup
+  public void setUp() throws IOException {
+    List<LuminanceSource> sources = BenchmarkImages.load(imageSet(format));
+    bitmaps = new ArrayList<>(sources.size());
+    for (LuminanceSource source : sources) {
+      BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+      try {
+        // Cached by the bitmap; 1D readers never ask for it
+        bitmap.getBlackMatrix();
+      } catch (NotFoundException nfe) {
+        // the reader will fail the same way during the benchmark
+      }
+      bitmaps.add(bitmap);
+    }
+    reader = createReader(format);
+    hints = new EnumMap<>(DecodeHintType.class);
+    if (tryHarder) {
+      hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    }
+  }
+
+  @Benchmark
+  public void decode(Blackhole blackhole) {
+    for (BinaryBitmap bitmap : bitmaps) {
+      try {
+        blackhole.consume(reader.decode(bitmap, hints));
+      } catch (ReaderException re) {
+        blackhole.consume(re);
+      }
+      reader.reset();
+    }
+  }
+
+  private static String imageSet(BarcodeFormat format) {
+    switch (format) {
+      case AZTEC:
+        return "blackbox/aztec-1";
+      case CODABAR:
+        return "blackbox/codabar-1";
+      case CODE_39:
+        return "blackbox/code39-1";
+      case CODE_93:
+        return "blackbox/code93-1";
+      case CODE_128:
+        return "blackbox/code128-2";
+      case DATA_MATRIX:
+        return "blackbox/datamatrix-2";
+      case EAN_8:
+        return "blackbox/ean8-1";
+      case EAN_13:
+        return "blackbox/ean13-1";
+      case ITF:
+        return "blackbox/itf-1";
+      case MAXICODE:
+        return "blackbox/maxicode-1";
+      case PDF_417:
+        return "blackbox/pdf417-2";
+      case QR_CODE:
+        return "blackbox/qrcode-2";
+      case RSS_14:
+        return "blackbox/rss14-2";
+      case RSS_EXPANDED:
+        return "blackbox/rssexpanded-1";
+      case UPC_A:
+        return "blackbox/upca-2";
+      case UPC_E:
+        return "blackbox/upce-2";
+      default:
+        throw new IllegalArgumentException("No benchmark images for " + format);
+    }
+  }
+
+  private static Reader createReader(BarcodeFormat format) {
+    switch (format) {
+      case AZTEC:
+        return new AztecReader();
+      case CODABAR:
+        return new CodaBarReader();
+      case CODE_39:
+        return new Code39Reader();
+      case CODE_93:
+        return new Code93Reader();
+      case CODE_128:
+        return new Code128Reader();
+      case DATA_MATRIX:
+        return new DataMatrixReader();
+      case EAN_8:
+        return new EAN8Reader();
+      case EAN_13:
+        return new EAN13Reader();
+      case ITF:
+        return new ITFReader();
+      case MAXICODE:
+        return new MaxiCodeReader();
+      case PDF_417:
+        return new PDF417Reader();
+      case QR_CODE:
+        return new QRCodeReader();
+      case RSS_14:
+        return new RSS14Reader();
+      case RSS_EXPANDED:
+        return new RSSExpandedReader();
+      case UPC_A:
+        return new UPCAReader();
+      case UPC_E:
+        return new UPCEReader();
+      default:
+        throw new IllegalArgumentException("No reader for " + format);
+    }
+  }
+
+}
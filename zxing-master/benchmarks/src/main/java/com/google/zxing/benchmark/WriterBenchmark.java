@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.benchmark;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Writer;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.datamatrix.DataMatrixWriter;
+import com.google.zxing.pdf417.PDF417Writer;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding with {@link QRCodeWriter}, {@link DataMatrixWriter} and {@link PDF417Writer}
+ * for numeric, alphanumeric and byte-mode content of several lengths. Contents are generated from
+ * a fixed seed so that runs are comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriterBenchmark {
+
+  private static final String NUMERIC = "0123456789";
+  private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+  private static final String TEXT = ALPHANUMERIC + "abcdefghijklmnopqrstuvwxyz,;!?()[]";
+
+  @Param({"QR_CODE", "DATA_MATRIX", "PDF_417"})
+  public BarcodeFormat format;
+
+  @Param({"numeric", "alphanumeric", "text"})
+  public String charset;
+
+  @Param({"16", "128", "512"})
+  public int length;
+
+  private Writer writer;
+  private String contents;
+
+  @Setup
+  public void setUp() {
+    switch (format) {
+      case QR_CODE:
+        writer = new QRCodeWriter();
+        break;
+      case DATA_MATRIX:
+        writer = new DataMatrixWriter();
+        break;
+      case PDF_417:
+        writer = new PDF417Writer();
+        break;
+      default:
+        throw new IllegalArgumentException("No writer for " + format);
+    }
+    String alphabet;
+    switch (charset) {
+      case "numeric":
+        alphabet = NUMERIC;
+        break;
+      case "alphanumeric":
+        alphabet = ALPHANUMERIC;
+        break;
+      default:
+        alphabet = TEXT;
+        break;
+    }
+    Random random = new Random(0xC0DE);
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    contents = builder.toString();
+  }
+
+  @Benchmark
+  public BitMatrix encode() throws WriterException {
+    return writer.encode(contents, format, 0, 0);
+  }
+
+}
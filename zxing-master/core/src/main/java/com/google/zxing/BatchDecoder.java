@@ -0,0 +1,315 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.DecodeWorkspace;
+import com.google.zxing.common.HybridBinarizer;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * <p>Decodes many independent images, such as the files of a directory, on several threads.
+ * Each thread has its own {@link MultiFormatReader}, set up once with the hints and reset
+ * between images, and its own {@link DecodeWorkspace}; images are binarized with
+ * {@link HybridBinarizer}.</p>
+ *
+ * <p>Images are given as suppliers, which are called on the decoding threads, so that loading
+ * them is done in parallel too. Results come back, as they are finished, from the iterator
+ * returned by {@link #decode(Iterator)}. Only a few are buffered: if the caller doesn't keep up,
+ * the decoding threads wait, and stop taking more images from the input.</p>
+ */
+public final class BatchDecoder {
+
+  // Outcomes which may wait to be consumed, per thread
+  private static final int BUFFERED_PER_THREAD = 2;
+
+  private final Map<DecodeHintType,?> hints;
+  private final int parallelism;
+  private final Executor executor;
+
+  /**
+   * @param hints hints for every image, which must not change while decoding; may be null
+   * @param parallelism number of images to decode at once, each on its own new thread
+   */
+  public BatchDecoder(Map<DecodeHintType,?> hints, int parallelism) {
+    this(hints, parallelism, null);
+  }
+
+  /**
+   * @param hints hints for every image, which must not change while decoding; may be null
+   * @param parallelism number of images to decode at once
+   * @param executor executor to run the decoding on, as parallelism long-running tasks; or null
+   *  to start new threads
+   */
+  public BatchDecoder(Map<DecodeHintType,?> hints, int parallelism, Executor executor) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+    }
+    this.hints = hints;
+    this.parallelism = parallelism;
+    this.executor = executor;
+  }
+
+  /**
+   * Starts decoding images. Each is taken from the input when a thread is free to decode it, so
+   * the input may be lazy, as from {@link java.util.stream.Stream#iterator()}. The input iterator
+   * is only used by one thread at a time.
+   *
+   * @param sources suppliers of the images to decode
+   * @return outcome of each image, in the order they finish. Close it to stop early.
+   * @throws ClassCastException if a hint's value is not of the type it requires
+   * @throws RejectedExecutionException if the executor won't run all the decoding threads; those
+   *  it did start are stopped first
+   */
+  public Outcomes decode(Iterator<? extends Supplier<? extends LuminanceSource>> sources) {
+    // Compiled here, so that bad hints fail now rather than on the decoding threads
+    DecodeOptions options = DecodeOptions.of(hints);
+    Outcomes outcomes = new Outcomes(sources, parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      Runnable worker = outcomes.newWorker(options);
+      if (executor == null) {
+        Thread thread = new Thread(worker, "BatchDecoder-" + i);
+        thread.setDaemon(true);
+        thread.start();
+      } else {
+        try {
+          executor.execute(worker);
+        } catch (RejectedExecutionException ree) {
+          outcomes.closeStarted(i);
+          throw ree;
+        }
+      }
+    }
+    return outcomes;
+  }
+
+  /**
+   * What became of one image: its {@link Result}, or the exception decoding it threw, such as
+   * {@link NotFoundException} if there was no barcode.
+   */
+  public static final class Outcome {
+
+    private final int index;
+    private final Result result;
+    private final Exception exception;
+
+    Outcome(int index, Result result, Exception exception) {
+      this.index = index;
+      this.result = result;
+      this.exception = exception;
+    }
+
+    /**
+     * @return position of the image in the input, from 0
+     */
+    public int getIndex() {
+      return index;
+    }
+
+    /**
+     * @return the decoded barcode, or null if decoding failed
+     */
+    public Result getResult() {
+      return result;
+    }
+
+    /**
+     * @return why decoding failed, or null if it succeeded
+     */
+    public Exception getException() {
+      return exception;
+    }
+
+  }
+
+  /**
+   * Outcomes of a batch, in the order images finish decoding. Iterating blocks until the next
+   * image is done. {@link #close()} stops taking new images, and waits for those being decoded.
+   */
+  public static final class Outcomes implements Iterator<Outcome>, AutoCloseable {
+
+    // Marks the end of a worker's outcomes
+    private static final Outcome END = new Outcome(-1, null, null);
+
+    private final Iterator<? extends Supplier<? extends LuminanceSource>> sources;
+    private final BlockingQueue<Outcome> queue;
+    private int nextIndex; // guarded by sources
+    private boolean exhausted; // guarded by sources
+    private volatile boolean closed;
+    // Used only by the consuming thread
+    private int workers;
+    private int ended;
+    private Outcome next;
+
+    Outcomes(Iterator<? extends Supplier<? extends LuminanceSource>> sources, int workers) {
+      this.sources = sources;
+      this.workers = workers;
+      this.queue = new ArrayBlockingQueue<>(workers * BUFFERED_PER_THREAD);
+    }
+
+    Runnable newWorker(final DecodeOptions options) {
+      return new Runnable() {
+        @Override
+        public void run() {
+          work(options);
+        }
+      };
+    }
+
+    /**
+     * Closes these outcomes when not all the workers could be started.
+     *
+     * @param started number of workers which were started
+     */
+    void closeStarted(int started) {
+      workers = started;
+      close();
+    }
+
+    private void work(DecodeOptions options) {
+      // Whatever happens from here on, the end of this worker's outcomes must be queued
+      try {
+        MultiFormatReader reader = new MultiFormatReader();
+        reader.setHints(options);
+        DecodeWorkspace workspace = new DecodeWorkspace();
+        while (!closed) {
+          Supplier<? extends LuminanceSource> source = null;
+          RuntimeException failure = null;
+          int index;
+          synchronized (sources) {
+            if (exhausted) {
+              break;
+            }
+            index = nextIndex;
+            try {
+              if (!sources.hasNext()) {
+                exhausted = true;
+                break;
+              }
+              source = sources.next();
+              nextIndex++;
+            } catch (RuntimeException re) {
+              // Nothing more can be taken from the input
+              exhausted = true;
+              failure = re;
+            }
+          }
+          putUninterruptibly(failure == null ?
+              decodeOne(reader, workspace, index, source) : new Outcome(index, null, failure));
+        }
+      } finally {
+        putUninterruptibly(END);
+      }
+    }
+
+    private static Outcome decodeOne(MultiFormatReader reader,
+                                     DecodeWorkspace workspace,
+                                     int index,
+                                     Supplier<? extends LuminanceSource> source) {
+      try {
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source.get(), workspace));
+        return new Outcome(index, reader.decodeWithState(bitmap), null);
+      } catch (NotFoundException | RuntimeException e) {
+        return new Outcome(index, null, e);
+      } finally {
+        // Images are unrelated, so nothing should carry over, like rows of stacked RSS codes
+        reader.reset();
+      }
+    }
+
+    private void putUninterruptibly(Outcome outcome) {
+      boolean interrupted = false;
+      while (true) {
+        try {
+          queue.put(outcome);
+          break;
+        } catch (InterruptedException ie) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * @return true if there is another outcome, waiting for the next image to finish if needed
+     * @throws CancellationException if interrupted while waiting
+     */
+    @Override
+    public boolean hasNext() {
+      while (next == null && ended < workers) {
+        Outcome outcome;
+        try {
+          outcome = queue.take();
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          throw new CancellationException("Interrupted while waiting for an image to decode");
+        }
+        if (outcome == END) {
+          ended++;
+        } else if (!closed) {
+          next = outcome;
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public Outcome next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Outcome outcome = next;
+      next = null;
+      return outcome;
+    }
+
+    /**
+     * Stops taking new images, discards outcomes not yet consumed, and waits for the images being
+     * decoded to finish.
+     */
+    @Override
+    public void close() {
+      closed = true;
+      next = null;
+      boolean interrupted = false;
+      while (ended < workers) {
+        try {
+          if (queue.take() == END) {
+            ended++;
+          }
+        } catch (InterruptedException ie) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+  }
+
+}
@@ -18,6 +18,7 @@ package com.google.zxing;
 
 import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DecodeWorkspace;
 
 /**
  * This class hierarchy provides a set of methods to convert luminance data to 1 bit data.
@@ -30,15 +31,32 @@ import com.google.zxing.common.BitMatrix;
 public abstract class Binarizer {
 
   private final LuminanceSource source;
+  private final DecodeWorkspace workspace;
 
   protected Binarizer(LuminanceSource source) {
+    this(source, null);
+  }
+
+  /**
+   * @param source The LuminanceSource this Binarizer will operate on.
+   * @param workspace Buffers to reuse instead of allocating new ones for this image, or null
+   */
+  protected Binarizer(LuminanceSource source, DecodeWorkspace workspace) {
     this.source = source;
+    this.workspace = workspace;
   }
 
   public final LuminanceSource getLuminanceSource() {
     return source;
   }
 
+  /**
+   * @return buffers this Binarizer, and readers of its output, may reuse; null if none were given
+   */
+  public final DecodeWorkspace getWorkspace() {
+    return workspace;
+  }
+
   /**
    * Converts one row of luminance data to 1 bit data. May actually do the conversion, or return
    * cached data. Callers should assume this method is expensive and call it as seldom as possible.
@@ -18,6 +18,11 @@ package com.google.zxing;
 
 import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DecodeWorkspace;
+import com.google.zxing.common.detector.RegionProposer;
+
+import java.util.Collections;
+import java.util.List;
 
 /**
  * This class is the core bitmap class used by ZXing to represent 1 bit data. Reader objects
@@ -29,6 +34,16 @@ public final class BinaryBitmap {
 
   private final Binarizer binarizer;
   private BitMatrix matrix;
+  // The bitmap this one is a 90 degree counterclockwise rotation of, if any
+  private BinaryBitmap unrotated;
+  // Black matrices of the levels of a PyramidLuminanceSource, computed on demand
+  private BitMatrix[] levelMatrices;
+  // The bitmap this one is the inverse of, if any
+  private BinaryBitmap uninverted;
+  // This bitmap's inverse, once requested
+  private BinaryBitmap inverted;
+  // Regions which may hold a barcode, found on demand
+  private List<RegionProposer.Region> proposedRegions;
 
   public BinaryBitmap(Binarizer binarizer) {
     if (binarizer == null) {
@@ -51,6 +66,15 @@ public final class BinaryBitmap {
     return binarizer.getHeight();
   }
 
+  /**
+   * @return buffers that readers may reuse while decoding this bitmap, or null if the
+   *  {@link Binarizer} was not given a {@link DecodeWorkspace}
+   */
+  public DecodeWorkspace getWorkspace() {
+    // An inverse has none, so that it can be decoded at the same time as the bitmap it inverts
+    return uninverted == null ? binarizer.getWorkspace() : null;
+  }
+
   /**
    * Converts one row of luminance data to 1 bit data. May actually do the conversion, or return
    * cached data. Callers should assume this method is expensive and call it as seldom as possible.
@@ -63,7 +87,15 @@ public final class BinaryBitmap {
    * @throws NotFoundException if row can't be binarized
    */
   public BitArray getBlackRow(int y, BitArray row) throws NotFoundException {
-    return binarizer.getBlackRow(y, row);
+    if (uninverted != null) {
+      BitArray invertedRow = uninverted.getBlackRow(y, row);
+      invertedRow.flip();
+      return invertedRow;
+    }
+    // Binarizers reuse buffers, so readers decoding this bitmap and its inverse take turns
+    synchronized (this) {
+      return binarizer.getBlackRow(y, row);
+    }
   }
 
   /**
@@ -75,18 +107,113 @@ public final class BinaryBitmap {
    * @return The 2D array of bits for the image (true means black).
    * @throws NotFoundException if image can't be binarized to make a matrix
    */
-  public BitMatrix getBlackMatrix() throws NotFoundException {
+  public synchronized BitMatrix getBlackMatrix() throws NotFoundException {
     // The matrix is created on demand the first time it is requested, then cached. There are two
     // reasons for this:
     // 1. This work will never be done if the caller only installs 1D Reader objects, or if a
     //    1D Reader finds a barcode before the 2D Readers run.
     // 2. This work will only be done once even if the caller installs multiple 2D Readers.
     if (matrix == null) {
-      matrix = binarizer.getBlackMatrix();
+      BitMatrix unrotatedMatrix = unrotated == null ? null : unrotated.getComputedMatrix();
+      if (uninverted != null) {
+        matrix = invertedCopy(uninverted.getBlackMatrix());
+      } else if (unrotatedMatrix != null) {
+        // Rotating bits already binarized is much cheaper than binarizing the rotated luminances
+        matrix = unrotatedMatrix.clone();
+        matrix.rotate90();
+      } else {
+        matrix = binarizer.getBlackMatrix();
+      }
     }
     return matrix;
   }
 
+  /**
+   * @return the black matrix, if it has already been computed, or null; read under this bitmap's
+   *  lock, so that the matrix is seen as it was once filled in
+   */
+  private synchronized BitMatrix getComputedMatrix() {
+    return matrix;
+  }
+
+  /**
+   * Like {@link #getBlackMatrix()}, but tells a listener how long binarizing took, if the matrix
+   * is computed by this call.
+   *
+   * @param listener listener to tell; may be null
+   * @return The 2D array of bits for the image (true means black).
+   * @throws NotFoundException if image can't be binarized to make a matrix
+   */
+  public synchronized BitMatrix getBlackMatrix(DecodeListener listener) throws NotFoundException {
+    if (listener == null || matrix != null) {
+      return getBlackMatrix();
+    }
+    long start = System.nanoTime();
+    try {
+      return getBlackMatrix();
+    } finally {
+      listener.stageFinished(DecodeListener.Stage.BINARIZATION, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * @return The coarsest level of reduced resolution at which {@link #getBlackMatrix(int)} is
+   *  available; 0 unless the luminance source is a {@link PyramidLuminanceSource}.
+   */
+  public int getCoarsestLevel() {
+    LuminanceSource source = binarizer.getLuminanceSource();
+    if (source instanceof PyramidLuminanceSource) {
+      return ((PyramidLuminanceSource) source).getLevelCount() - 1;
+    }
+    return 0;
+  }
+
+  /**
+   * Like {@link #getBlackMatrix()}, but for the image at reduced resolution, from a level of a
+   * {@link PyramidLuminanceSource}. Detectors may find candidates quickly in a coarse level, then
+   * refine them in the full resolution matrix. Each level is binarized once, on demand, even when
+   * readers ask for it concurrently.
+   *
+   * @param level level of reduction, in [0,{@link #getCoarsestLevel()}]; 0 is full resolution
+   * @return The 2D array of bits for the image at 1/2^level resolution (true means black).
+   * @throws NotFoundException if image can't be binarized to make a matrix
+   */
+  public synchronized BitMatrix getBlackMatrix(int level) throws NotFoundException {
+    if (level == 0) {
+      return getBlackMatrix();
+    }
+    if (level < 0 || level > getCoarsestLevel()) {
+      throw new IllegalArgumentException("Requested level is not available: " + level);
+    }
+    if (levelMatrices == null) {
+      levelMatrices = new BitMatrix[getCoarsestLevel() + 1];
+    }
+    if (levelMatrices[level] == null && uninverted != null) {
+      levelMatrices[level] = invertedCopy(uninverted.getBlackMatrix(level));
+    } else if (levelMatrices[level] == null) {
+      LuminanceSource levelSource = ((PyramidLuminanceSource) binarizer.getLuminanceSource()).getLevel(level);
+      levelMatrices[level] = binarizer.createBinarizer(levelSource).getBlackMatrix();
+    }
+    return levelMatrices[level];
+  }
+
+  /**
+   * Finds the regions of the image which may hold a barcode, from its luminance, without
+   * binarizing it. They are found once, on demand, and shared with the inverse of this bitmap.
+   *
+   * @return regions which may hold a barcode, most likely first, as proposed by
+   *  {@link RegionProposer}
+   */
+  public synchronized List<RegionProposer.Region> getProposedRegions() {
+    if (uninverted != null) {
+      return uninverted.getProposedRegions();
+    }
+    if (proposedRegions == null) {
+      proposedRegions = Collections.unmodifiableList(RegionProposer.propose(binarizer.getLuminanceSource()));
+    }
+    return proposedRegions;
+  }
+
   /**
    * @return Whether this bitmap can be cropped.
    */
@@ -105,6 +232,9 @@ public final class BinaryBitmap {
    * @return A cropped version of this object.
    */
   public BinaryBitmap crop(int left, int top, int width, int height) {
+    if (uninverted != null) {
+      return uninverted.crop(left, top, width, height).invert();
+    }
     LuminanceSource newSource = binarizer.getLuminanceSource().crop(left, top, width, height);
     return new BinaryBitmap(binarizer.createBinarizer(newSource));
   }
@@ -118,13 +248,19 @@ public final class BinaryBitmap {
 
   /**
    * Returns a new object with rotated image data by 90 degrees counterclockwise.
-   * Only callable if {@link #isRotateSupported()} is true.
+   * Only callable if {@link #isRotateSupported()} is true. If this bitmap's black matrix has
+   * already been computed, the new one's is that matrix rotated, rather than a fresh binarization.
    *
    * @return A rotated version of this object.
    */
   public BinaryBitmap rotateCounterClockwise() {
+    if (uninverted != null) {
+      return uninverted.rotateCounterClockwise().invert();
+    }
     LuminanceSource newSource = binarizer.getLuminanceSource().rotateCounterClockwise();
-    return new BinaryBitmap(binarizer.createBinarizer(newSource));
+    BinaryBitmap rotated = new BinaryBitmap(binarizer.createBinarizer(newSource));
+    rotated.unrotated = this;
+    return rotated;
   }
 
   /**
@@ -134,10 +270,53 @@ public final class BinaryBitmap {
    * @return A rotated version of this object.
    */
   public BinaryBitmap rotateCounterClockwise45() {
+    if (uninverted != null) {
+      return uninverted.rotateCounterClockwise45().invert();
+    }
     LuminanceSource newSource = binarizer.getLuminanceSource().rotateCounterClockwise45();
     return new BinaryBitmap(binarizer.createBinarizer(newSource));
   }
 
+  /**
+   * Returns a new bitmap of the same image, with a binarizer of its own, whose rows can be
+   * binarized on another thread while this bitmap's are, rather than one at a time. Nothing
+   * already binarized is shared with it.
+   *
+   * @return a bitmap of the same image, binarized separately from this one
+   */
+  public BinaryBitmap withOwnBinarizer() {
+    if (uninverted != null) {
+      return uninverted.withOwnBinarizer().invert();
+    }
+    return new BinaryBitmap(binarizer.createBinarizer(binarizer.getLuminanceSource()));
+  }
+
+  /**
+   * Returns a bitmap in which black and white are swapped, for decoding barcodes printed light on
+   * dark. It is a view of this bitmap, sharing its binarization: its rows and matrices are those of
+   * this bitmap, flipped when they are first requested, and this bitmap's are never changed. So
+   * both may be decoded, even at the same time, without binarizing the image again.
+   *
+   * @return the inverse of this bitmap; the same object each time
+   */
+  public synchronized BinaryBitmap invert() {
+    if (uninverted != null) {
+      return uninverted;
+    }
+    if (inverted == null) {
+      BinaryBitmap newInverted = new BinaryBitmap(binarizer);
+      newInverted.uninverted = this;
+      inverted = newInverted;
+    }
+    return inverted;
+  }
+
+  private static BitMatrix invertedCopy(BitMatrix matrix) {
+    BitMatrix copy = matrix.clone();
+    copy.flip();
+    return copy;
+  }
+
   @Override
   public String toString() {
     try {
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * This object extends LuminanceSource around 8-bit greyscale data in a {@link ByteBuffer}, such as
+ * a direct buffer from a capture pipeline, a memory-mapped raw image file, or the Y plane of a
+ * planar YUV frame. The data is never copied into a {@code byte[]} unless {@link #getMatrix()}
+ * is called; {@link com.google.zxing.common.HybridBinarizer} and
+ * {@link com.google.zxing.common.GlobalHistogramBinarizer} avoid that by reading a few rows at a
+ * time through {@link #getRows(int, int, byte[])}.
+ *
+ * Crops and 90 degree rotations are views over the same buffer, so they are free. Rows of a rotated
+ * view come from columns of the data and are read one byte at a time.
+ *
+ * The buffer's contents must not change while this source, or any view of it, is in use.
+ */
+public final class ByteBufferLuminanceSource extends LuminanceSource {
+
+  private final ByteBuffer buffer;
+  // Index of pixel (x, y) is base + x * xStep + y * yStep
+  private final int base;
+  private final int xStep;
+  private final int yStep;
+
+  /**
+   * @param buffer luminance data, row-major, one byte per pixel, starting at the buffer's current position
+   * @param dataWidth width of the data, which is also the number of bytes from one row to the next
+   * @param dataHeight height of the data
+   */
+  public ByteBufferLuminanceSource(ByteBuffer buffer, int dataWidth, int dataHeight) {
+    this(buffer, dataWidth, dataHeight, 0, 0, dataWidth, dataHeight);
+  }
+
+  /**
+   * @param buffer luminance data, row-major, one byte per pixel, starting at the buffer's current position
+   * @param dataWidth width of the data, which is also the number of bytes from one row to the next
+   * @param dataHeight height of the data
+   * @param left left edge of the region of the data to use
+   * @param top top edge of the region of the data to use
+   * @param width width of the region
+   * @param height height of the region
+   */
+  public ByteBufferLuminanceSource(ByteBuffer buffer,
+                                   int dataWidth,
+                                   int dataHeight,
+                                   int left,
+                                   int top,
+                                   int width,
+                                   int height) {
+    super(width, height);
+    if (left < 0 || top < 0 || left + width > dataWidth || top + height > dataHeight) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    if (buffer.remaining() < dataWidth * dataHeight) {
+      throw new IllegalArgumentException("Buffer is too small for " + dataWidth + "x" + dataHeight);
+    }
+    // A slice shares the data but not the position, so the caller's buffer is left alone
+    this.buffer = buffer.slice();
+    this.base = top * dataWidth + left;
+    this.xStep = 1;
+    this.yStep = dataWidth;
+  }
+
+  private ByteBufferLuminanceSource(ByteBuffer buffer, int base, int xStep, int yStep, int width, int height) {
+    super(width, height);
+    this.buffer = buffer;
+    this.base = base;
+    this.xStep = xStep;
+    this.yStep = yStep;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    readRow(y, row, 0);
+    return row;
+  }
+
+  /**
+   * Fetches several consecutive rows at once, for callers which work on a band of the image
+   * rather than a single row or the whole matrix.
+   *
+   * @param y The first row to fetch
+   * @param count The number of rows to fetch; y + count must be at most getHeight()
+   * @param rows An optional preallocated array. If null or too small, it will be ignored.
+   *             Always use the returned object, and ignore the .length of the array.
+   * @return An array containing row y at index 0, row y + 1 at index getWidth(), and so on
+   */
+  public byte[] getRows(int y, int count, byte[] rows) {
+    if (y < 0 || count < 0 || y + count > getHeight()) {
+      throw new IllegalArgumentException("Requested rows are outside the image: " + y + " + " + count);
+    }
+    int width = getWidth();
+    if (rows == null || rows.length < width * count) {
+      rows = new byte[width * count];
+    }
+    for (int i = 0; i < count; i++) {
+      readRow(y + i, rows, i * width);
+    }
+    return rows;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    int width = getWidth();
+    int height = getHeight();
+
+    // If the caller asks for the entire underlying image, and it's an array, save the copy and
+    // give them the original data. The docs specifically warn that result.length must be ignored.
+    if (base == 0 && xStep == 1 && yStep == width && buffer.hasArray() && buffer.arrayOffset() == 0) {
+      return buffer.array();
+    }
+    return getRows(0, height, null);
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    if (left < 0 || top < 0 || left + width > getWidth() || top + height > getHeight()) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    return new ByteBufferLuminanceSource(buffer, base + left * xStep + top * yStep, xStep, yStep, width, height);
+  }
+
+  @Override
+  public boolean isRotateSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource rotateCounterClockwise() {
+    // Pixel (x, y) of the rotated view is pixel (width - 1 - y, x) of this one
+    return new ByteBufferLuminanceSource(buffer,
+                                         base + (getWidth() - 1) * xStep,
+                                         yStep,
+                                         -xStep,
+                                         getHeight(),
+                                         getWidth());
+  }
+
+  private void readRow(int y, byte[] dest, int offset) {
+    int width = getWidth();
+    int index = base + y * yStep;
+    if (xStep == 1) {
+      ByteBuffer rowBuffer = buffer.duplicate();
+      // Through Buffer, as ByteBuffer.position(int) doesn't exist before Java 9
+      ((Buffer) rowBuffer).position(index);
+      rowBuffer.get(dest, offset, width);
+    } else {
+      ByteBuffer buffer = this.buffer;
+      int xStep = this.xStep;
+      for (int x = 0; x < width; x++, index += xStep) {
+        dest[offset + x] = buffer.get(index);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * Thrown when decoding gives up because its {@link DecodeDeadline} passed or was cancelled. Unlike
+ * {@link ReaderException}s, which readers catch and recover from as they try other rows, other
+ * orientations and other readers, this is unchecked, so that it ends decoding wherever it is
+ * thrown and reaches the caller.
+ */
+public final class DeadlineExceededException extends RuntimeException {
+
+  private static final DeadlineExceededException INSTANCE = new DeadlineExceededException();
+
+  private DeadlineExceededException() {
+    super("Decoding deadline exceeded", null, false, ReaderException.isStackTrace);
+  }
+
+  public static DeadlineExceededException getDeadlineExceededInstance() {
+    return ReaderException.isStackTrace ? new DeadlineExceededException() : INSTANCE;
+  }
+
+}
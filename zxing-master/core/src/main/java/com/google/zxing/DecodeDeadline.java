@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A point in time by which decoding must finish, passed to readers with
+ * {@link DecodeHintType#DEADLINE}. The loops which can run long on a difficult image -- the 1D
+ * row scan, the QR Code finder pattern scans, and the search for rows of stacked RSS Expanded
+ * codes among others -- check it as they go, and throw {@link DeadlineExceededException} once it
+ * has passed. It can also be cancelled from another thread, which ends decoding the same way.</p>
+ *
+ * <p>A deadline is only checked between units of work, so decoding may overrun it slightly.</p>
+ */
+public final class DecodeDeadline {
+
+  private final long deadlineNanos;
+  private volatile boolean cancelled;
+
+  private DecodeDeadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /**
+   * @param timeout time allowed for decoding, from now
+   * @param unit unit of timeout
+   * @return a deadline that long after now
+   */
+  public static DecodeDeadline after(long timeout, TimeUnit unit) {
+    return new DecodeDeadline(System.nanoTime() + unit.toNanos(timeout));
+  }
+
+  /**
+   * @param hints hints passed to a reader, or null
+   * @return the {@link DecodeHintType#DEADLINE} among them, or null if there is none
+   */
+  public static DecodeDeadline fromHints(Map<DecodeHintType,?> hints) {
+    return hints == null ? null : (DecodeDeadline) hints.get(DecodeHintType.DEADLINE);
+  }
+
+  /**
+   * Ends decoding at its next check of this deadline, as if it had passed.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * @return true if the deadline has passed or been cancelled
+   */
+  public boolean isExpired() {
+    return cancelled || System.nanoTime() - deadlineNanos >= 0;
+  }
+
+  /**
+   * @throws DeadlineExceededException if the deadline has passed or been cancelled
+   */
+  public void check() {
+    if (isExpired()) {
+      throw DeadlineExceededException.getDeadlineExceededInstance();
+    }
+  }
+
+}
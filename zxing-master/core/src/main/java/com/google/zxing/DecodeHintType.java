@@ -17,6 +17,7 @@
 package com.google.zxing;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Encapsulates a type of hint that a caller may pass to a barcode reader to help it
@@ -104,6 +105,47 @@ public enum DecodeHintType {
    */
   ALSO_INVERTED(Void.class),
 
+  /**
+   * Time by which decoding must finish, or give up by throwing a {@link DeadlineExceededException}.
+   * Maps to a {@link DecodeDeadline}.
+   */
+  DEADLINE(DecodeDeadline.class),
+
+  /**
+   * The caller needs to know how long each stage of decoding takes.
+   * Maps to a {@link DecodeListener}.
+   */
+  DECODE_LISTENER(DecodeListener.class),
+
+  /**
+   * If true, {@link MultiFormatReader} first finds the regions of the image which look like they
+   * hold a barcode, and decodes only those, with the readers for the kind of barcode each looks
+   * like; see {@link com.google.zxing.common.detector.RegionProposer}. The whole image is decoded
+   * only if that fails and {@link #TRY_HARDER} is set. This is much faster for large images in
+   * which barcodes are small. Doesn't matter what it maps to; use {@link Boolean#TRUE}.
+   */
+  PROPOSE_REGIONS(Void.class),
+
+  /**
+   * Executor on which 1D readers scan rows in parallel when {@link #TRY_HARDER} is set, one
+   * task per processor, each taking a share of the rows from the middle outward. The result
+   * nearest the middle is returned, as when scanning row by row; the RSS readers, which pair up
+   * rows, still scan every row in turn on the decoding thread. Tasks the executor has not started
+   * when the decoding thread is done with its own rows are scanned by that thread, so a busy or
+   * bounded executor, even the one decoding runs on, only slows decoding down.
+   * Maps to an {@link Executor}.
+   */
+  ROW_EXECUTOR(Executor.class),
+
+  /**
+   * Number of rows which 1D readers need to agree on a barcode before they return it, to keep
+   * rows which misread a damaged label from being believed. Rows are scanned from the middle
+   * outward, over the whole image as with {@link #TRY_HARDER}, but only until enough agree. They
+   * agree character by character, so they need not all read the whole barcode right. If not
+   * enough agree on anything, nothing is found. Maps to an {@link Integer}.
+   */
+  ROW_AGREEMENT(Integer.class),
+
   // End of enumeration values.
   ;
 
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A {@link DecodeListener} which adds up the events it receives: for each stage, a count,
+ * total time and histogram of times; a histogram of the number of errors corrected; and for each
+ * kind of reader, its attempts, successes and total time.</p>
+ *
+ * <p>Time histograms have {@link #BUCKETS} buckets in powers of two: bucket 0 counts times of 0,
+ * and bucket i times in [2<sup>i-1</sup>,2<sup>i</sup>) nanoseconds. Counters are updated
+ * without locking, so one instance may be shared by all decoding threads, and read at any time;
+ * reads taken while decoding goes on may be slightly inconsistent with each other.</p>
+ */
+public final class DecodeHistogram implements DecodeListener {
+
+  /** Number of buckets in each time histogram. */
+  public static final int BUCKETS = 64;
+  /** Errors corrected at or above which images are counted in the last bucket. */
+  public static final int MAX_ERRORS = 64;
+
+  private static final Stage[] STAGES = Stage.values();
+
+  private final AtomicLongArray[] stageHistograms;
+  private final LongAdder[] stageNanos;
+  private final AtomicLongArray errorsHistogram;
+  private final ConcurrentMap<Class<? extends Reader>,ReaderCounters> readers;
+
+  public DecodeHistogram() {
+    stageHistograms = new AtomicLongArray[STAGES.length];
+    stageNanos = new LongAdder[STAGES.length];
+    for (int i = 0; i < STAGES.length; i++) {
+      stageHistograms[i] = new AtomicLongArray(BUCKETS);
+      stageNanos[i] = new LongAdder();
+    }
+    errorsHistogram = new AtomicLongArray(MAX_ERRORS + 1);
+    readers = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public void stageFinished(Stage stage, long nanos) {
+    int index = stage.ordinal();
+    stageHistograms[index].incrementAndGet(bucket(nanos));
+    stageNanos[index].add(nanos);
+  }
+
+  @Override
+  public void errorsCorrected(int errors) {
+    errorsHistogram.incrementAndGet(Math.max(0, Math.min(errors, MAX_ERRORS)));
+  }
+
+  @Override
+  public void readerFinished(Reader reader, boolean decoded, long nanos) {
+    Class<? extends Reader> readerClass = reader.getClass();
+    ReaderCounters counters = readers.get(readerClass);
+    if (counters == null) {
+      counters = new ReaderCounters();
+      ReaderCounters existing = readers.putIfAbsent(readerClass, counters);
+      if (existing != null) {
+        counters = existing;
+      }
+    }
+    counters.attempts.increment();
+    if (decoded) {
+      counters.hits.increment();
+    }
+    counters.nanos.add(nanos);
+  }
+
+  /**
+   * @param nanos a time
+   * @return index of the histogram bucket counting the time
+   */
+  static int bucket(long nanos) {
+    return nanos <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(nanos);
+  }
+
+  /**
+   * @param stage stage of decoding
+   * @return number of times the stage finished
+   */
+  public long getCount(Stage stage) {
+    long count = 0;
+    AtomicLongArray histogram = stageHistograms[stage.ordinal()];
+    for (int i = 0; i < BUCKETS; i++) {
+      count += histogram.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * @param stage stage of decoding
+   * @return total time spent in the stage, in nanoseconds
+   */
+  public long getTotalNanos(Stage stage) {
+    return stageNanos[stage.ordinal()].sum();
+  }
+
+  /**
+   * @param stage stage of decoding
+   * @return a copy of the histogram of the stage's times
+   */
+  public long[] getHistogram(Stage stage) {
+    return toArray(stageHistograms[stage.ordinal()]);
+  }
+
+  /**
+   * @return a copy of the histogram of errors corrected: element i counts barcodes with i errors
+   *  corrected, and the last those with {@link #MAX_ERRORS} or more
+   */
+  public long[] getErrorsCorrectedHistogram() {
+    return toArray(errorsHistogram);
+  }
+
+  /**
+   * @param readerClass kind of reader
+   * @return number of images it tried to decode
+   */
+  public long getReaderAttempts(Class<? extends Reader> readerClass) {
+    ReaderCounters counters = readers.get(readerClass);
+    return counters == null ? 0 : counters.attempts.sum();
+  }
+
+  /**
+   * @param readerClass kind of reader
+   * @return number of images it decoded
+   */
+  public long getReaderHits(Class<? extends Reader> readerClass) {
+    ReaderCounters counters = readers.get(readerClass);
+    return counters == null ? 0 : counters.hits.sum();
+  }
+
+  /**
+   * @param readerClass kind of reader
+   * @return total time it spent trying, in nanoseconds
+   */
+  public long getReaderNanos(Class<? extends Reader> readerClass) {
+    ReaderCounters counters = readers.get(readerClass);
+    return counters == null ? 0 : counters.nanos.sum();
+  }
+
+  private static long[] toArray(AtomicLongArray atomic) {
+    long[] array = new long[atomic.length()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = atomic.get(i);
+    }
+    return array;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    for (Stage stage : STAGES) {
+      long count = getCount(stage);
+      if (count > 0) {
+        result.append(stage).append(": ").append(count).append(" in ")
+            .append(getTotalNanos(stage) / 1000).append("us\n");
+      }
+    }
+    for (Map.Entry<Class<? extends Reader>,ReaderCounters> entry : readers.entrySet()) {
+      ReaderCounters counters = entry.getValue();
+      result.append(entry.getKey().getSimpleName()).append(": ").append(counters.hits.sum())
+          .append(" of ").append(counters.attempts.sum()).append(" in ")
+          .append(counters.nanos.sum() / 1000).append("us\n");
+    }
+    return result.toString();
+  }
+
+  private static final class ReaderCounters {
+    final LongAdder attempts = new LongAdder();
+    final LongAdder hits = new LongAdder();
+    final LongAdder nanos = new LongAdder();
+  }
+
+}
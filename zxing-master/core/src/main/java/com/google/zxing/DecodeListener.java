@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * <p>Receives timed events from the stages of decoding, to see where decoding time goes.
+ * Register one with {@link DecodeHintType#DECODE_LISTENER}. Readers check for it once per
+ * decode, and take no timings when there is none.</p>
+ *
+ * <p>Events arrive on the decoding threads, which may be several at once, as when
+ * {@link MultiFormatReader#setExecutor(java.util.concurrent.Executor)} is used. Methods must be
+ * quick, and must not throw.</p>
+ *
+ * @see DecodeHistogram
+ */
+public interface DecodeListener {
+
+  /**
+   * A stage of decoding which is timed.
+   */
+  enum Stage {
+    /** Converting luminance to black and white, a row or the whole image at a time. */
+    BINARIZATION,
+    /** Locating a 2D barcode. For Data Matrix, Aztec and PDF417 this includes sampling it. */
+    DETECTION,
+    /** Sampling the modules of a located QR Code. */
+    GRID_SAMPLING,
+    /** Reed-Solomon error correction of a QR Code's codewords. */
+    ERROR_CORRECTION,
+    /** Parsing a QR Code's corrected codewords into its contents. */
+    BIT_STREAM_PARSING
+  }
+
+  /**
+   * A stage finished, whether or not it succeeded.
+   *
+   * @param stage stage that finished
+   * @param nanos time it took, in nanoseconds
+   */
+  void stageFinished(Stage stage, long nanos);
+
+  /**
+   * Error correction of a QR Code, Data Matrix, Aztec or PDF417 barcode succeeded.
+   *
+   * @param errors number of codewords which were corrected
+   */
+  void errorsCorrected(int errors);
+
+  /**
+   * A reader tried to decode an image, as one of the readers of a {@link MultiFormatReader}.
+   *
+   * @param reader reader that tried
+   * @param decoded whether it decoded a barcode
+   * @param nanos time it took, in nanoseconds
+   */
+  void readerFinished(Reader reader, boolean decoded, long nanos);
+
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>An immutable set of decode hints, with each hint looked up and converted to its type once,
+ * when it is built, rather than on every use. Readers build it once per decode, at their public
+ * entry points, and read the typed fields in their loops. Code called for every row reads the
+ * typed fields too when it is passed options; only when passed an ordinary map of hints, as by
+ * callers of {@code decodeRow} directly, does it look up the few hints it needs, rather than
+ * build options for every row.</p>
+ *
+ * <p>It is also an unmodifiable {@link Map} of the hints, so it can be passed anywhere hints are,
+ * and {@link #of(Map)} returns it as is. {@link MultiFormatReader#setHints(Map)} builds one,
+ * and passes it on to its readers, so they share the work. As it can't change, one instance may
+ * be shared by several threads. Array values are not copied, and must not be changed.</p>
+ */
+public final class DecodeOptions extends AbstractMap<DecodeHintType,Object> {
+
+  private static final DecodeOptions EMPTY = new DecodeOptions(new EnumMap<>(DecodeHintType.class));
+
+  private final Map<DecodeHintType,Object> hints;
+  private final boolean pureBarcode;
+  private final Collection<BarcodeFormat> possibleFormats;
+  private final boolean tryHarder;
+  private final String characterSet;
+  private final int[] allowedLengths;
+  private final boolean assumeCode39CheckDigit;
+  private final boolean assumeGS1;
+  private final boolean returnCodabarStartEnd;
+  private final ResultPointCallback resultPointCallback;
+  private final int[] allowedEANExtensions;
+  private final boolean alsoInverted;
+  private final DecodeDeadline deadline;
+  private final DecodeListener decodeListener;
+  private final boolean proposeRegions;
+  private final Executor rowExecutor;
+  private final int rowAgreement;
+  // Set when decoding is no longer wanted, or null if it can't be cancelled
+  private final AtomicBoolean cancelled;
+  private final DecodeOptions withoutResultPointCallback;
+
+  private DecodeOptions(EnumMap<DecodeHintType,Object> hints) {
+    this(hints, null);
+  }
+
+  @SuppressWarnings("unchecked")
+  private DecodeOptions(EnumMap<DecodeHintType,Object> hints, AtomicBoolean cancelled) {
+    this.hints = Collections.unmodifiableMap(hints);
+    pureBarcode = hints.containsKey(DecodeHintType.PURE_BARCODE);
+    possibleFormats = (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+    tryHarder = hints.containsKey(DecodeHintType.TRY_HARDER);
+    characterSet = (String) hints.get(DecodeHintType.CHARACTER_SET);
+    allowedLengths = (int[]) hints.get(DecodeHintType.ALLOWED_LENGTHS);
+    assumeCode39CheckDigit = hints.get(DecodeHintType.ASSUME_CODE_39_CHECK_DIGIT) != null;
+    assumeGS1 = hints.containsKey(DecodeHintType.ASSUME_GS1);
+    returnCodabarStartEnd = hints.containsKey(DecodeHintType.RETURN_CODABAR_START_END);
+    resultPointCallback = (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    allowedEANExtensions = (int[]) hints.get(DecodeHintType.ALLOWED_EAN_EXTENSIONS);
+    alsoInverted = hints.containsKey(DecodeHintType.ALSO_INVERTED);
+    deadline = (DecodeDeadline) hints.get(DecodeHintType.DEADLINE);
+    decodeListener = (DecodeListener) hints.get(DecodeHintType.DECODE_LISTENER);
+    proposeRegions = hints.containsKey(DecodeHintType.PROPOSE_REGIONS);
+    rowExecutor = (Executor) hints.get(DecodeHintType.ROW_EXECUTOR);
+    Integer agreement = (Integer) hints.get(DecodeHintType.ROW_AGREEMENT);
+    rowAgreement = agreement == null ? 1 : agreement;
+    this.cancelled = cancelled;
+    if (hints.containsKey(DecodeHintType.NEED_RESULT_POINT_CALLBACK)) {
+      EnumMap<DecodeHintType,Object> withoutCallback = hints.clone();
+      withoutCallback.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+      withoutResultPointCallback = new DecodeOptions(withoutCallback, cancelled);
+    } else {
+      withoutResultPointCallback = this;
+    }
+  }
+
+  /**
+   * @param hints hints to compile, or null for none
+   * @return the hints as options; the same object if they already are
+   * @throws ClassCastException if a hint's value is not of the type it requires
+   */
+  public static DecodeOptions of(Map<DecodeHintType,?> hints) {
+    if (hints instanceof DecodeOptions) {
+      return (DecodeOptions) hints;
+    }
+    if (hints == null || hints.isEmpty()) {
+      return EMPTY;
+    }
+    EnumMap<DecodeHintType,Object> copy = new EnumMap<>(DecodeHintType.class);
+    copy.putAll(hints);
+    return new DecodeOptions(copy);
+  }
+
+  /**
+   * @return whether {@link DecodeHintType#PURE_BARCODE} is set
+   */
+  public boolean isPureBarcode() {
+    return pureBarcode;
+  }
+
+  /**
+   * @return value of {@link DecodeHintType#POSSIBLE_FORMATS}, or null
+   */
+  public Collection<BarcodeFormat> getPossibleFormats() {
+    return possibleFormats;
+  }
+
+  /**
+   * @return whether {@link DecodeHintType#TRY_HARDER} is set
+   */
+  public boolean isTryHarder() {
+    return tryHarder;
+  }
+
+  /**
+   * @return value of {@link DecodeHintType#CHARACTER_SET}, or null
+   */
+  public String getCharacterSet() {
+    return characterSet;
+  }
+
+  /**
+   * @return value of {@link DecodeHintType#ALLOWED_LENGTHS}, or null
+   */
+  public int[] getAllowedLengths() {
+    return allowedLengths;
+  }
+
+  /**
+   * @return whether {@link DecodeHintType#ASSUME_CODE_39_CHECK_DIGIT} is set
+   */
+  public boolean isAssumeCode39CheckDigit() {
+    return assumeCode39CheckDigit;
+  }
+
+  /**
+   * @return whether {@link DecodeHintType#ASSUME_GS1} is set
+   */
+  public boolean isAssumeGS1() {
+    return assumeGS1;
+  }
+
+  /**
+   * @return whether {@link DecodeHintType#RETURN_CODABAR_START_END} is set
+   */
+  public boolean isReturnCodabarStartEnd() {
+    return returnCodabarStartEnd;
+  }
+
+  /**
+   * @return value of {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK}, or null
+   */
+  public ResultPointCallback getResultPointCallback() {
+    return resultPointCallback;
+  }
+
+  /**
+   * @return value of {@link DecodeHintType#ALLOWED_EAN_EXTENSIONS}, or null
+   */
+  public int[] getAllowedEANExtensions() {
+    return allowedEANExtensions;
+  }
+
+  /**
+   * @return whether {@link DecodeHintType#ALSO_INVERTED} is set
+   */
+  public boolean isAlsoInverted() {
+    return alsoInverted;
+  }
+
+  /**
+   * @return value of {@link DecodeHintType#DEADLINE}, or null
+   */
+  public DecodeDeadline getDeadline() {
+    return deadline;
+  }
+
+  /**
+   * @return value of {@link DecodeHintType#DECODE_LISTENER}, or null
+   */
+  public DecodeListener getDecodeListener() {
+    return decodeListener;
+  }
+
+  /**
+   * @return whether {@link DecodeHintType#PROPOSE_REGIONS} is set
+   */
+  public boolean isProposeRegions() {
+    return proposeRegions;
+  }
+
+  /**
+   * @return value of {@link DecodeHintType#ROW_EXECUTOR}, or null
+   */
+  public Executor getRowExecutor() {
+    return rowExecutor;
+  }
+
+  /**
+   * @return value of {@link DecodeHintType#ROW_AGREEMENT}, or 1 if not set
+   */
+  public int getRowAgreement() {
+    return rowAgreement;
+  }
+
+  /**
+   * @return the same options but without {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK}; this
+   *  object if it has none
+   */
+  public DecodeOptions withoutResultPointCallback() {
+    return withoutResultPointCallback;
+  }
+
+  /**
+   * @return true if decoding with these options is no longer wanted, as when another reader won
+   *  the race {@link MultiFormatReader#setExecutor(Executor)} runs; readers then give up as if they
+   *  found nothing. Only options made for such a race can be cancelled: {@link #of(Map)} never
+   *  makes them so, though it returns options which already are as they are.
+   */
+  public boolean isCancelled() {
+    return cancelled != null && cancelled.get();
+  }
+
+  /**
+   * @param cancelled flag which, once set, cancels decoding with the options returned
+   * @return the same options, but which can be cancelled
+   */
+  DecodeOptions withCancellation(AtomicBoolean cancelled) {
+    EnumMap<DecodeHintType,Object> copy = new EnumMap<>(DecodeHintType.class);
+    copy.putAll(hints);
+    return new DecodeOptions(copy, cancelled);
+  }
+
+  @Override
+  public Object get(Object key) {
+    return hints.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return hints.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return hints.size();
+  }
+
+  @Override
+  public Set<Entry<DecodeHintType,Object>> entrySet() {
+    return hints.entrySet();
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.oned.OneDReader;
+
+import java.util.Map;
+
+/**
+ * <p>The outcome of an attempt to decode an image: a {@link Result}, or why there is none.
+ * It is returned by the {@code tryDecode} methods, which report a miss by status rather than by
+ * throwing a {@link ReaderException}, for callers which mostly see images with no barcode.</p>
+ *
+ * <p>Outcomes of failures are shared, immutable instances.</p>
+ */
+public final class DecodeOutcome {
+
+  /**
+   * What happened to the attempt.
+   */
+  public enum Status {
+    /** A barcode was decoded; see {@link #getResult()}. */
+    DECODED,
+    /** No barcode was found, as by {@link NotFoundException}. */
+    NOT_FOUND,
+    /** A barcode was found but failed its checksum, as by {@link ChecksumException}. */
+    CHECKSUM_ERROR,
+    /** A barcode was found but its contents were invalid, as by {@link FormatException}. */
+    FORMAT_ERROR
+  }
+
+  private static final DecodeOutcome NOT_FOUND = new DecodeOutcome(Status.NOT_FOUND, null);
+  private static final DecodeOutcome CHECKSUM_ERROR = new DecodeOutcome(Status.CHECKSUM_ERROR, null);
+  private static final DecodeOutcome FORMAT_ERROR = new DecodeOutcome(Status.FORMAT_ERROR, null);
+
+  private final Status status;
+  private final Result result;
+
+  private DecodeOutcome(Status status, Result result) {
+    this.status = status;
+    this.result = result;
+  }
+
+  /**
+   * @param result decoded barcode
+   * @return outcome with status {@link Status#DECODED}
+   */
+  public static DecodeOutcome decoded(Result result) {
+    if (result == null) {
+      throw new IllegalArgumentException("Result must be non-null");
+    }
+    return new DecodeOutcome(Status.DECODED, result);
+  }
+
+  /**
+   * @return outcome with status {@link Status#NOT_FOUND}
+   */
+  public static DecodeOutcome notFound() {
+    return NOT_FOUND;
+  }
+
+  /**
+   * @param exception why decoding failed
+   * @return outcome with the status matching the exception's type
+   */
+  public static DecodeOutcome failed(ReaderException exception) {
+    if (exception instanceof ChecksumException) {
+      return CHECKSUM_ERROR;
+    }
+    if (exception instanceof FormatException) {
+      return FORMAT_ERROR;
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Decodes an image with any {@link Reader}. {@link MultiFormatReader} and the 1D readers find
+   * their way to a miss without throwing; other readers' exceptions are caught and converted.
+   *
+   * @param reader reader to decode with
+   * @param image image to decode
+   * @param hints hints for the reader; may be null
+   * @return outcome of decoding
+   */
+  public static DecodeOutcome tryDecode(Reader reader, BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (reader instanceof MultiFormatReader) {
+      return ((MultiFormatReader) reader).tryDecode(image, hints);
+    }
+    if (reader instanceof OneDReader) {
+      return ((OneDReader) reader).tryDecode(image, hints);
+    }
+    try {
+      return decoded(reader.decode(image, hints));
+    } catch (ReaderException re) {
+      return failed(re);
+    }
+  }
+
+  /**
+   * @return what happened to the attempt
+   */
+  public Status getStatus() {
+    return status;
+  }
+
+  /**
+   * @return true if the status is {@link Status#DECODED}
+   */
+  public boolean isDecoded() {
+    return status == Status.DECODED;
+  }
+
+  /**
+   * @return the decoded barcode, or null if decoding failed
+   */
+  public Result getResult() {
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return result == null ? status.toString() : status + ": " + result;
+  }
+
+}
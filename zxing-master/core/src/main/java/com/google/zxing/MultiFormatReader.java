@@ -17,6 +17,7 @@
 package com.google.zxing;
 
 import com.google.zxing.aztec.AztecReader;
+import com.google.zxing.common.detector.RegionProposer;
 import com.google.zxing.datamatrix.DataMatrixReader;
 import com.google.zxing.maxicode.MaxiCodeReader;
 import com.google.zxing.oned.MultiFormatOneDReader;
@@ -26,12 +27,19 @@ import com.google.zxing.qrcode.QRCodeReader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * MultiFormatReader is a convenience class and the main entry point into the library for most uses.
  * By default it attempts to decode all barcode formats that the library supports. Optionally, you
  * can provide a hints object to request different behavior, for example only decoding QR codes.
  *
+ * Readers are tried one after another, in a fixed order, unless an {@link Executor} is given with
+ * {@link #setExecutor(Executor)}, in which case they are raced against each other. The order can
+ * also be learned from the images seen so far; see {@link #setReaderStatistics(ReaderStatistics)}.
+ *
  * @author Sean Owen
  * @author dswitkin@google.com (Daniel Switkin)
  */
@@ -39,8 +47,10 @@ public final class MultiFormatReader implements Reader {
 
   private static final Reader[] EMPTY_READER_ARRAY = new Reader[0];
 
-  private Map<DecodeHintType,?> hints;
+  private DecodeOptions hints;
   private Reader[] readers;
+  private Executor executor;
+  private ReaderStatistics statistics;
 
   /**
    * This version of decode honors the intent of Reader.decode(BinaryBitmap) in that it
@@ -95,12 +105,12 @@ public final class MultiFormatReader implements Reader {
    * @param hints The set of hints to use for subsequent calls to decode(image)
    */
   public void setHints(Map<DecodeHintType,?> hints) {
-    this.hints = hints;
+    // Compiled once here, and shared by all the readers
+    DecodeOptions options = DecodeOptions.of(hints);
+    this.hints = options;
 
-    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
-    @SuppressWarnings("unchecked")
-    Collection<BarcodeFormat> formats =
-        hints == null ? null : (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+    boolean tryHarder = options.isTryHarder();
+    Collection<BarcodeFormat> formats = options.getPossibleFormats();
     Collection<Reader> readers = new ArrayList<>();
     if (formats != null) {
       boolean addOneDReader =
@@ -117,7 +127,7 @@ public final class MultiFormatReader implements Reader {
           formats.contains(BarcodeFormat.RSS_EXPANDED);
       // Put 1D readers upfront in "normal" mode
       if (addOneDReader && !tryHarder) {
-        readers.add(new MultiFormatOneDReader(hints));
+        readers.add(new MultiFormatOneDReader(options));
       }
       if (formats.contains(BarcodeFormat.QR_CODE)) {
         readers.add(new QRCodeReader());
@@ -136,12 +146,12 @@ public final class MultiFormatReader implements Reader {
       }
       // At end in "try harder" mode
       if (addOneDReader && tryHarder) {
-        readers.add(new MultiFormatOneDReader(hints));
+        readers.add(new MultiFormatOneDReader(options));
       }
     }
     if (readers.isEmpty()) {
       if (!tryHarder) {
-        readers.add(new MultiFormatOneDReader(hints));
+        readers.add(new MultiFormatOneDReader(options));
       }
 
       readers.add(new QRCodeReader());
@@ -151,12 +161,44 @@ public final class MultiFormatReader implements Reader {
       readers.add(new MaxiCodeReader());
 
       if (tryHarder) {
-        readers.add(new MultiFormatOneDReader(hints));
+        readers.add(new MultiFormatOneDReader(options));
       }
     }
     this.readers = readers.toArray(EMPTY_READER_ARRAY);
   }
 
+  /**
+   * <p>Sets an executor on which to run the readers concurrently, all against the same image, which
+   * is binarized up front. The first reader to succeed wins, and the others are cancelled
+   * through their {@link DecodeOptions#isCancelled()}; the row and finder pattern scans of the
+   * slowest readers check for this and give up early. This
+   * bounds the time to fail on an image with no barcode by the slowest reader, rather than the
+   * sum of all of them, given enough threads. A virtual thread per task executor suits this well
+   * where available.</p>
+   *
+   * <p>When more than one reader could succeed, which one does is no longer determined by the
+   * order of the readers. Each decode still returns only once all the readers have stopped, as
+   * they are reused by the next decode. If the image can't be binarized as a whole, readers are
+   * tried one after another as usual.</p>
+   *
+   * @param executor executor on which to race readers, or {@code null} to try them one by one
+   */
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Sets statistics with which to order the readers, before each decode, by how likely each is to
+   * succeed and how long it takes, and records in them how each reader fares. They may be shared
+   * with other threads' {@link MultiFormatReader}s. Readers racing on an executor don't use them.
+   *
+   * @param statistics statistics to learn and use the best reader order from, or {@code null}
+   *  to keep the usual order
+   */
+  public void setReaderStatistics(ReaderStatistics statistics) {
+    this.statistics = statistics;
+  }
+
   @Override
   public void reset() {
     if (readers != null) {
@@ -166,28 +208,296 @@ public final class MultiFormatReader implements Reader {
     }
   }
 
+  /**
+   * Like {@link #decode(BinaryBitmap, Map)}, but reports a miss as an outcome rather than by
+   * throwing, and finds its way to one with less exception handling in the readers.
+   *
+   * @param image The pixel data to decode
+   * @param hints The hints to use, clearing the previous state.
+   * @return The outcome of decoding; its status is {@link DecodeOutcome.Status#NOT_FOUND} if no
+   *  reader could decode the image
+   */
+  public DecodeOutcome tryDecode(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    setHints(hints);
+    return outcome(decodeOrNull(image));
+  }
+
+  /**
+   * Like {@link #decodeWithState(BinaryBitmap)}, but reports a miss as an outcome rather than by
+   * throwing. This is the fastest way to scan a stream of frames which mostly have no barcode.
+   *
+   * @param image The pixel data to decode
+   * @return The outcome of decoding
+   */
+  public DecodeOutcome tryDecodeWithState(BinaryBitmap image) {
+    if (readers == null) {
+      setHints(null);
+    }
+    return outcome(decodeOrNull(image));
+  }
+
+  private static DecodeOutcome outcome(Result result) {
+    return result == null ? DecodeOutcome.notFound() : DecodeOutcome.decoded(result);
+  }
+
   private Result decodeInternal(BinaryBitmap image) throws NotFoundException {
+    Result result = decodeOrNull(image);
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  private Result decodeOrNull(BinaryBitmap image) {
     if (readers != null) {
-      for (Reader reader : readers) {
+      Result result = decodeOnce(image);
+      if (result != null) {
+        return result;
+      }
+      if (hints.isAlsoInverted()) {
+        // Calling all readers again with the inverse of the image, which leaves it unchanged
+        result = decodeOnce(image.invert());
+        if (result != null) {
+          return result;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return result of the first reader to decode the image, or null if none could
+   */
+  private Result decodeOnce(BinaryBitmap image) {
+    if (hints.isProposeRegions() && image.isCropSupported()) {
+      Result result = decodeProposedRegions(image);
+      if (result != null || !hints.isTryHarder()) {
+        return result;
+      }
+    }
+    if (executor != null && readers.length > 1 && isBinarized(image)) {
+      ReaderRace race = new ReaderRace(image, hints, readers.length);
+      for (int i = 0; i < readers.length; i++) {
+        Runnable task = race.newTask(readers[i]);
         try {
-          return reader.decode(image, hints);
-        } catch (ReaderException re) {
-          // continue
+          executor.execute(task);
+        } catch (RejectedExecutionException ree) {
+          task.run();
+        }
+      }
+      return race.awaitWinner();
+    }
+    if (statistics != null) {
+      return decodeInLearnedOrder(image);
+    }
+    DecodeDeadline deadline = hints.getDeadline();
+    for (Reader reader : readers) {
+      if (deadline != null) {
+        deadline.check();
+      }
+      Result result = tryDecode(reader, image, hints);
+      if (result != null) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Decodes each region proposed for the image in turn, most likely first, with the readers for
+   * the kind of barcode it looks like. They are tried one after another, as racing them on such
+   * small images gains little.
+   *
+   * @return result of the first reader to decode a region, with points in the coordinates of the
+   *  whole image, or null if none could
+   */
+  private Result decodeProposedRegions(BinaryBitmap image) {
+    DecodeDeadline deadline = hints.getDeadline();
+    for (RegionProposer.Region region : image.getProposedRegions()) {
+      int left = region.getLeft();
+      int top = region.getTop();
+      BinaryBitmap regionImage = image;
+      if (region.getWidth() < image.getWidth() || region.getHeight() < image.getHeight()) {
+        regionImage = image.crop(left, top, region.getWidth(), region.getHeight());
+      }
+      for (Reader reader : readers) {
+        if (!reads(reader, region.getKind())) {
+          continue;
+        }
+        if (deadline != null) {
+          deadline.check();
+        }
+        Result result = tryDecode(reader, regionImage, hints);
+        if (result != null) {
+          makeAbsolute(result.getResultPoints(), left, top);
+          return result;
         }
       }
-      if (hints != null && hints.containsKey(DecodeHintType.ALSO_INVERTED)) {
-        // Calling all readers again with inverted image
-        image.getBlackMatrix().flip();
-        for (Reader reader : readers) {
-          try {
-            return reader.decode(image, hints);
-          } catch (ReaderException re) {
-            // continue
+    }
+    return null;
+  }
+
+  /**
+   * @return whether the reader reads the kind of barcode; PDF417 may look like either
+   */
+  private static boolean reads(Reader reader, RegionProposer.Region.Kind kind) {
+    if (reader instanceof MultiFormatOneDReader) {
+      return kind == RegionProposer.Region.Kind.LINEAR;
+    }
+    return kind == RegionProposer.Region.Kind.MATRIX || reader instanceof PDF417Reader;
+  }
+
+  private static void makeAbsolute(ResultPoint[] points, int leftOffset, int topOffset) {
+    if (points != null && (leftOffset != 0 || topOffset != 0)) {
+      for (int i = 0; i < points.length; i++) {
+        ResultPoint relative = points[i];
+        if (relative != null) {
+          points[i] = new ResultPoint(relative.getX() + leftOffset, relative.getY() + topOffset);
+        }
+      }
+    }
+  }
+
+  private Result decodeInLearnedOrder(BinaryBitmap image) {
+    ReaderStatistics statistics = this.statistics;
+    statistics.order(readers);
+    DecodeDeadline deadline = hints.getDeadline();
+    for (Reader reader : readers) {
+      if (deadline != null) {
+        deadline.check();
+      }
+      long start = System.nanoTime();
+      Result result = tryDecode(reader, image, hints);
+      statistics.record(reader, result != null, System.nanoTime() - start);
+      if (result != null) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return result of the reader, or null if it could not decode the image
+   */
+  private static Result tryDecode(Reader reader, BinaryBitmap image, DecodeOptions hints) {
+    DecodeListener listener = hints.getDecodeListener();
+    if (listener == null) {
+      return DecodeOutcome.tryDecode(reader, image, hints).getResult();
+    }
+    long start = System.nanoTime();
+    Result result = null;
+    try {
+      result = DecodeOutcome.tryDecode(reader, image, hints).getResult();
+    } finally {
+      listener.readerFinished(reader, result != null, System.nanoTime() - start);
+    }
+    return result;
+  }
+
+  /**
+   * Binarizes the whole image, so that 2D readers running at the same time only read the
+   * result. 1D readers read rows, which only they use.
+   *
+   * @return true if the image could be binarized
+   */
+  private static boolean isBinarized(BinaryBitmap image) {
+    try {
+      image.getBlackMatrix();
+      return true;
+    } catch (NotFoundException nfe) {
+      return false;
+    }
+  }
+
+  /**
+   * Readers running concurrently against one image. The first to succeed, or to fail with an
+   * unexpected exception, ends the race: it cancels the options the rest decode with. Their
+   * threads, which belong to the caller's executor, are not interrupted.
+   */
+  private static final class ReaderRace {
+
+    private final BinaryBitmap image;
+    private final DecodeOptions hints;
+    private final AtomicBoolean cancelled;
+    // Guarded by this
+    private int running;
+    private boolean over;
+    private Result result;
+    private RuntimeException failure;
+
+    ReaderRace(BinaryBitmap image, DecodeOptions hints, int readerCount) {
+      this.image = image;
+      this.cancelled = new AtomicBoolean();
+      this.hints = hints.withCancellation(cancelled);
+      this.running = readerCount;
+    }
+
+    Runnable newTask(final Reader reader) {
+      return new Runnable() {
+        @Override
+        public void run() {
+          race(reader);
+        }
+      };
+    }
+
+    private void race(Reader reader) {
+      Result decoded = null;
+      RuntimeException error = null;
+      try {
+        synchronized (this) {
+          if (over) {
+            return;
           }
         }
+        try {
+          // null if lost
+          decoded = MultiFormatReader.tryDecode(reader, image, hints);
+        } catch (RuntimeException e) {
+          error = e;
+        }
+      } finally {
+        synchronized (this) {
+          if (!over && (decoded != null || error != null)) {
+            result = decoded;
+            failure = error;
+            end();
+          }
+          running--;
+          notifyAll();
+        }
+      }
+    }
+
+    private void end() {
+      over = true;
+      cancelled.set(true);
+    }
+
+    /**
+     * @return result of the winning reader, or null if none succeeded
+     */
+    synchronized Result awaitWinner() {
+      boolean wasInterrupted = false;
+      while (running > 0) {
+        try {
+          wait();
+        } catch (InterruptedException ie) {
+          // Stop the readers, but still wait for them, as they must not be in use after this
+          wasInterrupted = true;
+          end();
+        }
       }
+      if (wasInterrupted) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return result;
     }
-    throw NotFoundException.getNotFoundInstance();
+
   }
 
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * This object extends LuminanceSource around packed 8-bit-per-channel color data, such as the
+ * RGB24 or RGBA output of an image decoder, without first converting it to ARGB ints as
+ * {@link RGBLuminanceSource} requires.
+ *
+ * Luminance is computed with the fixed-point ITU-R BT.601 weights, only for the pixels that are
+ * asked for: {@link #getRow(int, byte[])} converts just that row, which is all 1D decoding needs,
+ * while the first call to {@link #getMatrix()} converts the whole region and keeps the result.
+ * The color data must not change while this source, or a crop of it, is in use.
+ */
+public final class PackedRGBLuminanceSource extends LuminanceSource {
+
+  /**
+   * Order of the channels of each pixel. Alpha, where present, is ignored.
+   */
+  public enum Layout {
+    RGB(3, 0, 1, 2),
+    BGR(3, 2, 1, 0),
+    RGBA(4, 0, 1, 2),
+    BGRA(4, 2, 1, 0);
+
+    private final int bytesPerPixel;
+    private final int redOffset;
+    private final int greenOffset;
+    private final int blueOffset;
+
+    Layout(int bytesPerPixel, int redOffset, int greenOffset, int blueOffset) {
+      this.bytesPerPixel = bytesPerPixel;
+      this.redOffset = redOffset;
+      this.greenOffset = greenOffset;
+      this.blueOffset = blueOffset;
+    }
+
+    public int getBytesPerPixel() {
+      return bytesPerPixel;
+    }
+  }
+
+  // 0.299, 0.587 and 0.114 in 8-bit fixed point; they sum to 256 so white stays 255
+  private static final int RED_WEIGHT = 77;
+  private static final int GREEN_WEIGHT = 150;
+  private static final int BLUE_WEIGHT = 29;
+
+  private final byte[] pixels;
+  private final Layout layout;
+  private final int rowStride;
+  private final int left;
+  private final int top;
+  private volatile byte[] matrix;
+
+  /**
+   * @param pixels packed color data, row after row with no padding
+   * @param width width of the image
+   * @param height height of the image
+   * @param layout order of the channels within each pixel
+   */
+  public PackedRGBLuminanceSource(byte[] pixels, int width, int height, Layout layout) {
+    this(pixels, width, height, width * layout.getBytesPerPixel(), layout, 0, 0, width, height);
+  }
+
+  /**
+   * @param pixels packed color data
+   * @param dataWidth width of the data
+   * @param dataHeight height of the data
+   * @param rowStride number of bytes from the start of one row to the start of the next
+   * @param layout order of the channels within each pixel
+   * @param left left edge of the region of the data to use
+   * @param top top edge of the region of the data to use
+   * @param width width of the region
+   * @param height height of the region
+   */
+  public PackedRGBLuminanceSource(byte[] pixels,
+                                  int dataWidth,
+                                  int dataHeight,
+                                  int rowStride,
+                                  Layout layout,
+                                  int left,
+                                  int top,
+                                  int width,
+                                  int height) {
+    super(width, height);
+    if (left < 0 || top < 0 || left + width > dataWidth || top + height > dataHeight) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    int rowLength = dataWidth * layout.getBytesPerPixel();
+    if (rowStride < rowLength) {
+      throw new IllegalArgumentException("Row stride is too small for width " + dataWidth);
+    }
+    if (dataHeight > 0 && pixels.length < (dataHeight - 1) * rowStride + rowLength) {
+      throw new IllegalArgumentException("Data is too small for " + dataWidth + "x" + dataHeight);
+    }
+    this.pixels = pixels;
+    this.layout = layout;
+    this.rowStride = rowStride;
+    this.left = left;
+    this.top = top;
+  }
+
+  private PackedRGBLuminanceSource(PackedRGBLuminanceSource parent, int left, int top, int width, int height) {
+    super(width, height);
+    this.pixels = parent.pixels;
+    this.layout = parent.layout;
+    this.rowStride = parent.rowStride;
+    this.left = parent.left + left;
+    this.top = parent.top + top;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    byte[] matrix = this.matrix;
+    if (matrix != null) {
+      System.arraycopy(matrix, y * width, row, 0, width);
+    } else {
+      convertRow(y, row, 0);
+    }
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    byte[] matrix = this.matrix;
+    if (matrix == null) {
+      int width = getWidth();
+      int height = getHeight();
+      matrix = new byte[width * height];
+      for (int y = 0; y < height; y++) {
+        convertRow(y, matrix, y * width);
+      }
+      this.matrix = matrix;
+    }
+    return matrix;
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    if (left < 0 || top < 0 || left + width > getWidth() || top + height > getHeight()) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    return new PackedRGBLuminanceSource(this, left, top, width, height);
+  }
+
+  @Override
+  public boolean isRotateSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource rotateCounterClockwise() {
+    return new RotatedLuminanceSource(this);
+  }
+
+  private void convertRow(int y, byte[] dest, int offset) {
+    byte[] pixels = this.pixels;
+    int bytesPerPixel = layout.bytesPerPixel;
+    int redOffset = layout.redOffset;
+    int greenOffset = layout.greenOffset;
+    int blueOffset = layout.blueOffset;
+    int width = getWidth();
+    int index = (top + y) * rowStride + left * bytesPerPixel;
+    for (int x = 0; x < width; x++, index += bytesPerPixel) {
+      int r = pixels[index + redOffset] & 0xff;
+      int g = pixels[index + greenOffset] & 0xff;
+      int b = pixels[index + blueOffset] & 0xff;
+      dest[offset + x] = (byte) ((RED_WEIGHT * r + GREEN_WEIGHT * g + BLUE_WEIGHT * b + 128) >> 8);
+    }
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * <p>A wrapper implementation of {@link LuminanceSource} which, besides its delegate's full
+ * resolution data, offers the image at 1/2, 1/4, ... of that resolution. Each level is computed
+ * once, on first use, by averaging 2x2 blocks of the level above.</p>
+ *
+ * <p>When a {@link BinaryBitmap} is built on one of these, the QR Code, Data Matrix and Aztec
+ * readers first look for a symbol in the coarsest level, through
+ * {@link BinaryBitmap#getBlackMatrix(int)}, then refine and sample it at full resolution. This
+ * is much faster for large, high resolution images in which the symbols are also large. Levels
+ * are only offered down to a minimum size, below which small symbols would vanish.</p>
+ */
+public final class PyramidLuminanceSource extends LuminanceSource {
+
+  private static final int DEFAULT_MAX_LEVEL = 2;
+  private static final int MIN_LEVEL_DIMENSION = 256;
+
+  private final LuminanceSource delegate;
+  private final int maxLevel;
+  private final LuminanceSource[] levels;
+
+  /**
+   * @param delegate full resolution source; levels at 1/2 and 1/4 of its resolution are offered
+   *  where they would be big enough
+   */
+  public PyramidLuminanceSource(LuminanceSource delegate) {
+    this(delegate, DEFAULT_MAX_LEVEL);
+  }
+
+  /**
+   * @param delegate full resolution source
+   * @param maxLevel most levels of reduction to offer, each halving the resolution
+   */
+  public PyramidLuminanceSource(LuminanceSource delegate, int maxLevel) {
+    super(delegate.getWidth(), delegate.getHeight());
+    this.delegate = delegate;
+    this.maxLevel = maxLevel;
+    int levelCount = 1;
+    while (levelCount <= maxLevel &&
+           Math.min(delegate.getWidth() >> levelCount, delegate.getHeight() >> levelCount) >= MIN_LEVEL_DIMENSION) {
+      levelCount++;
+    }
+    levels = new LuminanceSource[levelCount];
+    levels[0] = delegate;
+  }
+
+  /**
+   * @return number of levels available, including the full resolution level 0
+   */
+  public int getLevelCount() {
+    return levels.length;
+  }
+
+  /**
+   * @param level level of reduction, in [0,getLevelCount())
+   * @return the image at 1/2^level of full resolution, with width and height rounded down
+   */
+  public synchronized LuminanceSource getLevel(int level) {
+    if (level < 0 || level >= levels.length) {
+      throw new IllegalArgumentException("Requested level is not available: " + level);
+    }
+    if (levels[level] == null) {
+      levels[level] = downsample(getLevel(level - 1));
+    }
+    return levels[level];
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    return delegate.getRow(y, row);
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    return delegate.getMatrix();
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return delegate.isCropSupported();
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    return new PyramidLuminanceSource(delegate.crop(left, top, width, height), maxLevel);
+  }
+
+  @Override
+  public boolean isRotateSupported() {
+    return delegate.isRotateSupported();
+  }
+
+  @Override
+  public LuminanceSource invert() {
+    return new PyramidLuminanceSource(delegate.invert(), maxLevel);
+  }
+
+  @Override
+  public LuminanceSource rotateCounterClockwise() {
+    return new PyramidLuminanceSource(delegate.rotateCounterClockwise(), maxLevel);
+  }
+
+  @Override
+  public LuminanceSource rotateCounterClockwise45() {
+    return new PyramidLuminanceSource(delegate.rotateCounterClockwise45(), maxLevel);
+  }
+
+  private static LuminanceSource downsample(LuminanceSource source) {
+    int sourceWidth = source.getWidth();
+    byte[] matrix = source.getMatrix();
+    int width = sourceWidth / 2;
+    int height = source.getHeight() / 2;
+    byte[] downsampled = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      int offset = 2 * y * sourceWidth;
+      int outputOffset = y * width;
+      for (int x = 0; x < width; x++, offset += 2) {
+        int sum = (matrix[offset] & 0xFF) + (matrix[offset + 1] & 0xFF) +
+            (matrix[offset + sourceWidth] & 0xFF) + (matrix[offset + sourceWidth + 1] & 0xFF);
+        downsampled[outputOffset + x] = (byte) ((sum + 2) >> 2);
+      }
+    }
+    return new PlanarYUVLuminanceSource(downsampled, width, height, 0, 0, width, height, false);
+  }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Learns which readers tend to succeed on the images an application sees, and how long each
+ * takes, so that {@link MultiFormatReader} can try them in the order which finds a barcode
+ * soonest on average. Set one with {@link MultiFormatReader#setReaderStatistics(ReaderStatistics)};
+ * for example, where nearly every image holds a Data Matrix code, the Data Matrix reader comes to
+ * be tried before the 1D and QR Code readers.</p>
+ *
+ * <p>For each kind of reader this keeps an exponentially decaying average of whether it
+ * decoded the image, when it was tried, and of the time it took. Each new observation has the
+ * given weight, so the statistics follow changes in the images over roughly 1/weight decodes.
+ * Readers are then tried in decreasing order of hit rate per unit of time, which minimizes the
+ * expected time to the first success when readers succeed independently. Readers which haven't
+ * been tried yet keep their usual place.</p>
+ *
+ * <p>Instances are thread-safe, and may be shared by the {@link MultiFormatReader}s of several
+ * threads, to learn from all of their images.</p>
+ */
+public final class ReaderStatistics {
+
+  private static final double DEFAULT_WEIGHT = 0.02;
+
+  private final double weight;
+  private final ConcurrentMap<Class<? extends Reader>,ReaderStats> stats;
+
+  public ReaderStatistics() {
+    this(DEFAULT_WEIGHT);
+  }
+
+  /**
+   * @param weight weight of each new observation in the averages, in (0,1]
+   */
+  public ReaderStatistics(double weight) {
+    if (!(weight > 0.0 && weight <= 1.0)) {
+      throw new IllegalArgumentException("Weight must be in (0,1]: " + weight);
+    }
+    this.weight = weight;
+    this.stats = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @param readerClass kind of reader
+   * @return fraction of recent images the reader decoded when it was tried, or NaN if it
+   *  hasn't been tried
+   */
+  public double getHitRate(Class<? extends Reader> readerClass) {
+    ReaderStats readerStats = stats.get(readerClass);
+    return readerStats == null ? Double.NaN : readerStats.getHitRate();
+  }
+
+  /**
+   * @param readerClass kind of reader
+   * @return recent average time the reader took, in nanoseconds, or NaN if it hasn't been tried
+   */
+  public double getMeanNanos(Class<? extends Reader> readerClass) {
+    ReaderStats readerStats = stats.get(readerClass);
+    return readerStats == null ? Double.NaN : readerStats.getMeanNanos();
+  }
+
+  /**
+   * Records one attempt to decode an image.
+   *
+   * @param reader reader which was tried
+   * @param hit whether it decoded the image
+   * @param nanos time it took
+   */
+  void record(Reader reader, boolean hit, long nanos) {
+    Class<? extends Reader> readerClass = reader.getClass();
+    ReaderStats readerStats = stats.get(readerClass);
+    if (readerStats == null) {
+      readerStats = new ReaderStats();
+      ReaderStats existing = stats.putIfAbsent(readerClass, readerStats);
+      if (existing != null) {
+        readerStats = existing;
+      }
+    }
+    readerStats.record(hit, nanos, weight);
+  }
+
+  /**
+   * Sorts readers into decreasing order of hit rate per unit of time. The sort is stable, and
+   * readers which haven't been tried are left where they are relative to each other.
+   *
+   * @param readers readers to sort in place
+   */
+  void order(Reader[] readers) {
+    int count = readers.length;
+    // Take each score once, as other threads may be changing them
+    double[] scores = new double[count];
+    for (int i = 0; i < count; i++) {
+      ReaderStats readerStats = stats.get(readers[i].getClass());
+      scores[i] = readerStats == null ? Double.NaN : readerStats.getScore();
+    }
+    // Insertion sort of the readers which have scores; there are only a few of them
+    for (int i = 1; i < count; i++) {
+      if (Double.isNaN(scores[i])) {
+        continue;
+      }
+      Reader reader = readers[i];
+      double score = scores[i];
+      int j = i;
+      int k = i - 1;
+      while (k >= 0) {
+        if (!Double.isNaN(scores[k])) {
+          if (scores[k] >= score) {
+            break;
+          }
+          // Move the lower scoring reader into the last vacated scored position
+          readers[j] = readers[k];
+          scores[j] = scores[k];
+          j = k;
+        }
+        k--;
+      }
+      readers[j] = reader;
+      scores[j] = score;
+    }
+  }
+
+  private static final class ReaderStats {
+
+    private double hitRate;
+    private double meanNanos;
+    private boolean recorded;
+
+    synchronized void record(boolean hit, long nanos, double weight) {
+      if (recorded) {
+        hitRate += weight * ((hit ? 1.0 : 0.0) - hitRate);
+        meanNanos += weight * (nanos - meanNanos);
+      } else {
+        hitRate = hit ? 1.0 : 0.0;
+        meanNanos = nanos;
+        recorded = true;
+      }
+    }
+
+    synchronized double getHitRate() {
+      return hitRate;
+    }
+
+    synchronized double getMeanNanos() {
+      return meanNanos;
+    }
+
+    synchronized double getScore() {
+      // Readers faster than the clock's resolution shouldn't score infinitely well
+      return hitRate / Math.max(meanNanos, 1.0);
+    }
+
+  }
+
+}
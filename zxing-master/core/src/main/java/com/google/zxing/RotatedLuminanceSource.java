@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * A wrapper implementation of {@link LuminanceSource} which presents its delegate rotated by a
+ * multiple of 90 degrees counterclockwise, by mapping coordinates rather than copying the image.
+ * Rotating the view again just changes the mapping, and cropping it crops the delegate.
+ *
+ * Rows of a view rotated by 90 or 270 degrees are columns of the delegate, so they are read from
+ * the delegate's {@link LuminanceSource#getMatrix()}, which is fetched once and kept. This is free
+ * for sources which return their own data from getMatrix(), such as an uncropped
+ * {@link PlanarYUVLuminanceSource}. A view rotated by 180 degrees only needs the delegate's rows.
+ */
+public final class RotatedLuminanceSource extends LuminanceSource {
+
+  private final LuminanceSource delegate;
+  // Number of 90 degree counterclockwise turns, 1 to 3
+  private final int turns;
+  private volatile byte[] delegateMatrix;
+
+  /**
+   * @param delegate source to present rotated by 90 degrees counterclockwise
+   */
+  public RotatedLuminanceSource(LuminanceSource delegate) {
+    this(delegate, 1);
+  }
+
+  private RotatedLuminanceSource(LuminanceSource delegate, int turns) {
+    super(turns == 2 ? delegate.getWidth() : delegate.getHeight(),
+          turns == 2 ? delegate.getHeight() : delegate.getWidth());
+    this.delegate = delegate;
+    this.turns = turns;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    if (turns == 2) {
+      // Row y is the delegate's row (height - 1 - y), backwards
+      row = delegate.getRow(getHeight() - 1 - y, row);
+      for (int x1 = 0, x2 = width - 1; x1 < x2; x1++, x2--) {
+        byte temp = row[x1];
+        row[x1] = row[x2];
+        row[x2] = temp;
+      }
+    } else {
+      copyRow(getDelegateMatrix(), y, row, 0);
+    }
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    int width = getWidth();
+    int height = getHeight();
+    byte[] matrix = new byte[width * height];
+    if (turns == 2) {
+      byte[] row = new byte[width];
+      for (int y = 0; y < height; y++) {
+        row = getRow(y, row);
+        System.arraycopy(row, 0, matrix, y * width, width);
+      }
+    } else {
+      byte[] delegateMatrix = getDelegateMatrix();
+      for (int y = 0; y < height; y++) {
+        copyRow(delegateMatrix, y, matrix, y * width);
+      }
+    }
+    return matrix;
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return delegate.isCropSupported();
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    int delegateWidth = delegate.getWidth();
+    int delegateHeight = delegate.getHeight();
+    LuminanceSource cropped;
+    switch (turns) {
+      case 1:
+        cropped = delegate.crop(delegateWidth - top - height, left, height, width);
+        break;
+      case 2:
+        cropped = delegate.crop(delegateWidth - left - width, delegateHeight - top - height, width, height);
+        break;
+      default:
+        cropped = delegate.crop(top, delegateHeight - left - width, height, width);
+        break;
+    }
+    return new RotatedLuminanceSource(cropped, turns);
+  }
+
+  @Override
+  public boolean isRotateSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource rotateCounterClockwise() {
+    return turns == 3 ? delegate : new RotatedLuminanceSource(delegate, turns + 1);
+  }
+
+  @Override
+  public LuminanceSource rotateCounterClockwise45() {
+    // Rotations commute, so rotate the delegate by 45 degrees and keep the quarter turns on top
+    return new RotatedLuminanceSource(delegate.rotateCounterClockwise45(), turns);
+  }
+
+  private byte[] getDelegateMatrix() {
+    byte[] matrix = delegateMatrix;
+    if (matrix == null) {
+      matrix = delegate.getMatrix();
+      delegateMatrix = matrix;
+    }
+    return matrix;
+  }
+
+  /**
+   * Copies row y of this view, which is a column of the delegate, for a view of 1 or 3 turns.
+   */
+  private void copyRow(byte[] delegateMatrix, int y, byte[] dest, int offset) {
+    int width = getWidth();
+    int delegateWidth = delegate.getWidth();
+    int index;
+    int step;
+    if (turns == 1) {
+      // Pixel (x, y) is the delegate's (delegateWidth - 1 - y, x)
+      index = delegateWidth - 1 - y;
+      step = delegateWidth;
+    } else {
+      // Pixel (x, y) is the delegate's (y, delegateHeight - 1 - x)
+      index = (delegate.getHeight() - 1) * delegateWidth + y;
+      step = -delegateWidth;
+    }
+    for (int x = 0; x < width; x++, index += step) {
+      dest[offset + x] = delegateMatrix[index];
+    }
+  }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * This object extends LuminanceSource around a Y plane whose rows are padded, as delivered by
+ * camera HALs and V4L2: row y starts {@code y * rowStride} bytes into the data, and successive
+ * pixels of a row are {@code pixelStride} bytes apart. Like {@link PlanarYUVLuminanceSource} it
+ * can be cropped to a rectangle within the full data, but the data is never repacked or modified;
+ * a horizontally reversed source reads its rows backwards instead of reversing the data in place.
+ *
+ * The last row need only be as long as the pixels in it, as is common for the final row of a plane.
+ */
+public final class StridedPlanarYUVLuminanceSource extends LuminanceSource {
+
+  private static final int THUMBNAIL_SCALE_FACTOR = 2;
+
+  private final byte[] yData;
+  private final int rowStride;
+  // Index of pixel (x, y) is base + x * xStep + y * rowStride; xStep is negative when reversed
+  private final int base;
+  private final int xStep;
+
+  /**
+   * @param yData Y plane data, starting with the first pixel of the first row
+   * @param dataWidth width of the data in pixels
+   * @param dataHeight height of the data in pixels
+   * @param rowStride number of bytes from the start of one row to the start of the next
+   * @param left left edge of the region of the data to use
+   * @param top top edge of the region of the data to use
+   * @param width width of the region
+   * @param height height of the region
+   * @param reverseHorizontal whether to mirror the region left to right
+   */
+  public StridedPlanarYUVLuminanceSource(byte[] yData,
+                                         int dataWidth,
+                                         int dataHeight,
+                                         int rowStride,
+                                         int left,
+                                         int top,
+                                         int width,
+                                         int height,
+                                         boolean reverseHorizontal) {
+    this(yData, dataWidth, dataHeight, rowStride, 1, left, top, width, height, reverseHorizontal);
+  }
+
+  /**
+   * @param yData Y plane data, starting with the first pixel of the first row
+   * @param dataWidth width of the data in pixels
+   * @param dataHeight height of the data in pixels
+   * @param rowStride number of bytes from the start of one row to the start of the next
+   * @param pixelStride number of bytes from one pixel to the next within a row, such as 2 for
+   *  the interleaved Y channel of YUYV data
+   * @param left left edge of the region of the data to use
+   * @param top top edge of the region of the data to use
+   * @param width width of the region
+   * @param height height of the region
+   * @param reverseHorizontal whether to mirror the region left to right
+   */
+  public StridedPlanarYUVLuminanceSource(byte[] yData,
+                                         int dataWidth,
+                                         int dataHeight,
+                                         int rowStride,
+                                         int pixelStride,
+                                         int left,
+                                         int top,
+                                         int width,
+                                         int height,
+                                         boolean reverseHorizontal) {
+    super(width, height);
+
+    if (left < 0 || top < 0 || left + width > dataWidth || top + height > dataHeight) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    if (pixelStride < 1 || rowStride < (dataWidth - 1) * pixelStride + 1) {
+      throw new IllegalArgumentException("Strides are too small for width " + dataWidth);
+    }
+    if (yData.length < (dataHeight - 1) * rowStride + (dataWidth - 1) * pixelStride + 1) {
+      throw new IllegalArgumentException("Data is too small for " + dataWidth + "x" + dataHeight);
+    }
+
+    this.yData = yData;
+    this.rowStride = rowStride;
+    int rowStart = top * rowStride + left * pixelStride;
+    if (reverseHorizontal) {
+      this.base = rowStart + (width - 1) * pixelStride;
+      this.xStep = -pixelStride;
+    } else {
+      this.base = rowStart;
+      this.xStep = pixelStride;
+    }
+  }
+
+  private StridedPlanarYUVLuminanceSource(byte[] yData, int rowStride, int base, int xStep, int width, int height) {
+    super(width, height);
+    this.yData = yData;
+    this.rowStride = rowStride;
+    this.base = base;
+    this.xStep = xStep;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    copyRow(y, row, 0);
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    int width = getWidth();
+    int height = getHeight();
+
+    // If the caller asks for the entire underlying image, and it's unpadded, save the copy and
+    // give them the original data. The docs specifically warn that result.length must be ignored.
+    if (base == 0 && xStep == 1 && rowStride == width) {
+      return yData;
+    }
+
+    byte[] matrix = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      copyRow(y, matrix, y * width);
+    }
+    return matrix;
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    if (left < 0 || top < 0 || left + width > getWidth() || top + height > getHeight()) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    // Coordinates are relative to this source, so a crop of a reversed source stays reversed
+    return new StridedPlanarYUVLuminanceSource(yData,
+                                               rowStride,
+                                               base + left * xStep + top * rowStride,
+                                               xStep,
+                                               width,
+                                               height);
+  }
+
+  @Override
+  public boolean isRotateSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource rotateCounterClockwise() {
+    return new RotatedLuminanceSource(this);
+  }
+
+  public int[] renderThumbnail() {
+    int width = getWidth() / THUMBNAIL_SCALE_FACTOR;
+    int height = getHeight() / THUMBNAIL_SCALE_FACTOR;
+    int[] pixels = new int[width * height];
+    byte[] yData = this.yData;
+    int xStep = this.xStep * THUMBNAIL_SCALE_FACTOR;
+    int inputOffset = base;
+
+    for (int y = 0; y < height; y++) {
+      int outputOffset = y * width;
+      for (int x = 0, index = inputOffset; x < width; x++, index += xStep) {
+        int grey = yData[index] & 0xff;
+        pixels[outputOffset + x] = 0xFF000000 | (grey * 0x00010101);
+      }
+      inputOffset += rowStride * THUMBNAIL_SCALE_FACTOR;
+    }
+    return pixels;
+  }
+
+  /**
+   * @return width of image from {@link #renderThumbnail()}
+   */
+  public int getThumbnailWidth() {
+    return getWidth() / THUMBNAIL_SCALE_FACTOR;
+  }
+
+  /**
+   * @return height of image from {@link #renderThumbnail()}
+   */
+  public int getThumbnailHeight() {
+    return getHeight() / THUMBNAIL_SCALE_FACTOR;
+  }
+
+  private void copyRow(int y, byte[] dest, int offset) {
+    int width = getWidth();
+    int index = base + y * rowStride;
+    if (xStep == 1) {
+      System.arraycopy(yData, index, dest, offset, width);
+    } else {
+      byte[] yData = this.yData;
+      int xStep = this.xStep;
+      for (int x = 0; x < width; x++, index += xStep) {
+        dest[offset + x] = yData[index];
+      }
+    }
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.datamatrix.DataMatrixReader;
+import com.google.zxing.qrcode.QRCodeReader;
+
+import java.util.Map;
+
+/**
+ * <p>Decodes the frames of a video, such as a camera preview, in which the same barcode usually
+ * appears from one frame to the next. After a QR Code or Data Matrix code is decoded, it is
+ * tracked: in the next frame, it is looked for only around where it is expected to be, moving as
+ * it moved between the last two frames, which is much faster than searching the whole frame. Only
+ * if that fails is the frame decoded from scratch by a {@link MultiFormatReader}, which finds any
+ * barcode and starts tracking it.</p>
+ *
+ * <p>Other barcodes are decoded from scratch in every frame. Like {@link MultiFormatReader}, an
+ * instance must only be used by one thread at a time.</p>
+ */
+public final class TrackingReader implements Reader {
+
+  private final MultiFormatReader reader;
+  private final QRCodeReader qrCodeReader;
+  private final DataMatrixReader dataMatrixReader;
+  private DecodeOptions hints;
+  // Format and points of the barcode decoded in the last frame, if tracked; and in the one before
+  private BarcodeFormat trackedFormat;
+  private ResultPoint[] trackedPoints;
+  private ResultPoint[] previousPoints;
+
+  public TrackingReader() {
+    reader = new MultiFormatReader();
+    qrCodeReader = new QRCodeReader();
+    dataMatrixReader = new DataMatrixReader();
+    setHints(null);
+  }
+
+  /**
+   * Sets the hints for the following frames, keeping any barcode tracked. Set them once, rather
+   * than with every frame, as the readers are set up again each time.
+   *
+   * @param hints hints to decode with; may be null
+   */
+  public void setHints(Map<DecodeHintType,?> hints) {
+    this.hints = DecodeOptions.of(hints);
+    reader.setHints(this.hints);
+  }
+
+  /**
+   * Decodes the next frame, with the hints last set.
+   *
+   * @param image frame to decode
+   * @return the barcode decoded from the frame
+   * @throws NotFoundException if there is none
+   */
+  @Override
+  public Result decode(BinaryBitmap image) throws NotFoundException {
+    if (trackedFormat != null) {
+      ResultPoint[] expectedPoints = expectedPoints();
+      try {
+        Result result = trackedFormat == BarcodeFormat.QR_CODE ?
+            qrCodeReader.decodeNear(image, expectedPoints, hints) :
+            dataMatrixReader.decodeNear(image, expectedPoints, hints);
+        track(result);
+        return result;
+      } catch (ReaderException re) {
+        // Lost it; search the whole frame
+      }
+    }
+
+    Result result;
+    try {
+      result = reader.decodeWithState(image);
+    } catch (NotFoundException nfe) {
+      untrack();
+      throw nfe;
+    }
+    untrack();
+    track(result);
+    return result;
+  }
+
+  /**
+   * Sets the hints, then decodes the next frame.
+   *
+   * @param image frame to decode
+   * @param hints hints to decode with; may be null
+   * @return the barcode decoded from the frame
+   * @throws NotFoundException if there is none
+   * @see #setHints(Map)
+   */
+  @Override
+  public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException {
+    setHints(hints);
+    return decode(image);
+  }
+
+  /**
+   * @return true if a barcode is tracked, and will be looked for first where it is expected in
+   *  the next frame
+   */
+  public boolean isTracking() {
+    return trackedFormat != null;
+  }
+
+  /**
+   * Stops tracking any barcode, as when the video is interrupted.
+   */
+  @Override
+  public void reset() {
+    untrack();
+    reader.reset();
+  }
+
+  private void track(Result result) {
+    BarcodeFormat format = result.getBarcodeFormat();
+    ResultPoint[] points = result.getResultPoints();
+    if ((format != BarcodeFormat.QR_CODE && format != BarcodeFormat.DATA_MATRIX) ||
+        points == null || points.length < 3) {
+      untrack();
+      return;
+    }
+    previousPoints = trackedPoints;
+    trackedPoints = points.clone();
+    trackedFormat = format;
+  }
+
+  private void untrack() {
+    trackedFormat = null;
+    trackedPoints = null;
+    previousPoints = null;
+  }
+
+  /**
+   * @return points of the tracked barcode where they would be if it kept moving as it did between
+   *  the last two frames, or where they were in the last frame if it was found only then
+   */
+  private ResultPoint[] expectedPoints() {
+    if (previousPoints == null || previousPoints.length != trackedPoints.length) {
+      return trackedPoints;
+    }
+    ResultPoint[] expected = new ResultPoint[trackedPoints.length];
+    for (int i = 0; i < expected.length; i++) {
+      ResultPoint point = trackedPoints[i];
+      ResultPoint previous = previousPoints[i];
+      if (point == null || previous == null) {
+        return trackedPoints;
+      }
+      expected[i] = new ResultPoint(2.0f * point.getX() - previous.getX(), 2.0f * point.getY() - previous.getY());
+    }
+    return expected;
+  }
+
+}
@@ -18,6 +18,8 @@ package com.google.zxing.aztec;
 
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeListener;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
@@ -53,13 +55,18 @@ public final class AztecReader implements Reader {
   public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
       throws NotFoundException, FormatException {
 
+    DecodeOptions options = DecodeOptions.of(hints);
+    DecodeListener listener = options.getDecodeListener();
     NotFoundException notFoundException = null;
     FormatException formatException = null;
-    Detector detector = new Detector(image.getBlackMatrix());
+    int level = image.getCoarsestLevel();
+    Detector detector = level > 0 ?
+        new Detector(image.getBlackMatrix(listener), image.getBlackMatrix(level), 1 << level) :
+        new Detector(image.getBlackMatrix(listener));
     ResultPoint[] points = null;
     DecoderResult decoderResult = null;
     try {
-      AztecDetectorResult detectorResult = detector.detect(false);
+      AztecDetectorResult detectorResult = detect(detector, false, listener);
       points = detectorResult.getPoints();
       decoderResult = new Decoder().decode(detectorResult);
     } catch (NotFoundException e) {
@@ -69,7 +76,7 @@ public final class AztecReader implements Reader {
     }
     if (decoderResult == null) {
       try {
-        AztecDetectorResult detectorResult = detector.detect(true);
+        AztecDetectorResult detectorResult = detect(detector, true, listener);
         points = detectorResult.getPoints();
         decoderResult = new Decoder().decode(detectorResult);
       } catch (NotFoundException | FormatException e) {
@@ -83,14 +90,15 @@ public final class AztecReader implements Reader {
       }
     }
 
-    if (hints != null) {
-      ResultPointCallback rpcb = (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
-      if (rpcb != null) {
-        for (ResultPoint point : points) {
-          rpcb.foundPossibleResultPoint(point);
-        }
+    ResultPointCallback rpcb = options.getResultPointCallback();
+    if (rpcb != null) {
+      for (ResultPoint point : points) {
+        rpcb.foundPossibleResultPoint(point);
       }
     }
+    if (listener != null) {
+      listener.errorsCorrected(decoderResult.getErrorsCorrected());
+    }
 
     return decoderResult.aztecdecoded(points);
   }
@@ -100,4 +108,16 @@ public final class AztecReader implements Reader {
     // do nothing
   }
 
+  private static AztecDetectorResult detect(Detector detector, boolean isMirror, DecodeListener listener)
+      throws NotFoundException {
+    long start = listener == null ? 0L : System.nanoTime();
+    try {
+      return detector.detect(isMirror);
+    } finally {
+      if (listener != null) {
+        listener.stageFinished(DecodeListener.Stage.DETECTION, System.nanoTime() - start);
+      }
+    }
+  }
+
 }
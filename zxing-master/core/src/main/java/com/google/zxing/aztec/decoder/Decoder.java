@@ -87,6 +87,7 @@ public final class Decoder {
     DecoderResult decoderResult =
         new DecoderResult(rawBytes, result, null, String.format("%d%%", correctedBits.ecLevel));
     decoderResult.setNumBits(correctedBits.correctBits.length);
+    decoderResult.setErrorsCorrected(correctedBits.errorsCorrected);
     return decoderResult;
   }
 
@@ -272,10 +273,12 @@ public final class Decoder {
   static final class CorrectedBitsResult {
     private final boolean[] correctBits;
     private final int ecLevel;
+    private final int errorsCorrected;
 
-    CorrectedBitsResult(boolean[] correctBits, int ecLevel) {
+    CorrectedBitsResult(boolean[] correctBits, int ecLevel, int errorsCorrected) {
       this.correctBits = correctBits;
       this.ecLevel = ecLevel;
+      this.errorsCorrected = errorsCorrected;
     }
   }
 
@@ -315,9 +318,10 @@ public final class Decoder {
       dataWords[i] = readCode(rawbits, offset, codewordSize);
     }
 
+    int errorsCorrected;
     try {
       ReedSolomonDecoder rsDecoder = new ReedSolomonDecoder(gf);
-      rsDecoder.decode(dataWords, numCodewords - numDataCodewords);
+      errorsCorrected = rsDecoder.decodeWithECCount(dataWords, numCodewords - numDataCodewords);
     } catch (ReedSolomonException ex) {
       throw FormatException.getFormatInstance(ex);
     }
@@ -350,7 +354,8 @@ public final class Decoder {
       }
     }
 
-    return new CorrectedBitsResult(correctedBits, 100 * (numCodewords - numDataCodewords) / numCodewords);
+    return new CorrectedBitsResult(correctedBits, 100 * (numCodewords - numDataCodewords) / numCodewords,
+        errorsCorrected);
   }
 
   /**
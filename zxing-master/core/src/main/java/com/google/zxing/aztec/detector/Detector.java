@@ -44,6 +44,8 @@ public final class Detector {
   };
 
   private final BitMatrix image;
+  private final BitMatrix coarseImage;
+  private final int scale;
 
   private boolean compact;
   private int nbLayers;
@@ -52,7 +54,21 @@ public final class Detector {
   private int shift;
 
   public Detector(BitMatrix image) {
+    this(image, null, 1);
+  }
+
+  /**
+   * Creates a detector which makes its first estimate of the code's center in a lower resolution
+   * copy of the image, then refines it and samples the code in the full resolution image.
+   *
+   * @param image full resolution image
+   * @param coarseImage image at 1/scale of its resolution, or null to work at full resolution only
+   * @param scale ratio of image's resolution to coarseImage's
+   */
+  public Detector(BitMatrix image, BitMatrix coarseImage, int scale) {
     this.image = image;
+    this.coarseImage = coarseImage;
+    this.scale = scale;
   }
 
   public AztecDetectorResult detect() throws NotFoundException {
@@ -301,7 +317,7 @@ public final class Detector {
     //Get a white rectangle that can be the border of the matrix in center bull's eye or
     try {
 
-      ResultPoint[] cornerPoints = new WhiteRectangleDetector(image).detect();
+      ResultPoint[] cornerPoints = detectWhiteRectangle();
       pointA = cornerPoints[0];
       pointB = cornerPoints[1];
       pointC = cornerPoints[2];
@@ -349,6 +365,25 @@ public final class Detector {
     return new Point(cx, cy);
   }
 
+  /**
+   * Finds a white rectangle around the center of the image, in the coarse image if there is one.
+   * The center is only estimated from it, and refined later, so it needn't be precise.
+   */
+  private ResultPoint[] detectWhiteRectangle() throws NotFoundException {
+    if (coarseImage != null) {
+      try {
+        ResultPoint[] cornerPoints = new WhiteRectangleDetector(coarseImage).detect();
+        for (int i = 0; i < cornerPoints.length; i++) {
+          cornerPoints[i] = new ResultPoint(cornerPoints[i].getX() * scale, cornerPoints[i].getY() * scale);
+        }
+        return cornerPoints;
+      } catch (NotFoundException e) {
+        // try again at full resolution
+      }
+    }
+    return new WhiteRectangleDetector(image).detect();
+  }
+
   /**
    * Gets the Aztec code corners from the bull's eye corners and the parameters.
    *
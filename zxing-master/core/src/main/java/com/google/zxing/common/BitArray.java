@@ -92,6 +92,20 @@ public final class BitArray implements Cloneable {
     bits[i / 32] ^= 1 << (i & 0x1F);
   }
 
+  /**
+   * Flips every bit in the array. Bits past the size stay clear.
+   */
+  public void flip() {
+    if (size == 0) {
+      return;
+    }
+    int last = (size - 1) / 32;
+    for (int i = 0; i < last; i++) {
+      bits[i] = ~bits[i];
+    }
+    bits[last] = ~bits[last] & (-1 >>> (31 - ((size - 1) & 0x1F)));
+  }
+
   /**
    * @param from first bit to check
    * @return index of first bit that is set, starting from the given index, or size if none are set
@@ -299,29 +313,31 @@ public final class BitArray implements Cloneable {
   }
 
   /**
-   * Reverses all bits in the array.
+   * Reverses all bits in the array, in place.
    */
   public void reverse() {
-    int[] newBits = new int[bits.length];
     // reverse all int's first
     int len = (size - 1) / 32;
     int oldBitsLen = len + 1;
-    for (int i = 0; i < oldBitsLen; i++) {
-      newBits[len - i] = Integer.reverse(bits[i]);
+    for (int i = 0, j = len; i <= j; i++, j--) {
+      int temp = bits[i];
+      bits[i] = Integer.reverse(bits[j]);
+      bits[j] = Integer.reverse(temp);
     }
+    // anything past the last used int is expected to be clear
+    Arrays.fill(bits, oldBitsLen, bits.length, 0);
     // now correct the int's if the bit size isn't a multiple of 32
     if (size != oldBitsLen * 32) {
       int leftOffset = oldBitsLen * 32 - size;
-      int currentInt = newBits[0] >>> leftOffset;
+      int currentInt = bits[0] >>> leftOffset;
       for (int i = 1; i < oldBitsLen; i++) {
-        int nextInt = newBits[i];
+        int nextInt = bits[i];
         currentInt |= nextInt << (32 - leftOffset);
-        newBits[i - 1] = currentInt;
+        bits[i - 1] = currentInt;
         currentInt = nextInt >>> leftOffset;
       }
-      newBits[oldBitsLen - 1] = currentInt;
+      bits[oldBitsLen - 1] = currentInt;
     }
-    bits = newBits;
   }
 
   private static int[] makeArray(int size) {
@@ -286,6 +286,22 @@ public final class BitMatrix implements Cloneable {
     System.arraycopy(row.getBitArray(), 0, bits, y * rowSize, rowSize);
   }
 
+  /**
+   * <p>Sets to true, 32 at a time, the bits of a row which are set in the given words. Like
+   * {@link #set(int, int)}, this never sets a bit to false. Word i holds bits 32*i to 32*i+31,
+   * least significant bit first, and only the first {@link #getRowSize()} words are read.</p>
+   *
+   * @param y row to set
+   * @param words bits to set
+   */
+  public void setRowBits(int y, int[] words) {
+    int[] bits = this.bits;
+    int offset = y * rowSize;
+    for (int i = 0; i < rowSize; i++) {
+      bits[offset + i] |= words[i];
+    }
+  }
+
   /**
    * Modifies this {@code BitMatrix} to represent the same but rotated 180 degrees
    */
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+/**
+ * <p>Holds the buffers that binarization and 1D row scanning would otherwise allocate for every
+ * image, so that a stream of same-sized frames can be decoded without producing garbage.
+ * Pass one to a {@link com.google.zxing.Binarizer} constructor, for example
+ * {@link HybridBinarizer#HybridBinarizer(com.google.zxing.LuminanceSource, DecodeWorkspace)},
+ * and readers will find it through {@link com.google.zxing.BinaryBitmap#getWorkspace()}.</p>
+ *
+ * <p>Buffers are handed out again for the next frame, so anything obtained from a binarizer
+ * using a workspace, such as its black matrix, is only valid until the next image is binarized
+ * with the same workspace. A workspace must be used by one thread, for one image, at a time.
+ * Binarizers created from another with {@link com.google.zxing.Binarizer#createBinarizer} --
+ * for crops and rotations -- don't share its workspace, since their data is in use at the same
+ * time as the original's.</p>
+ */
+public final class DecodeWorkspace {
+
+  private BitMatrix matrix;
+  private int[][] blackPoints;
+  private byte[] luminances;
+  private int[] buckets;
+  private BitArray row;
+
+  public DecodeWorkspace() {
+    luminances = new byte[0];
+    buckets = new int[0];
+  }
+
+  /**
+   * @param width matrix width
+   * @param height matrix height
+   * @return a cleared {@link BitMatrix} of exactly the given dimensions, reused when the size
+   *  matches the previous request
+   */
+  public BitMatrix getBitMatrix(int width, int height) {
+    if (matrix == null || matrix.getWidth() != width || matrix.getHeight() != height) {
+      matrix = new BitMatrix(width, height);
+    } else {
+      matrix.clear();
+    }
+    return matrix;
+  }
+
+  /**
+   * @param subWidth number of blocks across
+   * @param subHeight number of blocks down
+   * @return a {@code subHeight x subWidth} array; contents are unspecified and must be overwritten
+   */
+  public int[][] getBlackPoints(int subWidth, int subHeight) {
+    if (blackPoints == null || blackPoints.length != subHeight || blackPoints[0].length != subWidth) {
+      blackPoints = new int[subHeight][subWidth];
+    }
+    return blackPoints;
+  }
+
+  /**
+   * @param size minimum length
+   * @return a byte array of at least the given length; contents are unspecified
+   */
+  public byte[] getLuminances(int size) {
+    if (luminances.length < size) {
+      luminances = new byte[size];
+    }
+    return luminances;
+  }
+
+  /**
+   * @param size number of buckets
+   * @return an int array of exactly the given length, as callers take the number of buckets from
+   *  it; reused when the length matches the previous request; contents are unspecified
+   */
+  public int[] getBuckets(int size) {
+    if (buckets.length != size) {
+      buckets = new int[size];
+    }
+    return buckets;
+  }
+
+  /**
+   * @param size number of bits
+   * @return a cleared {@link BitArray} of exactly the given size, reused when the size matches
+   *  the previous request
+   */
+  public BitArray getRow(int size) {
+    if (row == null || row.getSize() != size) {
+      row = new BitArray(size);
+    } else {
+      row.clear();
+    }
+    return row;
+  }
+
+}
@@ -17,9 +17,12 @@
 package com.google.zxing.common;
 
 import com.google.zxing.Binarizer;
+import com.google.zxing.ByteBufferLuminanceSource;
 import com.google.zxing.LuminanceSource;
 import com.google.zxing.NotFoundException;
 
+import java.util.Arrays;
+
 /**
  * This Binarizer implementation uses the old ZXing global histogram approach. It is suitable
  * for low-end mobile devices which don't have enough CPU or memory to use a local thresholding
@@ -37,17 +40,34 @@ public class GlobalHistogramBinarizer extends Binarizer {
   private static final int LUMINANCE_SHIFT = 8 - LUMINANCE_BITS;
   private static final int LUMINANCE_BUCKETS = 1 << LUMINANCE_BITS;
   private static final byte[] EMPTY = new byte[0];
+  // Most ints of row bits kept by the row cache, 1MB; rows beyond that are binarized every time
+  private static final int MAX_CACHED_ROW_WORDS = 1 << 18;
+  // Cached in place of the bits of a row which couldn't be binarized
+  private static final int[] NOT_FOUND_ROW = new int[0];
 
   private byte[] luminances;
   private final int[] buckets;
+  private int[][] cachedRows;
+  private int cachedRowWords;
 
   public GlobalHistogramBinarizer(LuminanceSource source) {
-    super(source);
+    this(source, null);
+  }
+
+  /**
+   * @param source luminance data to binarize
+   * @param workspace buffers to reuse from previous images, or {@code null} to allocate new ones
+   */
+  public GlobalHistogramBinarizer(LuminanceSource source, DecodeWorkspace workspace) {
+    super(source, workspace);
     luminances = EMPTY;
-    buckets = new int[LUMINANCE_BUCKETS];
+    buckets = workspace == null ? new int[LUMINANCE_BUCKETS] : workspace.getBuckets(LUMINANCE_BUCKETS);
   }
 
   // Applies simple sharpening to the row data to improve performance of the 1D Readers.
+  // Several 1D readers, and several passes of each, ask for the same rows of the same image, so
+  // rows are kept once binarized, up to a limit. Callers may modify the row they are given, so
+  // each gets its own copy.
   @Override
   public BitArray getBlackRow(int y, BitArray row) throws NotFoundException {
     LuminanceSource source = getLuminanceSource();
@@ -58,6 +78,37 @@ public class GlobalHistogramBinarizer extends Binarizer {
       row.clear();
     }
 
+    if (cachedRows == null) {
+      cachedRows = new int[source.getHeight()][];
+    }
+    int[] cachedRow = cachedRows[y];
+    if (cachedRow == NOT_FOUND_ROW) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    if (cachedRow != null) {
+      System.arraycopy(cachedRow, 0, row.getBitArray(), 0, cachedRow.length);
+      return row;
+    }
+
+    int rowWords = (width + 31) / 32;
+    boolean cache = cachedRowWords + rowWords <= MAX_CACHED_ROW_WORDS;
+    try {
+      binarizeRow(source, y, row);
+    } catch (NotFoundException nfe) {
+      if (cache) {
+        cachedRows[y] = NOT_FOUND_ROW;
+      }
+      throw nfe;
+    }
+    if (cache) {
+      cachedRows[y] = Arrays.copyOf(row.getBitArray(), rowWords);
+      cachedRowWords += rowWords;
+    }
+    return row;
+  }
+
+  private void binarizeRow(LuminanceSource source, int y, BitArray row) throws NotFoundException {
+    int width = source.getWidth();
     initArrays(width);
     byte[] localLuminances = source.getRow(y, luminances);
     int[] localBuckets = buckets;
@@ -86,7 +137,6 @@ public class GlobalHistogramBinarizer extends Binarizer {
         center = right;
       }
     }
-    return row;
   }
 
   // Does not sharpen the data, as this call is intended to only be used by 2D Readers.
@@ -95,7 +145,8 @@ public class GlobalHistogramBinarizer extends Binarizer {
     LuminanceSource source = getLuminanceSource();
     int width = source.getWidth();
     int height = source.getHeight();
-    BitMatrix matrix = new BitMatrix(width, height);
+    DecodeWorkspace workspace = getWorkspace();
+    BitMatrix matrix = workspace == null ? new BitMatrix(width, height) : workspace.getBitMatrix(width, height);
 
     // Quickly calculates the histogram by sampling four rows from the image. This proved to be
     // more robust on the blackbox tests than sampling a diagonal as we used to do.
@@ -115,17 +166,20 @@ public class GlobalHistogramBinarizer extends Binarizer {
     // We delay reading the entire image luminance until the black point estimation succeeds.
     // Although we end up reading four rows twice, it is consistent with our motto of
     // "fail quickly" which is necessary for continuous scanning.
+    int[] words = new int[matrix.getRowSize()];
+    if (source instanceof ByteBufferLuminanceSource) {
+      // Read one row at a time rather than copying the whole buffer out into a matrix
+      for (int y = 0; y < height; y++) {
+        thresholdRow(source.getRow(y, luminances), 0, width, blackPoint, words);
+        matrix.setRowBits(y, words);
+      }
+      return matrix;
+    }
     byte[] localLuminances = source.getMatrix();
     for (int y = 0; y < height; y++) {
-      int offset = y * width;
-      for (int x = 0; x < width; x++) {
-        int pixel = localLuminances[offset + x] & 0xff;
-        if (pixel < blackPoint) {
-          matrix.set(x, y);
-        }
-      }
+      thresholdRow(localLuminances, y * width, width, blackPoint, words);
+      matrix.setRowBits(y, words);
     }
-
     return matrix;
   }
 
@@ -134,9 +188,26 @@ public class GlobalHistogramBinarizer extends Binarizer {
     return new GlobalHistogramBinarizer(source);
   }
 
+  /**
+   * Packs the black pixels of a row, those darker than blackPoint, into words of 32 bits as
+   * {@link BitMatrix#setRowBits(int, int[])} expects, rather than setting them one at a time.
+   */
+  private static void thresholdRow(byte[] luminances, int offset, int width, int blackPoint, int[] words) {
+    for (int x = 0, i = 0; x < width; i++) {
+      int end = Math.min(x + 32, width);
+      int word = 0;
+      for (int bit = 0; x < end; x++, bit++) {
+        // The sign bit of (pixel - blackPoint) is set exactly when pixel < blackPoint
+        word |= (((luminances[offset + x] & 0xff) - blackPoint) >>> 31) << bit;
+      }
+      words[i] = word;
+    }
+  }
+
   private void initArrays(int luminanceSize) {
     if (luminances.length < luminanceSize) {
-      luminances = new byte[luminanceSize];
+      DecodeWorkspace workspace = getWorkspace();
+      luminances = workspace == null ? new byte[luminanceSize] : workspace.getLuminances(luminanceSize);
     }
     for (int x = 0; x < LUMINANCE_BUCKETS; x++) {
       buckets[x] = 0;
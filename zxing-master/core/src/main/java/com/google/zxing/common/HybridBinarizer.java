@@ -17,9 +17,14 @@
 package com.google.zxing.common;
 
 import com.google.zxing.Binarizer;
+import com.google.zxing.ByteBufferLuminanceSource;
 import com.google.zxing.LuminanceSource;
 import com.google.zxing.NotFoundException;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * This class implements a local thresholding algorithm, which while slower than the
  * GlobalHistogramBinarizer, is fairly efficient for what it does. It is designed for
@@ -35,6 +40,9 @@ import com.google.zxing.NotFoundException;
  *
  * This Binarizer is the default for the unit tests and the recommended class for library users.
  *
+ * For very large images, a {@link ForkJoinPool} may be supplied, in which case rows of blocks are
+ * processed in parallel. The result is bit-for-bit identical to the serial computation.
+ *
  * @author dswitkin@google.com (Daniel Switkin)
  */
 public final class HybridBinarizer extends GlobalHistogramBinarizer {
@@ -46,11 +54,42 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
   private static final int BLOCK_SIZE_MASK = BLOCK_SIZE - 1;   // ...0011...11
   private static final int MINIMUM_DIMENSION = BLOCK_SIZE * 5;
   private static final int MIN_DYNAMIC_RANGE = 24;
+  // Rows of blocks handled by one task when running in parallel; 8 rows of a 24MP image is ~400K pixels.
+  private static final int PARALLEL_BLOCK_ROWS = 8;
 
+  private final ForkJoinPool pool;
   private BitMatrix matrix;
 
   public HybridBinarizer(LuminanceSource source) {
-    super(source);
+    this(source, null, null);
+  }
+
+  /**
+   * @param source luminance data to binarize
+   * @param pool pool on which to compute black points and thresholds in parallel, or {@code null}
+   *  to compute them on the calling thread
+   */
+  public HybridBinarizer(LuminanceSource source, ForkJoinPool pool) {
+    this(source, pool, null);
+  }
+
+  /**
+   * @param source luminance data to binarize
+   * @param workspace buffers to reuse from previous images, or {@code null} to allocate new ones
+   */
+  public HybridBinarizer(LuminanceSource source, DecodeWorkspace workspace) {
+    this(source, null, workspace);
+  }
+
+  /**
+   * @param source luminance data to binarize
+   * @param pool pool on which to compute black points and thresholds in parallel, or {@code null}
+   *  to compute them on the calling thread
+   * @param workspace buffers to reuse from previous images, or {@code null} to allocate new ones
+   */
+  public HybridBinarizer(LuminanceSource source, ForkJoinPool pool, DecodeWorkspace workspace) {
+    super(source, workspace);
+    this.pool = pool;
   }
 
   /**
@@ -67,7 +106,7 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
     int width = source.getWidth();
     int height = source.getHeight();
     if (width >= MINIMUM_DIMENSION && height >= MINIMUM_DIMENSION) {
-      byte[] luminances = source.getMatrix();
+      BlockPixels pixels = new BlockPixels(source);
       int subWidth = width >> BLOCK_SIZE_POWER;
       if ((width & BLOCK_SIZE_MASK) != 0) {
         subWidth++;
@@ -76,10 +115,22 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
       if ((height & BLOCK_SIZE_MASK) != 0) {
         subHeight++;
       }
-      int[][] blackPoints = calculateBlackPoints(luminances, subWidth, subHeight, width, height);
-
-      BitMatrix newMatrix = new BitMatrix(width, height);
-      calculateThresholdForBlock(luminances, subWidth, subHeight, width, height, blackPoints, newMatrix);
+      DecodeWorkspace workspace = getWorkspace();
+      int[][] blackPoints;
+      BitMatrix newMatrix;
+      if (workspace == null) {
+        blackPoints = new int[subHeight][subWidth];
+        newMatrix = new BitMatrix(width, height);
+      } else {
+        blackPoints = workspace.getBlackPoints(subWidth, subHeight);
+        newMatrix = workspace.getBitMatrix(width, height);
+      }
+      if (pool == null) {
+        calculateBlackPoints(pixels, subWidth, subHeight, width, height, blackPoints);
+        calculateThresholdForBlock(pixels, subWidth, subHeight, width, height, 0, subHeight, blackPoints, newMatrix);
+      } else {
+        calculateInParallel(pixels, subWidth, subHeight, width, height, blackPoints, newMatrix);
+      }
       matrix = newMatrix;
     } else {
       // If the image is too small, fall back to the global histogram approach.
@@ -90,28 +141,77 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
 
   @Override
   public Binarizer createBinarizer(LuminanceSource source) {
-    return new HybridBinarizer(source);
+    // The workspace is deliberately not shared; see DecodeWorkspace
+    return new HybridBinarizer(source, pool, null);
+  }
+
+  /**
+   * Same as {@link #calculateBlackPoints(BlockPixels, int, int, int, int, int[][])} followed by
+   * {@link #calculateThresholdForBlock(BlockPixels, int, int, int, int, int, int, int[][], BitMatrix)},
+   * but with the per-block work spread over the pool. Only the neighbor correction of low contrast
+   * blocks, which depends on blocks above and to the left, is done serially, and it is cheap.
+   */
+  private void calculateInParallel(final BlockPixels pixels,
+                                   final int subWidth,
+                                   final int subHeight,
+                                   final int width,
+                                   final int height,
+                                   final int[][] blackPoints,
+                                   final BitMatrix matrix) {
+    pool.invoke(new BlockRowsTask(0, subHeight) {
+      @Override
+      void computeRows(int startY, int endY) {
+        BlockPixels localPixels = pixels.forAnotherThread();
+        for (int y = startY; y < endY; y++) {
+          estimateBlackPoints(localPixels, subWidth, width, height, y, blackPoints[y]);
+        }
+      }
+    });
+    for (int y = 0; y < subHeight; y++) {
+      correctBlackPoints(subWidth, y, blackPoints);
+    }
+
+    // The last row of blocks is shifted up to fit when the height isn't a multiple of the block
+    // size, and so shares pixel rows -- and BitMatrix words -- with the row before it.
+    // Threshold it separately once the others are done.
+    final int parallelRows = (height & BLOCK_SIZE_MASK) == 0 ? subHeight : subHeight - 1;
+    pool.invoke(new BlockRowsTask(0, parallelRows) {
+      @Override
+      void computeRows(int startY, int endY) {
+        calculateThresholdForBlock(pixels.forAnotherThread(), subWidth, subHeight, width, height, startY, endY,
+                                   blackPoints, matrix);
+      }
+    });
+    calculateThresholdForBlock(pixels, subWidth, subHeight, width, height, parallelRows, subHeight,
+                               blackPoints, matrix);
   }
 
   /**
    * For each block in the image, calculate the average black point using a 5x5 grid
    * of the blocks around it. Also handles the corner cases (fractional blocks are computed based
    * on the last pixels in the row/column which are also used in the previous block).
+   * Only rows of blocks in [startY, endY) are thresholded.
    */
-  private static void calculateThresholdForBlock(byte[] luminances,
+  private static void calculateThresholdForBlock(BlockPixels pixels,
                                                  int subWidth,
                                                  int subHeight,
                                                  int width,
                                                  int height,
+                                                 int startY,
+                                                 int endY,
                                                  int[][] blackPoints,
                                                  BitMatrix matrix) {
     int maxYOffset = height - BLOCK_SIZE;
     int maxXOffset = width - BLOCK_SIZE;
-    for (int y = 0; y < subHeight; y++) {
+    // Black pixels of one row of blocks, packed as BitMatrix stores them
+    int[][] words = new int[BLOCK_SIZE][matrix.getRowSize()];
+    for (int y = startY; y < endY; y++) {
       int yoffset = y << BLOCK_SIZE_POWER;
       if (yoffset > maxYOffset) {
         yoffset = maxYOffset;
       }
+      byte[] luminances = pixels.getRows(yoffset);
+      int rowOffset = pixels.getOffset(yoffset);
       int top = cap(y, subHeight - 3);
       for (int x = 0; x < subWidth; x++) {
         int xoffset = x << BLOCK_SIZE_POWER;
@@ -125,7 +225,11 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
           sum += blackRow[left - 2] + blackRow[left - 1] + blackRow[left] + blackRow[left + 1] + blackRow[left + 2];
         }
         int average = sum / 25;
-        thresholdBlock(luminances, xoffset, yoffset, average, width, matrix);
+        thresholdBlock(luminances, rowOffset + xoffset, xoffset, average, width, words);
+      }
+      for (int i = 0; i < BLOCK_SIZE; i++) {
+        matrix.setRowBits(yoffset + i, words[i]);
+        Arrays.fill(words[i], 0);
       }
     }
   }
@@ -135,20 +239,29 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
   }
 
   /**
-   * Applies a single threshold to a block of pixels.
+   * Applies a single threshold to a block of pixels, whose top left pixel is at luminances[start],
+   * setting the bits of black pixels in words, which hold the BLOCK_SIZE rows of the block.
    */
   private static void thresholdBlock(byte[] luminances,
+                                     int start,
                                      int xoffset,
-                                     int yoffset,
                                      int threshold,
                                      int stride,
-                                     BitMatrix matrix) {
-    for (int y = 0, offset = yoffset * stride + xoffset; y < BLOCK_SIZE; y++, offset += stride) {
+                                     int[][] words) {
+    int word = xoffset >> 5;
+    int shift = xoffset & 0x1F;
+    for (int y = 0, offset = start; y < BLOCK_SIZE; y++, offset += stride) {
+      int mask = 0;
       for (int x = 0; x < BLOCK_SIZE; x++) {
         // Comparison needs to be <= so that black == 0 pixels are black even if the threshold is 0.
-        if ((luminances[offset + x] & 0xFF) <= threshold) {
-          matrix.set(xoffset + x, yoffset + y);
-        }
+        // The sign bit of (pixel - threshold - 1) is set exactly when pixel <= threshold.
+        mask |= (((luminances[offset + x] & 0xFF) - threshold - 1) >>> 31) << x;
+      }
+      int[] row = words[y];
+      row[word] |= mask << shift;
+      if (shift > 32 - BLOCK_SIZE) {
+        // The block straddles two words
+        row[word + 1] |= mask >>> (32 - shift);
       }
     }
   }
@@ -158,80 +271,199 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
    * See the following thread for a discussion of this algorithm:
    *  http://groups.google.com/group/zxing/browse_thread/thread/d06efa2c35a7ddc0
    */
-  private static int[][] calculateBlackPoints(byte[] luminances,
-                                              int subWidth,
-                                              int subHeight,
-                                              int width,
-                                              int height) {
+  private static void calculateBlackPoints(BlockPixels pixels,
+                                           int subWidth,
+                                           int subHeight,
+                                           int width,
+                                           int height,
+                                           int[][] blackPoints) {
+    for (int y = 0; y < subHeight; y++) {
+      estimateBlackPoints(pixels, subWidth, width, height, y, blackPoints[y]);
+      correctBlackPoints(subWidth, y, blackPoints);
+    }
+  }
+
+  /**
+   * Computes the black point of each block in one row of blocks from its own pixels only. Blocks
+   * with too little contrast to have a meaningful black point are instead recorded as the bitwise
+   * complement of their minimum, a negative value, to be resolved by
+   * {@link #correctBlackPoints(int, int, int[][])} once their neighbors are known.
+   */
+  private static void estimateBlackPoints(BlockPixels pixels,
+                                          int subWidth,
+                                          int width,
+                                          int height,
+                                          int y,
+                                          int[] blackRow) {
     int maxYOffset = height - BLOCK_SIZE;
     int maxXOffset = width - BLOCK_SIZE;
-    int[][] blackPoints = new int[subHeight][subWidth];
-    for (int y = 0; y < subHeight; y++) {
-      int yoffset = y << BLOCK_SIZE_POWER;
-      if (yoffset > maxYOffset) {
-        yoffset = maxYOffset;
+    int yoffset = y << BLOCK_SIZE_POWER;
+    if (yoffset > maxYOffset) {
+      yoffset = maxYOffset;
+    }
+    byte[] luminances = pixels.getRows(yoffset);
+    int rowOffset = pixels.getOffset(yoffset);
+    for (int x = 0; x < subWidth; x++) {
+      int xoffset = x << BLOCK_SIZE_POWER;
+      if (xoffset > maxXOffset) {
+        xoffset = maxXOffset;
       }
-      for (int x = 0; x < subWidth; x++) {
-        int xoffset = x << BLOCK_SIZE_POWER;
-        if (xoffset > maxXOffset) {
-          xoffset = maxXOffset;
-        }
-        int sum = 0;
-        int min = 0xFF;
-        int max = 0;
-        for (int yy = 0, offset = yoffset * width + xoffset; yy < BLOCK_SIZE; yy++, offset += width) {
-          for (int xx = 0; xx < BLOCK_SIZE; xx++) {
-            int pixel = luminances[offset + xx] & 0xFF;
-            sum += pixel;
-            // still looking for good contrast
-            if (pixel < min) {
-              min = pixel;
-            }
-            if (pixel > max) {
-              max = pixel;
-            }
+      int sum = 0;
+      int min = 0xFF;
+      int max = 0;
+      for (int yy = 0, offset = rowOffset + xoffset; yy < BLOCK_SIZE; yy++, offset += width) {
+        for (int xx = 0; xx < BLOCK_SIZE; xx++) {
+          int pixel = luminances[offset + xx] & 0xFF;
+          sum += pixel;
+          // still looking for good contrast
+          if (pixel < min) {
+            min = pixel;
           }
-          // short-circuit min/max tests once dynamic range is met
-          if (max - min > MIN_DYNAMIC_RANGE) {
-            // finish the rest of the rows quickly
-            for (yy++, offset += width; yy < BLOCK_SIZE; yy++, offset += width) {
-              for (int xx = 0; xx < BLOCK_SIZE; xx++) {
-                sum += luminances[offset + xx] & 0xFF;
-              }
+          if (pixel > max) {
+            max = pixel;
+          }
+        }
+        // short-circuit min/max tests once dynamic range is met
+        if (max - min > MIN_DYNAMIC_RANGE) {
+          // finish the rest of the rows quickly
+          for (yy++, offset += width; yy < BLOCK_SIZE; yy++, offset += width) {
+            for (int xx = 0; xx < BLOCK_SIZE; xx++) {
+              sum += luminances[offset + xx] & 0xFF;
             }
           }
         }
+      }
 
+      if (max - min > MIN_DYNAMIC_RANGE) {
         // The default estimate is the average of the values in the block.
-        int average = sum >> (BLOCK_SIZE_POWER * 2);
-        if (max - min <= MIN_DYNAMIC_RANGE) {
-          // If variation within the block is low, assume this is a block with only light or only
-          // dark pixels. In that case we do not want to use the average, as it would divide this
-          // low contrast area into black and white pixels, essentially creating data out of noise.
-          //
-          // The default assumption is that the block is light/background. Since no estimate for
-          // the level of dark pixels exists locally, use half the min for the block.
-          average = min / 2;
-
-          if (y > 0 && x > 0) {
-            // Correct the "white background" assumption for blocks that have neighbors by comparing
-            // the pixels in this block to the previously calculated black points. This is based on
-            // the fact that dark barcode symbology is always surrounded by some amount of light
-            // background for which reasonable black point estimates were made. The bp estimated at
-            // the boundaries is used for the interior.
-
-            // The (min < bp) is arbitrary but works better than other heuristics that were tried.
-            int averageNeighborBlackPoint =
-                (blackPoints[y - 1][x] + (2 * blackPoints[y][x - 1]) + blackPoints[y - 1][x - 1]) / 4;
-            if (min < averageNeighborBlackPoint) {
-              average = averageNeighborBlackPoint;
-            }
-          }
+        blackRow[x] = sum >> (BLOCK_SIZE_POWER * 2);
+      } else {
+        blackRow[x] = ~min;
+      }
+    }
+  }
+
+  /**
+   * Resolves the low contrast blocks left by {@link #estimateBlackPoints(BlockPixels, int, int, int, int, int[])}
+   * in row y. Requires that all rows above y are already resolved.
+   */
+  private static void correctBlackPoints(int subWidth, int y, int[][] blackPoints) {
+    int[] blackRow = blackPoints[y];
+    for (int x = 0; x < subWidth; x++) {
+      if (blackRow[x] >= 0) {
+        continue;
+      }
+      int min = ~blackRow[x];
+      // If variation within the block is low, assume this is a block with only light or only
+      // dark pixels. In that case we do not want to use the average, as it would divide this
+      // low contrast area into black and white pixels, essentially creating data out of noise.
+      //
+      // The default assumption is that the block is light/background. Since no estimate for
+      // the level of dark pixels exists locally, use half the min for the block.
+      int average = min / 2;
+
+      if (y > 0 && x > 0) {
+        // Correct the "white background" assumption for blocks that have neighbors by comparing
+        // the pixels in this block to the previously calculated black points. This is based on
+        // the fact that dark barcode symbology is always surrounded by some amount of light
+        // background for which reasonable black point estimates were made. The bp estimated at
+        // the boundaries is used for the interior.
+
+        // The (min < bp) is arbitrary but works better than other heuristics that were tried.
+        int averageNeighborBlackPoint =
+            (blackPoints[y - 1][x] + (2 * blackRow[x - 1]) + blackPoints[y - 1][x - 1]) / 4;
+        if (min < averageNeighborBlackPoint) {
+          average = averageNeighborBlackPoint;
         }
-        blackPoints[y][x] = average;
       }
+      blackRow[x] = average;
     }
-    return blackPoints;
+  }
+
+  /**
+   * Supplies the pixels of one row of blocks at a time: straight from the luminance matrix, or for a
+   * {@link ByteBufferLuminanceSource}, by reading just those rows from its buffer so that the whole
+   * image is never copied onto the heap.
+   */
+  private static final class BlockPixels {
+
+    private final byte[] matrix;
+    private final ByteBufferLuminanceSource bufferSource;
+    private final int width;
+    private byte[] band;
+
+    BlockPixels(LuminanceSource source) {
+      width = source.getWidth();
+      if (source instanceof ByteBufferLuminanceSource) {
+        matrix = null;
+        bufferSource = (ByteBufferLuminanceSource) source;
+      } else {
+        matrix = source.getMatrix();
+        bufferSource = null;
+      }
+    }
+
+    /**
+     * @return an equivalent instance which can be used on another thread at the same time as this one
+     */
+    BlockPixels forAnotherThread() {
+      return matrix == null ? new BlockPixels(bufferSource) : this;
+    }
+
+    /**
+     * @return array holding the BLOCK_SIZE rows of pixels starting at row yoffset, the first of
+     *  which begins at {@link #getOffset(int)}. Valid until the next call.
+     */
+    byte[] getRows(int yoffset) {
+      if (matrix != null) {
+        return matrix;
+      }
+      band = bufferSource.getRows(yoffset, BLOCK_SIZE, band);
+      return band;
+    }
+
+    int getOffset(int yoffset) {
+      return matrix == null ? 0 : yoffset * width;
+    }
+
+  }
+
+  /**
+   * Splits a range of block rows in half until it is small enough to compute directly.
+   */
+  private abstract static class BlockRowsTask extends RecursiveAction {
+
+    private final int startY;
+    private final int endY;
+
+    BlockRowsTask(int startY, int endY) {
+      this.startY = startY;
+      this.endY = endY;
+    }
+
+    abstract void computeRows(int startY, int endY);
+
+    @Override
+    protected final void compute() {
+      if (endY - startY <= PARALLEL_BLOCK_ROWS) {
+        computeRows(startY, endY);
+        return;
+      }
+      final BlockRowsTask parent = this;
+      int middle = (startY + endY) >>> 1;
+      invokeAll(new BlockRowsTask(startY, middle) {
+        @Override
+        void computeRows(int startY, int endY) {
+          parent.computeRows(startY, endY);
+        }
+      }, new BlockRowsTask(middle, endY) {
+        @Override
+        void computeRows(int startY, int endY) {
+          parent.computeRows(startY, endY);
+        }
+      });
+    }
+
   }
 
 }
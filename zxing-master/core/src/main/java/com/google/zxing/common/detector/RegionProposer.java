@@ -0,0 +1,262 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common.detector;
+
+import com.google.zxing.LuminanceSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>Proposes the regions of an image which are likely to hold a barcode, so that readers need
+ * only search those, rather than the whole image. This is much cheaper than detecting a barcode:
+ * it reads the luminance once, without binarizing it, and is meant for large images in which
+ * barcodes are small.</p>
+ *
+ * <p>The image is divided into square tiles. In each, strong edges are counted along sampled rows
+ * and sampled columns; each edge where the luminance turns from rising to falling, or back, is a
+ * transition. Tiles with many transitions are busy, and each group of adjacent busy tiles, with a
+ * margin for quiet zones, is proposed as a region. A region whose transitions run mostly in one
+ * direction looks like the bars of a 1D barcode; one with transitions both ways, like a 2D
+ * barcode. Text and other texture are proposed as well; the readers tell them apart.</p>
+ */
+public final class RegionProposer {
+
+  // Tiles are TILE_SIZE pixels square
+  private static final int TILE_SIZE = 32;
+  // Every STEP-th row and column is sampled
+  private static final int STEP = 4;
+  // Luminance difference between neighboring pixels which counts as an edge
+  private static final int MIN_EDGE_CONTRAST = 24;
+  // A tile is busy with at least one transition every MIN_DENSITY_DIVISOR sampled pixels
+  private static final int MIN_DENSITY_DIVISOR = 20;
+  // Regions of fewer busy tiles are noise, or too small to decode
+  private static final int MIN_TILES = 2;
+  // Tiles added around each group of busy tiles, to include quiet zones
+  private static final int MARGIN_TILES = 2;
+  // A region is linear if transitions in one direction outnumber the other this many times
+  private static final int LINEAR_RATIO = 4;
+
+  private RegionProposer() {
+  }
+
+  /**
+   * A region of an image which may hold a barcode.
+   */
+  public static final class Region {
+
+    /**
+     * The kind of barcode the region looks like.
+     */
+    public enum Kind {
+      /** Parallel bars, as of a 1D barcode, in either orientation. */
+      LINEAR,
+      /** Modules in two dimensions, as of a 2D barcode. */
+      MATRIX
+    }
+
+    private final int left;
+    private final int top;
+    private final int width;
+    private final int height;
+    private final Kind kind;
+    private final int transitions;
+
+    Region(int left, int top, int width, int height, Kind kind, int transitions) {
+      this.left = left;
+      this.top = top;
+      this.width = width;
+      this.height = height;
+      this.kind = kind;
+      this.transitions = transitions;
+    }
+
+    public int getLeft() {
+      return left;
+    }
+
+    public int getTop() {
+      return top;
+    }
+
+    public int getWidth() {
+      return width;
+    }
+
+    public int getHeight() {
+      return height;
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    /**
+     * @return number of transitions counted in the region; regions with more are more likely to
+     *  hold a barcode, and are proposed first
+     */
+    public int getTransitions() {
+      return transitions;
+    }
+
+    @Override
+    public String toString() {
+      return kind + " " + width + 'x' + height + " at (" + left + ',' + top + ')';
+    }
+
+  }
+
+  /**
+   * @param source image to search
+   * @return regions which may hold a barcode, most likely first; empty if there are none
+   */
+  public static List<Region> propose(LuminanceSource source) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    int tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+    int tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+    // Transitions along rows and along columns, and the number of pixels sampled for each, by tile
+    int[] rowTransitions = new int[tilesX * tilesY];
+    int[] columnTransitions = new int[tilesX * tilesY];
+    int[] rowSamples = new int[tilesX * tilesY];
+    int[] columnSamples = new int[tilesX * tilesY];
+
+    // Columns are followed down the whole image, so each sampled column keeps its state
+    int columns = Math.max(0, (width - STEP / 2 + STEP - 1) / STEP);
+    int[] previousLuminances = new int[columns];
+    int[] columnSigns = new int[columns];
+    byte[] row = new byte[width];
+    for (int y = 0; y < height; y++) {
+      row = source.getRow(y, row);
+      int tileOffset = (y / TILE_SIZE) * tilesX;
+
+      for (int i = 0; i < columns; i++) {
+        int x = i * STEP + STEP / 2;
+        int luminance = row[x] & 0xFF;
+        if (y > 0) {
+          int tile = tileOffset + x / TILE_SIZE;
+          columnSamples[tile]++;
+          int sign = edgeSign(luminance - previousLuminances[i]);
+          if (sign != 0 && sign != columnSigns[i]) {
+            columnSigns[i] = sign;
+            columnTransitions[tile]++;
+          }
+        }
+        previousLuminances[i] = luminance;
+      }
+
+      if (y % STEP == STEP / 2) {
+        int lastSign = 0;
+        int previous = row[0] & 0xFF;
+        for (int x = 1; x < width; x++) {
+          int luminance = row[x] & 0xFF;
+          int tile = tileOffset + x / TILE_SIZE;
+          rowSamples[tile]++;
+          int sign = edgeSign(luminance - previous);
+          if (sign != 0 && sign != lastSign) {
+            lastSign = sign;
+            rowTransitions[tile]++;
+          }
+          previous = luminance;
+        }
+      }
+    }
+
+    boolean[] busy = new boolean[tilesX * tilesY];
+    for (int tile = 0; tile < busy.length; tile++) {
+      busy[tile] = rowTransitions[tile] * MIN_DENSITY_DIVISOR >= rowSamples[tile] && rowSamples[tile] > 0 ||
+          columnTransitions[tile] * MIN_DENSITY_DIVISOR >= columnSamples[tile] && columnSamples[tile] > 0;
+    }
+
+    // Group adjacent busy tiles, including diagonally adjacent ones
+    List<Region> regions = new ArrayList<>();
+    int[] stack = new int[busy.length];
+    for (int start = 0; start < busy.length; start++) {
+      if (!busy[start]) {
+        continue;
+      }
+      busy[start] = false;
+      stack[0] = start;
+      int stackSize = 1;
+      int tiles = 0;
+      int totalRowTransitions = 0;
+      int totalColumnTransitions = 0;
+      int minX = tilesX;
+      int minY = tilesY;
+      int maxX = -1;
+      int maxY = -1;
+      while (stackSize > 0) {
+        int tile = stack[--stackSize];
+        int tileX = tile % tilesX;
+        int tileY = tile / tilesX;
+        tiles++;
+        totalRowTransitions += rowTransitions[tile];
+        totalColumnTransitions += columnTransitions[tile];
+        minX = Math.min(minX, tileX);
+        minY = Math.min(minY, tileY);
+        maxX = Math.max(maxX, tileX);
+        maxY = Math.max(maxY, tileY);
+        for (int neighborY = Math.max(0, tileY - 1); neighborY <= Math.min(tilesY - 1, tileY + 1); neighborY++) {
+          for (int neighborX = Math.max(0, tileX - 1); neighborX <= Math.min(tilesX - 1, tileX + 1); neighborX++) {
+            int neighbor = neighborY * tilesX + neighborX;
+            if (busy[neighbor]) {
+              busy[neighbor] = false;
+              stack[stackSize++] = neighbor;
+            }
+          }
+        }
+      }
+      if (tiles < MIN_TILES) {
+        continue;
+      }
+
+      // As many pixels are sampled along rows as along columns, so the counts compare directly
+      Region.Kind kind = totalRowTransitions >= LINEAR_RATIO * totalColumnTransitions ||
+          totalColumnTransitions >= LINEAR_RATIO * totalRowTransitions ? Region.Kind.LINEAR : Region.Kind.MATRIX;
+      int left = Math.max(0, minX - MARGIN_TILES) * TILE_SIZE;
+      int top = Math.max(0, minY - MARGIN_TILES) * TILE_SIZE;
+      int right = Math.min(width, (maxX + 1 + MARGIN_TILES) * TILE_SIZE);
+      int bottom = Math.min(height, (maxY + 1 + MARGIN_TILES) * TILE_SIZE);
+      regions.add(new Region(left, top, right - left, bottom - top, kind,
+                             totalRowTransitions + totalColumnTransitions));
+    }
+
+    Collections.sort(regions, new Comparator<Region>() {
+      @Override
+      public int compare(Region a, Region b) {
+        return Integer.compare(b.getTransitions(), a.getTransitions());
+      }
+    });
+    return regions;
+  }
+
+  /**
+   * @return 1 for a rising edge, -1 for a falling one, or 0 if the difference is too small
+   */
+  private static int edgeSign(int difference) {
+    if (difference >= MIN_EDGE_CONTRAST) {
+      return 1;
+    }
+    if (difference <= -MIN_EDGE_CONTRAST) {
+      return -1;
+    }
+    return 0;
+  }
+
+}
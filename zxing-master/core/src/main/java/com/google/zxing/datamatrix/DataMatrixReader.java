@@ -20,6 +20,8 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeListener;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
@@ -62,17 +64,59 @@ public final class DataMatrixReader implements Reader {
   @Override
   public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    DecodeOptions options = DecodeOptions.of(hints);
+    DecodeListener listener = options.getDecodeListener();
     DecoderResult decoderResult;
     ResultPoint[] points;
-    if (hints != null && hints.containsKey(DecodeHintType.PURE_BARCODE)) {
-      BitMatrix bits = extractPureBits(image.getBlackMatrix());
+    if (options.isPureBarcode()) {
+      BitMatrix bits = extractPureBits(image.getBlackMatrix(listener));
       decoderResult = decoder.decode(bits);
       points = NO_POINTS;
     } else {
-      DetectorResult detectorResult = new Detector(image.getBlackMatrix()).detect();
-      decoderResult = decoder.decode(detectorResult.getBits());
+      BitMatrix matrix = image.getBlackMatrix(listener);
+      DetectorResult detectorResult = null;
+      decoderResult = null;
+      int level = image.getCoarsestLevel();
+      if (level > 0) {
+        try {
+          detectorResult = detect(new Detector(matrix, image.getBlackMatrix(level), 1 << level), listener);
+          decoderResult = decoder.decode(detectorResult.getBits());
+        } catch (NotFoundException | ChecksumException | FormatException re) {
+          // Smaller codes may only be found at full resolution
+        }
+      }
+      if (decoderResult == null) {
+        detectorResult = detect(new Detector(matrix), listener);
+        decoderResult = decoder.decode(detectorResult.getBits());
+      }
       points = detectorResult.getPoints();
     }
+    return toResult(decoderResult, points, listener);
+  }
+
+  /**
+   * Decodes a Data Matrix code which was found before near the given points, as in the previous
+   * frame of a video, by searching outward from the middle of them rather than of the image.
+   *
+   * @param image image to decode
+   * @param points points of the code's earlier {@link Result}, or where they are expected now
+   * @param hints optional hints to the reader
+   * @return a String representing the content encoded by the Data Matrix code
+   * @throws NotFoundException if a Data Matrix code cannot be found near the points
+   * @throws FormatException if a Data Matrix code cannot be decoded
+   * @throws ChecksumException if error correction fails
+   */
+  public Result decodeNear(BinaryBitmap image, ResultPoint[] points, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    DecodeListener listener = DecodeOptions.of(hints).getDecodeListener();
+    DetectorResult detectorResult = detect(new Detector(image.getBlackMatrix(listener), points), listener);
+    return toResult(decoder.decode(detectorResult.getBits()), detectorResult.getPoints(), listener);
+  }
+
+  private static Result toResult(DecoderResult decoderResult, ResultPoint[] points, DecodeListener listener) {
+    if (listener != null) {
+      listener.errorsCorrected(decoderResult.getErrorsCorrected());
+    }
     Result result = new Result(decoderResult.getText(), decoderResult.getRawBytes(), points,
         BarcodeFormat.DATA_MATRIX);
     List<byte[]> byteSegments = decoderResult.getByteSegments();
@@ -92,6 +136,17 @@ public final class DataMatrixReader implements Reader {
     // do nothing
   }
 
+  private static DetectorResult detect(Detector detector, DecodeListener listener) throws NotFoundException {
+    long start = listener == null ? 0L : System.nanoTime();
+    try {
+      return detector.detect();
+    } finally {
+      if (listener != null) {
+        listener.stageFinished(DecodeListener.Stage.DETECTION, System.nanoTime() - start);
+      }
+    }
+  }
+
   /**
    * This method detects a code in a "pure" image -- that is, pure monochrome image
    * which contains only an unrotated, unskewed, image of a code, with some white border
@@ -31,12 +31,57 @@ import com.google.zxing.common.detector.WhiteRectangleDetector;
  */
 public final class Detector {
 
+  // Initial size of the rectangle searched outward from a code's previous location
+  private static final int INIT_SIZE = 10;
+
   private final BitMatrix image;
   private final WhiteRectangleDetector rectangleDetector;
+  private final int scale;
 
   public Detector(BitMatrix image) throws NotFoundException {
     this.image = image;
     rectangleDetector = new WhiteRectangleDetector(image);
+    scale = 1;
+  }
+
+  /**
+   * Creates a detector which finds the code's surrounding white rectangle in a lower resolution
+   * copy of the image, then locates its edges and samples it in the full resolution image.
+   *
+   * @param image full resolution image
+   * @param coarseImage image at 1/scale of its resolution
+   * @param scale ratio of image's resolution to coarseImage's
+   * @throws NotFoundException if coarseImage is too small
+   */
+  public Detector(BitMatrix image, BitMatrix coarseImage, int scale) throws NotFoundException {
+    this.image = image;
+    rectangleDetector = new WhiteRectangleDetector(coarseImage);
+    this.scale = scale;
+  }
+
+  /**
+   * Creates a detector which finds the white rectangle around a code found before, as in the
+   * previous frame of a video, by searching outward from the middle of where it was rather than
+   * from the middle of the image.
+   *
+   * @param image image to search
+   * @param points corners of the code, as in the points of a {@link DetectorResult}
+   * @throws NotFoundException if the middle of the points is too near the edge of the image
+   */
+  public Detector(BitMatrix image, ResultPoint[] points) throws NotFoundException {
+    this.image = image;
+    if (points.length == 0) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    float centerX = 0.0f;
+    float centerY = 0.0f;
+    for (ResultPoint point : points) {
+      centerX += point.getX();
+      centerY += point.getY();
+    }
+    rectangleDetector = new WhiteRectangleDetector(image, INIT_SIZE,
+        (int) (centerX / points.length), (int) (centerY / points.length));
+    scale = 1;
   }
 
   /**
@@ -48,6 +93,15 @@ public final class Detector {
   public DetectorResult detect() throws NotFoundException {
 
     ResultPoint[] cornerPoints = rectangleDetector.detect();
+    if (scale > 1) {
+      int maxX = image.getWidth() - 1;
+      int maxY = image.getHeight() - 1;
+      for (int i = 0; i < cornerPoints.length; i++) {
+        ResultPoint point = cornerPoints[i];
+        cornerPoints[i] = new ResultPoint(Math.min(point.getX() * scale, maxX),
+                                          Math.min(point.getY() * scale, maxY));
+      }
+    }
 
     ResultPoint[] points = detectSolid1(cornerPoints);
     points = detectSolid2(points);
@@ -20,6 +20,7 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
@@ -61,7 +62,7 @@ public final class MaxiCodeReader implements Reader {
       throws NotFoundException, ChecksumException, FormatException {
     // Note that MaxiCode reader effectively always assumes PURE_BARCODE mode
     // and can't detect it in an image
-    BitMatrix bits = extractPureBits(image.getBlackMatrix());
+    BitMatrix bits = extractPureBits(image.getBlackMatrix(DecodeOptions.of(hints).getDecodeListener()));
     DecoderResult decoderResult = decoder.decode(bits, hints);
     Result result = new Result(decoderResult.getText(), decoderResult.getRawBytes(), NO_POINTS, BarcodeFormat.MAXICODE);
 
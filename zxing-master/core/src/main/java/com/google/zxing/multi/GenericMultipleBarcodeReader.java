@@ -17,6 +17,7 @@
 package com.google.zxing.multi;
 
 import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeDeadline;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
@@ -80,6 +81,10 @@ public final class GenericMultipleBarcodeReader implements MultipleBarcodeReader
     if (currentDepth > MAX_DEPTH) {
       return;
     }
+    DecodeDeadline deadline = DecodeDeadline.fromHints(hints);
+    if (deadline != null) {
+      deadline.check();
+    }
 
     Result result;
     try {
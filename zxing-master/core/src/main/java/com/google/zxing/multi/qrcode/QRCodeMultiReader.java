@@ -19,11 +19,13 @@ package com.google.zxing.multi.qrcode;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
+import com.google.zxing.common.BitMatrix;
 import com.google.zxing.common.DecoderResult;
 import com.google.zxing.common.DetectorResult;
 import com.google.zxing.multi.MultipleBarcodeReader;
@@ -58,7 +60,8 @@ public final class QRCodeMultiReader extends QRCodeReader implements MultipleBar
   @Override
   public Result[] decodeMultiple(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException {
     List<Result> results = new ArrayList<>();
-    DetectorResult[] detectorResults = new MultiDetector(image.getBlackMatrix()).detectMulti(hints);
+    BitMatrix matrix = image.getBlackMatrix(DecodeOptions.of(hints).getDecodeListener());
+    DetectorResult[] detectorResults = new MultiDetector(matrix).detectMulti(hints);
     for (DetectorResult detectorResult : detectorResults) {
       try {
         DecoderResult decoderResult = getDecoder().decode(detectorResult.getBits(), hints);
@@ -16,6 +16,7 @@
 
 package com.google.zxing.multi.qrcode.detector;
 
+import com.google.zxing.DecodeDeadline;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ResultPoint;
@@ -94,9 +95,10 @@ public final class MultiFinderPatternFinder extends FinderPatternFinder {
    * @return the 3 best {@link FinderPattern}s from our list of candidates. The "best" are
    *         those that have been detected at least 2 times, and whose module
    *         size differs from the average among those patterns the least
+   * @param deadline deadline to check while searching, or null
    * @throws NotFoundException if 3 such finder patterns do not exist
    */
-  private FinderPattern[][] selectMultipleBestPatterns() throws NotFoundException {
+  private FinderPattern[][] selectMultipleBestPatterns(DecodeDeadline deadline) throws NotFoundException {
     List<FinderPattern> possibleCenters = getPossibleCenters();
     int size = possibleCenters.size();
 
@@ -143,6 +145,9 @@ public final class MultiFinderPatternFinder extends FinderPatternFinder {
         if (p2 == null) {
           continue;
         }
+        if (deadline != null) {
+          deadline.check();
+        }
 
         // Compare the expected module sizes; if they are really off, skip
         float vModSize12 = (p1.getEstimatedModuleSize() - p2.getEstimatedModuleSize()) /
@@ -233,7 +238,11 @@ public final class MultiFinderPatternFinder extends FinderPatternFinder {
     }
 
     int[] stateCount = new int[5];
+    DecodeDeadline deadline = DecodeDeadline.fromHints(hints);
     for (int i = iSkip - 1; i < maxI; i += iSkip) {
+      if (deadline != null) {
+        deadline.check();
+      }
       // Get a row of black/white values
       doClearCounts(stateCount);
       int currentState = 0;
@@ -268,7 +277,7 @@ public final class MultiFinderPatternFinder extends FinderPatternFinder {
         handlePossibleCenter(stateCount, i, maxJ);
       }
     } // for i=iSkip-1 ...
-    FinderPattern[][] patternInfo = selectMultipleBestPatterns();
+    FinderPattern[][] patternInfo = selectMultipleBestPatterns(deadline);
     List<FinderPatternInfo> result = new ArrayList<>();
     for (FinderPattern[] pattern : patternInfo) {
       ResultPoint.orderBestPatterns(pattern);
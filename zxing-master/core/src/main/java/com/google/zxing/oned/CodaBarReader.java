@@ -18,6 +18,7 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
@@ -77,8 +78,19 @@ public final class CodaBarReader extends OneDReader {
     counterLength = 0;
   }
 
+  @Override
+  protected OneDReader newRowReader() {
+    return new CodaBarReader();
+  }
+
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints) throws NotFoundException {
+    return decodeRow(rowNumber, encodeRow(row), hints);
+  }
+
+  @Override
+  protected Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints)
+      throws NotFoundException {
 
     Arrays.fill(counters, 0);
     setCounters(row);
@@ -139,7 +151,10 @@ public final class CodaBarReader extends OneDReader {
       throw NotFoundException.getNotFoundInstance();
     }
 
-    if (hints == null || !hints.containsKey(DecodeHintType.RETURN_CODABAR_START_END)) {
+    boolean returnStartEnd = hints instanceof DecodeOptions ?
+        ((DecodeOptions) hints).isReturnCodabarStartEnd() :
+        hints != null && hints.containsKey(DecodeHintType.RETURN_CODABAR_START_END);
+    if (!returnStartEnd) {
       decodeRowResult.deleteCharAt(decodeRowResult.length() - 1);
       decodeRowResult.deleteCharAt(0);
     }
@@ -225,7 +240,7 @@ public final class CodaBarReader extends OneDReader {
    * uses our builtin "counters" member for storage.
    * @param row row to count from
    */
-  private void setCounters(BitArray row) throws NotFoundException {
+  private void setCounters(RunLengthRow row) throws NotFoundException {
     counterLength = 0;
     // Start from the first white bit.
     int i = row.getNextUnset(0);
@@ -233,19 +248,9 @@ public final class CodaBarReader extends OneDReader {
     if (i >= end) {
       throw NotFoundException.getNotFoundInstance();
     }
-    boolean isWhite = true;
-    int count = 0;
-    while (i < end) {
-      if (row.get(i) != isWhite) {
-        count++;
-      } else {
-        counterAppend(count);
-        count = 1;
-        isWhite = !isWhite;
-      }
-      i++;
+    for (int run = row.runAt(i); run < row.getRunCount(); run++) {
+      counterAppend(row.getRunEnd(run) - row.getRunStart(run));
     }
-    counterAppend(count);
   }
 
   private void counterAppend(int e) {
@@ -19,6 +19,7 @@ package com.google.zxing.oned;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
@@ -27,6 +28,7 @@ import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitArray;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -147,8 +149,29 @@ public final class Code128Reader extends OneDReader {
       {2, 3, 3, 1, 1, 1, 2}
   };
 
-  private static final float MAX_AVG_VARIANCE = 0.25f;
-  private static final float MAX_INDIVIDUAL_VARIANCE = 0.7f;
+  /**
+   * Code with each pattern of 6 bar and space widths, each from 1 to 4 modules, as 2 bits per
+   * width from the first in the low bits; -1 where there is none.
+   */
+  private static final byte[] CODE_TABLE = new byte[1 << 12];
+
+  static {
+    Arrays.fill(CODE_TABLE, (byte) -1);
+    for (int code = 0; code < CODE_PATTERNS.length; code++) {
+      int[] pattern = CODE_PATTERNS[code];
+      int key = 0;
+      // Only the first 6 widths of STOP are matched; see decodeCode()
+      for (int i = 5; i >= 0; i--) {
+        key = (key << 2) | (pattern[i] - 1);
+      }
+      if (CODE_TABLE[key] < 0) {
+        CODE_TABLE[key] = (byte) code;
+      }
+    }
+  }
+
+  private static final int MAX_AVG_VARIANCE = (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.25f);
+  private static final int MAX_INDIVIDUAL_VARIANCE = (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.7f);
 
   private static final int CODE_SHIFT = 98;
 
@@ -167,64 +190,44 @@ public final class Code128Reader extends OneDReader {
   private static final int CODE_START_C = 105;
   private static final int CODE_STOP = 106;
 
-  private static int[] findStartPattern(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
-
-    int counterPosition = 0;
+  private static int[] findStartPattern(RunLengthRow row) throws NotFoundException {
     int[] counters = new int[6];
-    int patternStart = rowOffset;
-    boolean isWhite = false;
+    int patternStart = row.getNextSet(0);
     int patternLength = counters.length;
 
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) != isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          float bestVariance = MAX_AVG_VARIANCE;
-          int bestMatch = -1;
-          for (int startCode = CODE_START_A; startCode <= CODE_START_C; startCode++) {
-            float variance = patternMatchVariance(counters, CODE_PATTERNS[startCode],
-                MAX_INDIVIDUAL_VARIANCE);
-            if (variance < bestVariance) {
-              bestVariance = variance;
-              bestMatch = startCode;
-            }
-          }
-          // Look for whitespace before start pattern, >= 50% of width of start pattern
-          if (bestMatch >= 0 &&
-              row.isRange(Math.max(0, patternStart - (i - patternStart) / 2), patternStart, false)) {
-            return new int[]{patternStart, i, bestMatch};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, counterPosition - 1);
-          counters[counterPosition - 1] = 0;
-          counters[counterPosition] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
+    // Slide over the runs, a bar and a space at a time, to each pattern followed by another run
+    for (int run = row.runAt(patternStart); run + patternLength < row.getRunCount(); run += 2) {
+      recordPattern(row, patternStart, counters);
+      int patternEnd = row.getRunEnd(run + patternLength - 1);
+      int bestVariance = MAX_AVG_VARIANCE;
+      int bestMatch = -1;
+      for (int startCode = CODE_START_A; startCode <= CODE_START_C; startCode++) {
+        int variance = patternMatchVariance(counters, CODE_PATTERNS[startCode],
+            MAX_INDIVIDUAL_VARIANCE);
+        if (variance < bestVariance) {
+          bestVariance = variance;
+          bestMatch = startCode;
         }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
       }
+      // Look for whitespace before start pattern, >= 50% of width of start pattern
+      if (bestMatch >= 0 &&
+          row.isRange(Math.max(0, patternStart - (patternEnd - patternStart) / 2), patternStart, false)) {
+        return new int[]{patternStart, patternEnd, bestMatch};
+      }
+      patternStart = row.getRunStart(run + 2);
     }
     throw NotFoundException.getNotFoundInstance();
   }
 
-  private static int decodeCode(BitArray row, int[] counters, int rowOffset)
+  private static int decodeCode(RunLengthRow row, int[] counters, int rowOffset)
       throws NotFoundException {
     recordPattern(row, rowOffset, counters);
-    float bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
-    int bestMatch = -1;
-    for (int d = 0; d < CODE_PATTERNS.length; d++) {
-      int[] pattern = CODE_PATTERNS[d];
-      float variance = patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE);
-      if (variance < bestVariance) {
-        bestVariance = variance;
-        bestMatch = d;
-      }
+    int code = lookUpCode(counters);
+    if (code >= 0) {
+      return code;
     }
+    // Not a clear match; compare against every pattern
+    int bestMatch = bestPatternMatch(counters, CODE_PATTERNS, 0, MAX_AVG_VARIANCE, MAX_INDIVIDUAL_VARIANCE);
     // TODO We're overlooking the fact that the STOP pattern has 7 values, not 6.
     if (bestMatch >= 0) {
       return bestMatch;
@@ -233,11 +236,65 @@ public final class Code128Reader extends OneDReader {
     }
   }
 
+  /**
+   * Rounds each width to a whole number of the 11 modules in a code, and looks up the code with
+   * those widths. This is only done when the widths are close to whole numbers of modules, so
+   * that no other code could match them as well: then it's the code that comparing them against
+   * every pattern finds, without doing so.
+   *
+   * @param counters widths of the 6 bars and spaces of a code
+   * @return the code the widths clearly match, or -1 if they don't clearly match one
+   */
+  // Not private for testing
+  static int lookUpCode(int[] counters) {
+    int total = 0;
+    for (int counter : counters) {
+      total += counter;
+    }
+    if (total < 11) {
+      return -1;
+    }
+    // Deviations from whole modules are in units of 1/11 pixel, so that they are integers
+    int totalDeviation = 0;
+    int key = 0;
+    for (int i = counters.length - 1; i >= 0; i--) {
+      int scaled = 11 * counters[i];
+      int modules = (2 * scaled + total) / (2 * total);
+      if (modules < 1 || modules > 4) {
+        return -1;
+      }
+      int deviation = Math.abs(scaled - modules * total);
+      // Each within 0.4 modules, and all within 0.2 modules on average, well inside the variance
+      // limits, so that rounding in patternMatchVariance() could not choose differently
+      if (5 * deviation > 2 * total) {
+        return -1;
+      }
+      totalDeviation += deviation;
+      key = (key << 2) | (modules - 1);
+    }
+    if (5 * totalDeviation > 11 * total) {
+      return -1;
+    }
+    return CODE_TABLE[key];
+  }
+
+  @Override
+  protected OneDReader newRowReader() {
+    return new Code128Reader();
+  }
+
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, FormatException, ChecksumException {
+    return decodeRow(rowNumber, encodeRow(row), hints);
+  }
+
+  @Override
+  protected Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints)
+      throws NotFoundException, FormatException, ChecksumException {
 
-    boolean convertFNC1 = hints != null && hints.containsKey(DecodeHintType.ASSUME_GS1);
+    boolean convertFNC1 = hints instanceof DecodeOptions ?
+        ((DecodeOptions) hints).isAssumeGS1() : hints != null && hints.containsKey(DecodeHintType.ASSUME_GS1);
 
     int symbologyModifier = 0;
 
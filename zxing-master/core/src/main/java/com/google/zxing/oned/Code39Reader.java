@@ -95,9 +95,20 @@ public final class Code39Reader extends OneDReader {
     counters = new int[9];
   }
 
+  @Override
+  protected OneDReader newRowReader() {
+    return new Code39Reader(usingCheckDigit, extendedMode);
+  }
+
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, encodeRow(row), hints);
+  }
+
+  @Override
+  protected Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
 
     int[] theCounters = counters;
     Arrays.fill(theCounters, 0);
@@ -178,36 +189,19 @@ public final class Code39Reader extends OneDReader {
     return resultObject;
   }
 
-  private static int[] findAsteriskPattern(BitArray row, int[] counters) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
-
-    int counterPosition = 0;
-    int patternStart = rowOffset;
-    boolean isWhite = false;
+  private static int[] findAsteriskPattern(RunLengthRow row, int[] counters) throws NotFoundException {
+    int patternStart = row.getNextSet(0);
     int patternLength = counters.length;
 
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) != isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          // Look for whitespace before start pattern, >= 50% of width of start pattern
-          if (toNarrowWidePattern(counters) == ASTERISK_ENCODING &&
-              row.isRange(Math.max(0, patternStart - ((i - patternStart) / 2)), patternStart, false)) {
-            return new int[]{patternStart, i};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, counterPosition - 1);
-          counters[counterPosition - 1] = 0;
-          counters[counterPosition] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
-        }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+    for (int run = row.runAt(patternStart); run + patternLength < row.getRunCount(); run += 2) {
+      recordPattern(row, patternStart, counters);
+      int patternEnd = row.getRunEnd(run + patternLength - 1);
+      // Look for whitespace before start pattern, >= 50% of width of start pattern
+      if (toNarrowWidePattern(counters) == ASTERISK_ENCODING &&
+          row.isRange(Math.max(0, patternStart - ((patternEnd - patternStart) / 2)), patternStart, false)) {
+        return new int[]{patternStart, patternEnd};
       }
+      patternStart = row.getRunStart(run + 2);
     }
     throw NotFoundException.getNotFoundInstance();
   }
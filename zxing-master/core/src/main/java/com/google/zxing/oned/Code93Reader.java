@@ -63,9 +63,20 @@ public final class Code93Reader extends OneDReader {
     counters = new int[6];
   }
 
+  @Override
+  protected OneDReader newRowReader() {
+    return new Code93Reader();
+  }
+
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, encodeRow(row), hints);
+  }
+
+  @Override
+  protected Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
 
     int[] start = findAsteriskPattern(row);
     // Read off white space
@@ -131,36 +142,17 @@ public final class Code93Reader extends OneDReader {
     return resultObject;
   }
 
-  private int[] findAsteriskPattern(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
-
-    Arrays.fill(counters, 0);
+  private int[] findAsteriskPattern(RunLengthRow row) throws NotFoundException {
     int[] theCounters = counters;
-    int patternStart = rowOffset;
-    boolean isWhite = false;
+    int patternStart = row.getNextSet(0);
     int patternLength = theCounters.length;
 
-    int counterPosition = 0;
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) != isWhite) {
-        theCounters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (toPattern(theCounters) == ASTERISK_ENCODING) {
-            return new int[]{patternStart, i};
-          }
-          patternStart += theCounters[0] + theCounters[1];
-          System.arraycopy(theCounters, 2, theCounters, 0, counterPosition - 1);
-          theCounters[counterPosition - 1] = 0;
-          theCounters[counterPosition] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
-        }
-        theCounters[counterPosition] = 1;
-        isWhite = !isWhite;
+    for (int run = row.runAt(patternStart); run + patternLength < row.getRunCount(); run += 2) {
+      recordPattern(row, patternStart, theCounters);
+      if (toPattern(theCounters) == ASTERISK_ENCODING) {
+        return new int[]{patternStart, row.getRunEnd(run + patternLength - 1)};
       }
+      patternStart = row.getRunStart(run + 2);
     }
     throw NotFoundException.getNotFoundInstance();
   }
@@ -33,6 +33,11 @@ public final class EAN8Reader extends UPCEANReader {
     decodeMiddleCounters = new int[4];
   }
 
+  @Override
+  protected OneDReader newRowReader() {
+    return new EAN8Reader();
+  }
+
   @Override
   protected int decodeMiddle(BitArray row,
                              int[] startRange,
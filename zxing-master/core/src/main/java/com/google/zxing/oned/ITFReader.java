@@ -18,6 +18,7 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
@@ -45,8 +46,8 @@ import java.util.Map;
  */
 public final class ITFReader extends OneDReader {
 
-  private static final float MAX_AVG_VARIANCE = 0.38f;
-  private static final float MAX_INDIVIDUAL_VARIANCE = 0.5f;
+  private static final int MAX_AVG_VARIANCE = (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.38f);
+  private static final int MAX_INDIVIDUAL_VARIANCE = (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.5f);
 
   private static final int W = 3; // Pixel width of a 3x wide line
   private static final int w = 2; // Pixel width of a 2x wide line
@@ -98,9 +99,20 @@ public final class ITFReader extends OneDReader {
       {N, W, N, W, N}  // 9
   };
 
+  @Override
+  protected OneDReader newRowReader() {
+    return new ITFReader();
+  }
+
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws FormatException, NotFoundException {
+    return decodeRow(rowNumber, encodeRow(row), hints);
+  }
+
+  @Override
+  protected Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints)
+      throws FormatException, NotFoundException {
 
     // Find out where the Middle section (payload) starts & ends
     int[] startRange = decodeStart(row);
@@ -110,10 +122,11 @@ public final class ITFReader extends OneDReader {
     decodeMiddle(row, startRange[1], endRange[0], result);
     String resultString = result.toString();
 
-    int[] allowedLengths = null;
-    if (hints != null) {
-      allowedLengths = (int[]) hints.get(DecodeHintType.ALLOWED_LENGTHS);
-
+    int[] allowedLengths;
+    if (hints instanceof DecodeOptions) {
+      allowedLengths = ((DecodeOptions) hints).getAllowedLengths();
+    } else {
+      allowedLengths = hints == null ? null : (int[]) hints.get(DecodeHintType.ALLOWED_LENGTHS);
     }
     if (allowedLengths == null) {
       allowedLengths = DEFAULT_ALLOWED_LENGTHS;
@@ -156,7 +169,7 @@ public final class ITFReader extends OneDReader {
    * @param resultString {@link StringBuilder} to append decoded chars to
    * @throws NotFoundException if decoding could not complete successfully
    */
-  private static void decodeMiddle(BitArray row,
+  private static void decodeMiddle(RunLengthRow row,
                                    int payloadStart,
                                    int payloadEnd,
                                    StringBuilder resultString) throws NotFoundException {
@@ -199,7 +212,7 @@ public final class ITFReader extends OneDReader {
    * @return Array, containing index of start of 'start block' and end of
    *         'start block'
    */
-  private int[] decodeStart(BitArray row) throws NotFoundException {
+  private int[] decodeStart(RunLengthRow row) throws NotFoundException {
     int endStart = skipWhiteSpace(row);
     int[] startPattern = findGuardPattern(row, endStart, START_PATTERN);
 
@@ -224,24 +237,18 @@ public final class ITFReader extends OneDReader {
    *
    * ref: http://www.barcode-1.net/i25code.html
    *
-   * @param row bit array representing the scanned barcode.
+   * @param row runs representing the scanned barcode.
    * @param startPattern index into row of the start or end pattern.
    * @throws NotFoundException if the quiet zone cannot be found
    */
-  private void validateQuietZone(BitArray row, int startPattern) throws NotFoundException {
+  private void validateQuietZone(RunLengthRow row, int startPattern) throws NotFoundException {
 
     int quietCount = this.narrowLineWidth * 10;  // expect to find this many pixels of quiet zone
 
     // if there are not so many pixel at all let's try as many as possible
     quietCount = Math.min(quietCount, startPattern);
 
-    for (int i = startPattern - 1; quietCount > 0 && i >= 0; i--) {
-      if (row.get(i)) {
-        break;
-      }
-      quietCount--;
-    }
-    if (quietCount != 0) {
+    if (!row.isRange(startPattern - quietCount, startPattern, false)) {
       // Unable to find the necessary number of quiet zone pixels.
       throw NotFoundException.getNotFoundInstance();
     }
@@ -254,7 +261,7 @@ public final class ITFReader extends OneDReader {
    * @return index of the first black line.
    * @throws NotFoundException Throws exception if no black lines are found in the row
    */
-  private static int skipWhiteSpace(BitArray row) throws NotFoundException {
+  private static int skipWhiteSpace(RunLengthRow row) throws NotFoundException {
     int width = row.getSize();
     int endStart = row.getNextSet(0);
     if (endStart == width) {
@@ -271,37 +278,32 @@ public final class ITFReader extends OneDReader {
    * @return Array, containing index of start of 'end block' and end of 'end
    *         block'
    */
-  private int[] decodeEnd(BitArray row) throws NotFoundException {
+  private int[] decodeEnd(RunLengthRow row) throws NotFoundException {
 
-    // For convenience, reverse the row and then
-    // search from 'the start' for the end block
-    row.reverse();
+    // For convenience, reverse the runs and then
+    // search from 'the start' for the end block. The row itself is left as it is.
+    RunLengthRow reversed = row.reversed();
+    int endStart = skipWhiteSpace(reversed);
+    int[] endPattern;
     try {
-      int endStart = skipWhiteSpace(row);
-      int[] endPattern;
-      try {
-        endPattern = findGuardPattern(row, endStart, END_PATTERN_REVERSED[0]);
-      } catch (NotFoundException nfe) {
-        endPattern = findGuardPattern(row, endStart, END_PATTERN_REVERSED[1]);
-      }
-
-      // The start & end patterns must be pre/post fixed by a quiet zone. This
-      // zone must be at least 10 times the width of a narrow line.
-      // ref: http://www.barcode-1.net/i25code.html
-      validateQuietZone(row, endPattern[0]);
-
-      // Now recalculate the indices of where the 'endblock' starts & stops to
-      // accommodate
-      // the reversed nature of the search
-      int temp = endPattern[0];
-      endPattern[0] = row.getSize() - endPattern[1];
-      endPattern[1] = row.getSize() - temp;
-
-      return endPattern;
-    } finally {
-      // Put the row back the right way.
-      row.reverse();
+      endPattern = findGuardPattern(reversed, endStart, END_PATTERN_REVERSED[0]);
+    } catch (NotFoundException nfe) {
+      endPattern = findGuardPattern(reversed, endStart, END_PATTERN_REVERSED[1]);
     }
+
+    // The start & end patterns must be pre/post fixed by a quiet zone. This
+    // zone must be at least 10 times the width of a narrow line.
+    // ref: http://www.barcode-1.net/i25code.html
+    validateQuietZone(reversed, endPattern[0]);
+
+    // Now recalculate the indices of where the 'endblock' starts & stops to
+    // accommodate
+    // the reversed nature of the search
+    int temp = endPattern[0];
+    endPattern[0] = row.getSize() - endPattern[1];
+    endPattern[1] = row.getSize() - temp;
+
+    return endPattern;
   }
 
   /**
@@ -313,35 +315,19 @@ public final class ITFReader extends OneDReader {
    *         ints
    * @throws NotFoundException if pattern is not found
    */
-  private static int[] findGuardPattern(BitArray row,
+  private static int[] findGuardPattern(RunLengthRow row,
                                         int rowOffset,
                                         int[] pattern) throws NotFoundException {
     int patternLength = pattern.length;
     int[] counters = new int[patternLength];
-    int width = row.getSize();
-    boolean isWhite = false;
 
-    int counterPosition = 0;
     int patternStart = rowOffset;
-    for (int x = rowOffset; x < width; x++) {
-      if (row.get(x) != isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
-            return new int[]{patternStart, x};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, counterPosition - 1);
-          counters[counterPosition - 1] = 0;
-          counters[counterPosition] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
-        }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+    for (int run = row.runAt(rowOffset); run + patternLength < row.getRunCount(); run += 2) {
+      recordPattern(row, patternStart, counters);
+      if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        return new int[]{patternStart, row.getRunEnd(run + patternLength - 1)};
       }
+      patternStart = row.getRunStart(run + 2);
     }
     throw NotFoundException.getNotFoundInstance();
   }
@@ -355,12 +341,12 @@ public final class ITFReader extends OneDReader {
    * @throws NotFoundException if digit cannot be decoded
    */
   private static int decodeDigit(int[] counters) throws NotFoundException {
-    float bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
+    int bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
     int bestMatch = -1;
     int max = PATTERNS.length;
     for (int i = 0; i < max; i++) {
       int[] pattern = PATTERNS[i];
-      float variance = patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE);
+      int variance = patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE);
       if (variance < bestVariance) {
         bestVariance = variance;
         bestMatch = i;
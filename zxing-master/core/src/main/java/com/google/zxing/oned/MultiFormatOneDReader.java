@@ -18,9 +18,9 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
-import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
 import com.google.zxing.common.BitArray;
 import com.google.zxing.oned.rss.RSS14Reader;
@@ -38,21 +38,31 @@ public final class MultiFormatOneDReader extends OneDReader {
 
   private static final OneDReader[] EMPTY_ONED_ARRAY = new OneDReader[0];
 
+  private final DecodeOptions options;
   private final OneDReader[] readers;
+  // The readers which keep state from row to row, or null if none do
+  private final MultiFormatOneDReader statefulReaders;
 
   public MultiFormatOneDReader(Map<DecodeHintType,?> hints) {
-    @SuppressWarnings("unchecked")
-    Collection<BarcodeFormat> possibleFormats = hints == null ? null :
-        (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
-    boolean useCode39CheckDigit = hints != null &&
-        hints.get(DecodeHintType.ASSUME_CODE_39_CHECK_DIGIT) != null;
+    this(DecodeOptions.of(hints), true);
+  }
+
+  /**
+   * @param stateful whether to include the readers which keep state from row to row
+   */
+  private MultiFormatOneDReader(DecodeOptions options, boolean stateful) {
+    this.options = options;
+    Collection<BarcodeFormat> possibleFormats = options.getPossibleFormats();
+    boolean useCode39CheckDigit = options.isAssumeCode39CheckDigit();
     Collection<OneDReader> readers = new ArrayList<>();
+    // The RSS readers pair up the halves of barcodes across rows, so come last
+    Collection<OneDReader> statefulReaders = new ArrayList<>();
     if (possibleFormats != null) {
       if (possibleFormats.contains(BarcodeFormat.EAN_13) ||
           possibleFormats.contains(BarcodeFormat.UPC_A) ||
           possibleFormats.contains(BarcodeFormat.EAN_8) ||
           possibleFormats.contains(BarcodeFormat.UPC_E)) {
-        readers.add(new MultiFormatUPCEANReader(hints));
+        readers.add(new MultiFormatUPCEANReader(options));
       }
       if (possibleFormats.contains(BarcodeFormat.CODE_39)) {
         readers.add(new Code39Reader(useCode39CheckDigit));
@@ -70,38 +80,71 @@ public final class MultiFormatOneDReader extends OneDReader {
         readers.add(new CodaBarReader());
       }
       if (possibleFormats.contains(BarcodeFormat.RSS_14)) {
-        readers.add(new RSS14Reader());
+        statefulReaders.add(new RSS14Reader());
       }
       if (possibleFormats.contains(BarcodeFormat.RSS_EXPANDED)) {
-        readers.add(new RSSExpandedReader());
+        statefulReaders.add(new RSSExpandedReader());
       }
     }
-    if (readers.isEmpty()) {
-      readers.add(new MultiFormatUPCEANReader(hints));
+    if (readers.isEmpty() && statefulReaders.isEmpty()) {
+      readers.add(new MultiFormatUPCEANReader(options));
       readers.add(new Code39Reader());
       readers.add(new CodaBarReader());
       readers.add(new Code93Reader());
       readers.add(new Code128Reader());
       readers.add(new ITFReader());
-      readers.add(new RSS14Reader());
-      readers.add(new RSSExpandedReader());
+      statefulReaders.add(new RSS14Reader());
+      statefulReaders.add(new RSSExpandedReader());
+    }
+    if (stateful && !statefulReaders.isEmpty()) {
+      readers.addAll(statefulReaders);
+      this.statefulReaders = new MultiFormatOneDReader(options, statefulReaders.toArray(EMPTY_ONED_ARRAY));
+    } else {
+      this.statefulReaders = null;
     }
     this.readers = readers.toArray(EMPTY_ONED_ARRAY);
   }
 
+  private MultiFormatOneDReader(DecodeOptions options, OneDReader[] readers) {
+    this.options = options;
+    this.readers = readers;
+    statefulReaders = null;
+  }
+
+  @Override
+  protected OneDReader newRowReader() {
+    MultiFormatOneDReader rowReader = new MultiFormatOneDReader(options, false);
+    // With nothing but RSS readers, the rows are scanned one at a time
+    return rowReader.readers.length == 0 ? null : rowReader;
+  }
+
+  @Override
+  protected OneDReader getStatefulRowReader() {
+    // Shares this reader's RSS readers, so they keep pairing up rows as usual
+    return statefulReaders;
+  }
+
   @Override
   public Result decodeRow(int rowNumber,
                           BitArray row,
                           Map<DecodeHintType,?> hints) throws NotFoundException {
+    Result result = tryDecodeRow(rowNumber, encodeRow(row), hints);
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  @Override
+  protected Result tryDecodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints) {
+    // All the readers share the one encoding of the row
     for (OneDReader reader : readers) {
-      try {
-        return reader.decodeRow(rowNumber, row, hints);
-      } catch (ReaderException re) {
-        // continue
+      Result result = reader.tryDecodeRow(rowNumber, row, hints);
+      if (result != null) {
+        return result;
       }
     }
-
-    throw NotFoundException.getNotFoundInstance();
+    return null;
   }
 
   @Override
@@ -18,6 +18,7 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
 import com.google.zxing.ReaderException;
@@ -39,12 +40,12 @@ public final class MultiFormatUPCEANReader extends OneDReader {
 
   private static final UPCEANReader[] EMPTY_READER_ARRAY = new UPCEANReader[0];
 
+  private final DecodeOptions options;
   private final UPCEANReader[] readers;
 
   public MultiFormatUPCEANReader(Map<DecodeHintType,?> hints) {
-    @SuppressWarnings("unchecked")
-    Collection<BarcodeFormat> possibleFormats = hints == null ? null :
-        (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+    options = DecodeOptions.of(hints);
+    Collection<BarcodeFormat> possibleFormats = options.getPossibleFormats();
     Collection<UPCEANReader> readers = new ArrayList<>();
     if (possibleFormats != null) {
       if (possibleFormats.contains(BarcodeFormat.EAN_13)) {
@@ -68,15 +69,34 @@ public final class MultiFormatUPCEANReader extends OneDReader {
     this.readers = readers.toArray(EMPTY_READER_ARRAY);
   }
 
+  @Override
+  protected OneDReader newRowReader() {
+    return new MultiFormatUPCEANReader(options);
+  }
+
   @Override
   public Result decodeRow(int rowNumber,
                           BitArray row,
                           Map<DecodeHintType,?> hints) throws NotFoundException {
+    Result result = tryDecodeRow(rowNumber, encodeRow(row), hints);
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  @Override
+  protected Result tryDecodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints) {
     // Compute this location once and reuse it on multiple implementations
-    int[] startGuardPattern = UPCEANReader.findStartGuardPattern(row);
+    int[] startGuardPattern;
+    try {
+      startGuardPattern = UPCEANReader.findStartGuardPattern(row);
+    } catch (NotFoundException nfe) {
+      return null;
+    }
     for (UPCEANReader reader : readers) {
       try {
-        Result result = reader.decodeRow(rowNumber, row, startGuardPattern, hints);
+        Result result = reader.decodeRow(rowNumber, row.getRow(), startGuardPattern, hints);
         // Special case: a 12-digit code encoded in UPC-A is identical to a "0"
         // followed by those 12 digits encoded as EAN-13. Each will recognize such a code,
         // UPC-A as a 12-digit string and EAN-13 as a 13-digit string starting with "0".
@@ -92,9 +112,7 @@ public final class MultiFormatUPCEANReader extends OneDReader {
         boolean ean13MayBeUPCA =
             result.getBarcodeFormat() == BarcodeFormat.EAN_13 &&
                 result.getText().charAt(0) == '0';
-        @SuppressWarnings("unchecked")
-        Collection<BarcodeFormat> possibleFormats =
-            hints == null ? null : (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+        Collection<BarcodeFormat> possibleFormats = getPossibleFormats(hints);
         boolean canReturnUPCA = possibleFormats == null || possibleFormats.contains(BarcodeFormat.UPC_A);
   
         if (ean13MayBeUPCA && canReturnUPCA) {
@@ -112,7 +130,15 @@ public final class MultiFormatUPCEANReader extends OneDReader {
       }
     }
 
-    throw NotFoundException.getNotFoundInstance();
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Collection<BarcodeFormat> getPossibleFormats(Map<DecodeHintType,?> hints) {
+    if (hints instanceof DecodeOptions) {
+      return ((DecodeOptions) hints).getPossibleFormats();
+    }
+    return hints == null ? null : (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
   }
 
   @Override
@@ -18,7 +18,11 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
+import com.google.zxing.DecodeDeadline;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeListener;
+import com.google.zxing.DecodeOptions;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
@@ -27,10 +31,12 @@ import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.DecodeWorkspace;
 
 import java.util.Arrays;
-import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Encapsulates functionality and implementation that is common to all families
@@ -41,44 +47,81 @@ import java.util.Map;
  */
 public abstract class OneDReader implements Reader {
 
+  /**
+   * Bits of fraction in the fixed-point values of
+   * {@link #patternMatchVariance(int[], int[], int)}.
+   */
+  protected static final int INTEGER_MATH_SHIFT = 8;
+  /**
+   * A variance of 1.0 in fixed point; scale float limits by this.
+   */
+  protected static final int PATTERN_MATCH_RESULT_SCALE_FACTOR = 1 << INTEGER_MATH_SHIFT;
+
+  // Readers which scan shares of the rows in parallel, kept from one decode to the next
+  private OneDReader[] rowReaders;
+  // Row this reader loads pixels into when it scans a share of the rows on another thread
+  private BitArray shareRow;
+  // Runs of the rows passed to decodeRow(int, BitArray, Map), reused from call to call
+  private RunLengthRow decodeRowRuns;
+
   @Override
   public Result decode(BinaryBitmap image) throws NotFoundException, FormatException {
     return decode(image, null);
   }
 
-  // Note that we don't try rotation without the try harder flag, even if rotation was supported.
   @Override
   public Result decode(BinaryBitmap image,
                        Map<DecodeHintType,?> hints) throws NotFoundException, FormatException {
-    try {
-      return doDecode(image, hints);
-    } catch (NotFoundException nfe) {
-      boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
-      if (tryHarder && image.isRotateSupported()) {
-        BinaryBitmap rotatedImage = image.rotateCounterClockwise();
-        Result result = doDecode(rotatedImage, hints);
-        // Record that we found it rotated 90 degrees CCW / 270 degrees CW
-        Map<ResultMetadataType,?> metadata = result.getResultMetadata();
-        int orientation = 270;
-        if (metadata != null && metadata.containsKey(ResultMetadataType.ORIENTATION)) {
-          // But if we found it reversed in doDecode(), add in that result here:
-          orientation = (orientation +
-              (Integer) metadata.get(ResultMetadataType.ORIENTATION)) % 360;
-        }
-        result.putMetadata(ResultMetadataType.ORIENTATION, orientation);
-        // Update result points
-        ResultPoint[] points = result.getResultPoints();
-        if (points != null) {
-          int height = rotatedImage.getHeight();
-          for (int i = 0; i < points.length; i++) {
-            points[i] = new ResultPoint(height - points[i].getY() - 1, points[i].getX());
-          }
-        }
-        return result;
-      } else {
-        throw nfe;
+    Result result = decodeOrNull(image, DecodeOptions.of(hints));
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  /**
+   * Like {@link #decode(BinaryBitmap, Map)}, but reports a miss as an outcome, and finds its way
+   * to one without throwing from row to row.
+   *
+   * @param image image of barcode to decode
+   * @param hints hints to use; may be null
+   * @return outcome of decoding
+   * @see DecodeOutcome#tryDecode(Reader, BinaryBitmap, Map)
+   */
+  public DecodeOutcome tryDecode(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    Result result = decodeOrNull(image, DecodeOptions.of(hints));
+    return result == null ? DecodeOutcome.notFound() : DecodeOutcome.decoded(result);
+  }
+
+  // Note that we don't try rotation without the try harder flag, even if rotation was supported.
+  private Result decodeOrNull(BinaryBitmap image, DecodeOptions options) {
+    Result result = doDecode(image, options);
+    if (result != null || !options.isTryHarder() || !image.isRotateSupported()) {
+      return result;
+    }
+    BinaryBitmap rotatedImage = image.rotateCounterClockwise();
+    result = doDecode(rotatedImage, options);
+    if (result == null) {
+      return null;
+    }
+    // Record that we found it rotated 90 degrees CCW / 270 degrees CW
+    Map<ResultMetadataType,?> metadata = result.getResultMetadata();
+    int orientation = 270;
+    if (metadata != null && metadata.containsKey(ResultMetadataType.ORIENTATION)) {
+      // But if we found it reversed in doDecode(), add in that result here:
+      orientation = (orientation +
+          (Integer) metadata.get(ResultMetadataType.ORIENTATION)) % 360;
+    }
+    result.putMetadata(ResultMetadataType.ORIENTATION, orientation);
+    // Update result points
+    ResultPoint[] points = result.getResultPoints();
+    if (points != null) {
+      int height = rotatedImage.getHeight();
+      for (int i = 0; i < points.length; i++) {
+        points[i] = new ResultPoint(height - points[i].getY() - 1, points[i].getX());
       }
     }
+    return result;
   }
 
   @Override
@@ -93,87 +136,256 @@ public abstract class OneDReader implements Reader {
    * middle + rowStep, then middle - (2 * rowStep), etc.
    * rowStep is bigger as the image is taller, but is always at least 1. We've somewhat arbitrarily
    * decided that moving up and down by about 1/16 of the image is pretty good; we try more of the
-   * image if "trying harder".
+   * image if "trying harder", or until enough rows agree if {@link DecodeHintType#ROW_AGREEMENT}
+   * is set.
    *
    * @param image The image to decode
-   * @param hints Any hints that were requested
-   * @return The contents of the decoded barcode
-   * @throws NotFoundException Any spontaneous errors which occur
+   * @param options Any hints that were requested
+   * @return The contents of the decoded barcode, or null if none was found
    */
-  private Result doDecode(BinaryBitmap image,
-                          Map<DecodeHintType,?> hints) throws NotFoundException {
-    int width = image.getWidth();
+  private Result doDecode(BinaryBitmap image, DecodeOptions options) {
+    return doDecode(image, options, Runtime.getRuntime().availableProcessors());
+  }
+
+  // Not private for testing
+  Result doDecode(BinaryBitmap image, DecodeOptions options, int processors) {
     int height = image.getHeight();
-    BitArray row = new BitArray(width);
 
-    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
-    int rowStep = Math.max(1, height >> (tryHarder ? 8 : 5));
+    boolean tryHarder = options.isTryHarder();
+    int agreement = options.getRowAgreement();
+    // Voting scans rows as closely as trying harder does, but stops when enough rows agree
+    boolean voting = agreement > 1;
+    int rowStep = Math.max(1, height >> (tryHarder || voting ? 8 : 5));
     int maxLines;
-    if (tryHarder) {
+    if (tryHarder || voting) {
       maxLines = height; // Look at the whole image, not just the center
     } else {
       maxLines = 15; // 15 rows spaced 1/32 apart is roughly the middle half of the image
     }
-
-    int middle = height / 2;
-    for (int x = 0; x < maxLines; x++) {
-
-      // Scanning from the middle out. Determine which row we're looking at next:
-      int rowStepsAboveOrBelow = (x + 1) / 2;
-      boolean isAbove = (x & 0x01) == 0; // i.e. is x even?
-      int rowNumber = middle + rowStep * (isAbove ? rowStepsAboveOrBelow : -rowStepsAboveOrBelow);
+    int lines = 0;
+    while (lines < maxLines) {
+      int rowNumber = rowNumber(lines, height, rowStep);
       if (rowNumber < 0 || rowNumber >= height) {
         // Oops, if we run off the top or bottom, stop
         break;
       }
+      lines++;
+    }
+
+    Executor executor = options.getRowExecutor();
+    int workers = Math.min(lines, processors);
+    if (tryHarder && !voting && executor != null && workers > 1) {
+      OneDReader[] readers = getRowReaders(workers);
+      if (readers != null) {
+        return scanRowsInParallel(image, options, rowStep, lines, executor, readers);
+      }
+    }
+    DecodeWorkspace workspace = image.getWorkspace();
+    BitArray row = workspace == null ? new BitArray(image.getWidth()) : workspace.getRow(image.getWidth());
+    RowConsensus consensus = voting ? new RowConsensus(agreement) : null;
+    return scanRows(image, options, rowStep, lines, row, null, consensus);
+  }
+
+  /**
+   * @param line index of a row in the order they are scanned, from 0 for the middle row
+   * @return number of the row, which may be outside the image
+   */
+  private static int rowNumber(int line, int height, int rowStep) {
+    // Scanning from the middle out. Determine which row we're looking at next:
+    int rowStepsAboveOrBelow = (line + 1) / 2;
+    boolean isAbove = (line & 0x01) == 0; // i.e. is line even?
+    return height / 2 + rowStep * (isAbove ? rowStepsAboveOrBelow : -rowStepsAboveOrBelow);
+  }
+
+  /**
+   * Scans the rows in the order they are scanned, or only those of a share of a parallel scan.
+   *
+   * @param row row to load pixels into
+   * @param share share of the rows of a parallel scan to scan, or null to scan them all alone
+   * @param consensus tally of the rows decoded so far, or null to return the first
+   * @return the first barcode found, or the first enough rows agree on; or null if none was, or
+   *  the scan told this to stop
+   */
+  private Result scanRows(BinaryBitmap image,
+                          DecodeOptions options,
+                          int rowStep,
+                          int lines,
+                          BitArray row,
+                          RowShare share,
+                          RowConsensus consensus) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    RunLengthRow runs = new RunLengthRow();
+    DecodeDeadline deadline = options.getDeadline();
+    DecodeListener listener = options.getDecodeListener();
+    int firstLine = share == null ? 0 : share.firstLine;
+    int stride = share == null ? 1 : share.stride;
+    for (int x = firstLine; x < lines; x += stride) {
+      int rowNumber = rowNumber(x, height, rowStep);
+      if (share != null && !share.isWanted(x, 0)) {
+        // A row nearer the middle was decoded
+        return null;
+      }
+      if (options.isCancelled()) {
+        // Decoding was cancelled, as when another reader wins; see MultiFormatReader#setExecutor
+        return null;
+      }
+      if (deadline != null) {
+        deadline.check();
+      }
 
       // Estimate black point for this row and load it:
+      long start = listener == null ? 0L : System.nanoTime();
       try {
         row = image.getBlackRow(rowNumber, row);
       } catch (NotFoundException ignored) {
         continue;
+      } finally {
+        if (listener != null) {
+          listener.stageFinished(DecodeListener.Stage.BINARIZATION, System.nanoTime() - start);
+        }
       }
 
       // While we have the image data in a BitArray, it's fairly cheap to reverse it in place to
       // handle decoding upside down barcodes.
       for (int attempt = 0; attempt < 2; attempt++) {
         if (attempt == 1) { // trying again?
+          if (share != null && !share.isWanted(x, attempt)) {
+            return null;
+          }
           row.reverse(); // reverse the row and continue
           // This means we will only ever draw result points *once* in the life of this method
           // since we want to avoid drawing the wrong points after flipping the row, and,
           // don't want to clutter with noise from every single row scan -- just the scans
           // that start on the center line.
-          if (hints != null && hints.containsKey(DecodeHintType.NEED_RESULT_POINT_CALLBACK)) {
-            Map<DecodeHintType,Object> newHints = new EnumMap<>(DecodeHintType.class);
-            newHints.putAll(hints);
-            newHints.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
-            hints = newHints;
+          options = options.withoutResultPointCallback();
+        }
+        // Look for a barcode, in runs encoded once for all the readers
+        Result result = tryDecodeRow(rowNumber, runs.encode(row), options);
+        if (result == null) {
+          continue; // just couldn't decode this row
+        }
+        // We found our barcode
+        if (attempt == 1) {
+          // But it was upside down, so note that
+          result.putMetadata(ResultMetadataType.ORIENTATION, 180);
+          // And remember to flip the result points horizontally.
+          ResultPoint[] points = result.getResultPoints();
+          if (points != null) {
+            points[0] = new ResultPoint(width - points[0].getX() - 1, points[0].getY());
+            points[1] = new ResultPoint(width - points[1].getX() - 1, points[1].getY());
           }
         }
-        try {
-          // Look for a barcode
-          Result result = decodeRow(rowNumber, row, hints);
-          // We found our barcode
-          if (attempt == 1) {
-            // But it was upside down, so note that
-            result.putMetadata(ResultMetadataType.ORIENTATION, 180);
-            // And remember to flip the result points horizontally.
-            ResultPoint[] points = result.getResultPoints();
-            if (points != null) {
-              points[0] = new ResultPoint(width - points[0].getX() - 1, points[0].getY());
-              points[1] = new ResultPoint(width - points[1].getX() - 1, points[1].getY());
-            }
+        if (consensus != null) {
+          Result agreed = consensus.vote(result);
+          if (agreed != null) {
+            return agreed;
           }
-          return result;
-        } catch (ReaderException re) {
-          // continue -- just couldn't decode this row
+          break; // on to the next row
         }
+        if (share != null) {
+          share.found(x, attempt, result);
+        }
+        return result;
       }
     }
 
-    throw NotFoundException.getNotFoundInstance();
+    return null;
   }
 
+  /**
+   * Scans the rows with several readers at once, each taking every n-th row from the middle
+   * outward, while the part of this reader which keeps state from row to row, if any, scans every
+   * row. Shares are run on the executor, but this thread scans the first itself, then the rows of
+   * the part which keeps state, then any shares the executor has not started. So it never waits
+   * on a task which hasn't started, and a busy executor can't hold up decoding.
+   *
+   * @param rowReaders readers to scan shares of the rows with
+   * @return the barcode found nearest the middle, or null if none was
+   */
+  private Result scanRowsInParallel(BinaryBitmap image,
+                                    DecodeOptions options,
+                                    int rowStep,
+                                    int lines,
+                                    Executor executor,
+                                    OneDReader[] rowReaders) {
+    int workers = rowReaders.length;
+    // Result points are drawn only from this thread, as the callback may not expect others
+    ParallelRowScan scan = new ParallelRowScan(image, options.withoutResultPointCallback(), rowStep, lines);
+    RowShare[] shares = new RowShare[workers];
+    for (int i = 0; i < workers; i++) {
+      shares[i] = new RowShare(scan, rowReaders[i], i, workers, false);
+    }
+    for (int i = 1; i < workers; i++) {
+      try {
+        executor.execute(shares[i]);
+      } catch (RejectedExecutionException ree) {
+        // This thread scans it below
+      }
+    }
+    DecodeWorkspace workspace = image.getWorkspace();
+    BitArray row = workspace == null ? new BitArray(image.getWidth()) : workspace.getRow(image.getWidth());
+    shares[0].scanHere(options, row);
+    OneDReader statefulReader = getStatefulRowReader();
+    if (statefulReader != null) {
+      new RowShare(scan, statefulReader, 0, 1, true).scanHere(options, row);
+    }
+    for (int i = 1; i < workers; i++) {
+      shares[i].scanHere(options, row);
+    }
+    return scan.awaitNearest();
+  }
+
+  /**
+   * @param count number of readers wanted
+   * @return readers like this one, to scan rows in parallel; made once, and kept for later
+   *  decodes. Null if it can't be.
+   */
+  private OneDReader[] getRowReaders(int count) {
+    if (rowReaders == null || rowReaders.length != count) {
+      OneDReader[] newRowReaders = new OneDReader[count];
+      for (int i = 0; i < count; i++) {
+        newRowReaders[i] = rowReaders != null && i < rowReaders.length ? rowReaders[i] : newRowReader();
+        if (newRowReaders[i] == null) {
+          return null;
+        }
+      }
+      rowReaders = newRowReaders;
+    }
+    return rowReaders;
+  }
+
+  /**
+   * @return this reader's row to scan a share of the rows with, on another thread
+   */
+  private BitArray getShareRow(int width) {
+    if (shareRow == null || shareRow.getSize() != width) {
+      shareRow = new BitArray(width);
+    }
+    return shareRow;
+  }
+
+  /**
+   * Creates a reader like this one, with the same configuration, which can decode rows on another
+   * thread while this one does; see {@link DecodeHintType#ROW_EXECUTOR}. It is kept, and reused
+   * by later decodes. It leaves out any part of this reader which keeps state from row to row, as
+   * the RSS readers do; see {@link #getStatefulRowReader()}. Readers which are nothing but such
+   * state can't, and by default return null, to have rows scanned one at a time.
+   *
+   * @return a new reader like this one, or null if rows must be scanned one at a time
+   */
+  protected OneDReader newRowReader() {
+    return null;
+  }
+
+  /**
+   * @return the part of this reader which keeps state from row to row, which is left out of the
+   *  readers made by {@link #newRowReader()}, and instead scans every row in turn on the decoding
+   *  thread while they scan theirs; or null if there is none, as by default
+   */
+  protected OneDReader getStatefulRowReader() {
+    return null;
+  }
   /**
    * Records the size of successive runs of white and black pixels in a row, starting at a given point.
    * The values are recorded in the given array, and the number of runs recorded is equal to the size
@@ -219,6 +431,31 @@ public abstract class OneDReader implements Reader {
     }
   }
 
+  /**
+   * Like {@link #recordPattern(BitArray, int, int[])}, but takes the counts from the runs of the
+   * row, without reading its pixels.
+   *
+   * @param row row to count from
+   * @param start offset into row to start at
+   * @param counters array into which to record counts
+   * @throws NotFoundException if counters cannot be filled entirely from row before running out
+   *  of pixels
+   */
+  protected static void recordPattern(RunLengthRow row,
+                                      int start,
+                                      int[] counters) throws NotFoundException {
+    int numCounters = counters.length;
+    int run = row.runAt(start);
+    if (start >= row.getSize() || run + numCounters > row.getRunCount()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    counters[0] = row.getRunEnd(run) - start;
+    for (int i = 1; i < numCounters; i++) {
+      run++;
+      counters[i] = row.getRunEnd(run) - row.getRunStart(run);
+    }
+  }
+
   protected static void recordPatternInReverse(BitArray row, int start, int[] counters)
       throws NotFoundException {
     // This could be more efficient I guess
@@ -236,6 +473,24 @@ public abstract class OneDReader implements Reader {
     recordPattern(row, start + 1, counters);
   }
 
+  /**
+   * Like {@link #recordPatternInReverse(BitArray, int, int[])}, but takes the counts from the
+   * runs of the row, without reading its pixels.
+   *
+   * @param row row to count from
+   * @param start offset into row of the pixel just past the counters to record
+   * @param counters array into which to record counts
+   * @throws NotFoundException if there are not enough runs before start
+   */
+  protected static void recordPatternInReverse(RunLengthRow row, int start, int[] counters)
+      throws NotFoundException {
+    int firstRun = row.runAt(start) - counters.length;
+    if (firstRun < 1) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    recordPattern(row, row.getRunStart(firstRun), counters);
+  }
+
   /**
    * Determines how closely a set of observed counts of runs of black/white values matches a given
    * target pattern. This is reported as the ratio of the total variance from the expected pattern
@@ -278,6 +533,96 @@ public abstract class OneDReader implements Reader {
     return totalVariance / total;
   }
 
+  /**
+   * Like {@link #patternMatchVariance(int[], int[], float)}, but in integer fixed-point
+   * arithmetic, with {@link #INTEGER_MATH_SHIFT} bits of fraction, which is faster in the loops
+   * which match every pattern of a symbology against each character.
+   *
+   * @param counters observed counters
+   * @param pattern expected pattern
+   * @param maxIndividualVariance The most any counter can differ before we give up, times
+   *  {@link #PATTERN_MATCH_RESULT_SCALE_FACTOR}
+   * @return ratio of total variance between counters and pattern compared to total pattern size,
+   *  times {@link #PATTERN_MATCH_RESULT_SCALE_FACTOR}; or {@link Integer#MAX_VALUE} if they
+   *  don't match
+   */
+  protected static int patternMatchVariance(int[] counters,
+                                            int[] pattern,
+                                            int maxIndividualVariance) {
+    int numCounters = counters.length;
+    int total = 0;
+    int patternLength = 0;
+    for (int i = 0; i < numCounters; i++) {
+      total += counters[i];
+      patternLength += pattern[i];
+    }
+    if (total < patternLength) {
+      // If we don't even have one pixel per unit of bar width, assume this is too small
+      // to reliably match, so fail:
+      return Integer.MAX_VALUE;
+    }
+
+    // Widths are compared in units of 1/patternLength pixel, in which the counters and pattern
+    // are both whole, so that only the result is rounded
+    int maxScaledVariance = maxIndividualVariance * total;
+    int totalVariance = 0;
+    for (int x = 0; x < numCounters; x++) {
+      int counter = counters[x] * patternLength;
+      int scaledPattern = pattern[x] * total;
+      int variance = counter > scaledPattern ? counter - scaledPattern : scaledPattern - counter;
+      if (variance << INTEGER_MATH_SHIFT > maxScaledVariance) {
+        return Integer.MAX_VALUE;
+      }
+      totalVariance += variance;
+    }
+    return (totalVariance << INTEGER_MATH_SHIFT) / (patternLength * total);
+  }
+
+  /**
+   * Finds the pattern the counters match best by {@link #patternMatchVariance(int[], int[], int)},
+   * trying them from the given one on, and wrapping around. The patterns must all have the same
+   * total width, so that any two differ by at least two modules: then a match whose widths are off
+   * by less than a module in all can't be bettered, and ends the search early. Start with
+   * the likeliest pattern, as the one which matched the previous character, to make the most of
+   * this. The result is the same whatever pattern the search starts with.
+   *
+   * @param counters observed counters
+   * @param patterns patterns to match, all of the same total width
+   * @param firstPattern index of the pattern to try first
+   * @param maxAvgVariance variance at or above which a pattern does not match, in fixed point
+   * @param maxIndividualVariance The most any counter can differ before we give up, in fixed point
+   * @return index of the best matching pattern, the lowest if several match as well; or -1 if none
+   *  matches
+   */
+  protected static int bestPatternMatch(int[] counters,
+                                        int[][] patterns,
+                                        int firstPattern,
+                                        int maxAvgVariance,
+                                        int maxIndividualVariance) {
+    int patternLength = 0;
+    for (int i = 0; i < counters.length; i++) {
+      patternLength += patterns[0][i];
+    }
+    // Off by less than a module in all is a variance below 1 / patternLength; leave a margin for
+    // rounding
+    int unbeatableVariance = (3 * PATTERN_MATCH_RESULT_SCALE_FACTOR) / (4 * patternLength);
+    int bestVariance = maxAvgVariance; // worst variance we'll accept
+    int bestMatch = -1;
+    int max = patterns.length;
+    for (int n = 0; n < max; n++) {
+      int i = firstPattern + n < max ? firstPattern + n : firstPattern + n - max;
+      int variance = patternMatchVariance(counters, patterns[i], maxIndividualVariance);
+      if (variance < bestVariance || (variance == bestVariance && i < bestMatch)) {
+        if (variance < unbeatableVariance) {
+          return i;
+        }
+        bestVariance = variance;
+        bestMatch = i;
+      }
+    }
+    return bestMatch;
+  }
+
   /**
    * <p>Attempts to decode a one-dimensional barcode format given a single row of
    * an image.</p>
@@ -293,4 +638,221 @@ public abstract class OneDReader implements Reader {
   public abstract Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException;
 
+  /**
+   * Encodes a row passed to {@link #decodeRow(int, BitArray, Map)} as runs, so that it can be
+   * decoded by {@link #decodeRow(int, RunLengthRow, Map)}. The runs are reused by the next call.
+   *
+   * @param row row to encode
+   * @return the runs of the row
+   */
+  protected final RunLengthRow encodeRow(BitArray row) {
+    if (decodeRowRuns == null) {
+      decodeRowRuns = new RunLengthRow();
+    }
+    return decodeRowRuns.encode(row);
+  }
+
+  /**
+   * Like {@link #decodeRow(int, BitArray, Map)}, but given the row already encoded as runs, which
+   * several readers may share. Readers which find their patterns in the runs override this; by
+   * default it decodes the row's pixels.
+   *
+   * @param rowNumber row number from top of the row
+   * @param row the runs of black/white pixels of the row
+   * @param hints decode hints
+   * @return {@link Result} containing encoded string and start/end of barcode
+   * @throws NotFoundException if no potential barcode is found
+   * @throws ChecksumException if a potential barcode is found but does not pass its checksum
+   * @throws FormatException if a potential barcode is found but format is invalid
+   */
+  protected Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, row.getRow(), hints);
+  }
+
+  /**
+   * Like {@link #decodeRow(int, RunLengthRow, Map)}, but returns null rather than throwing if the
+   * row can't be decoded. Readers which combine others override it to skip throwing on a miss.
+   *
+   * @param rowNumber row number from top of the row
+   * @param row the runs of black/white pixels of the row
+   * @param hints decode hints
+   * @return {@link Result} containing encoded string and start/end of barcode, or null
+   */
+  protected Result tryDecodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints) {
+    try {
+      return decodeRow(rowNumber, row, hints);
+    } catch (ReaderException re) {
+      return null;
+    }
+  }
+
+  /**
+   * Rows being scanned by several readers at once. Each scans its rows in order from the middle
+   * outward, and stops at the first it decodes, or once a row nearer the middle is decoded, as
+   * the rows left to it are all farther out. So the barcode found is the one the rows scanned one
+   * at a time would find.
+   */
+  private static final class ParallelRowScan {
+
+    private final BinaryBitmap image;
+    private final DecodeOptions otherOptions;
+    private final int rowStep;
+    private final int lines;
+    // Guarded by this
+    private int running;
+    private int nearestOrder;
+    private Result nearest;
+    private RuntimeException failure;
+    private boolean cancelled;
+
+    /**
+     * @param otherOptions options for the threads other than the decoding thread
+     */
+    ParallelRowScan(BinaryBitmap image, DecodeOptions otherOptions, int rowStep, int lines) {
+      this.image = image;
+      this.otherOptions = otherOptions;
+      this.rowStep = rowStep;
+      this.lines = lines;
+      nearestOrder = Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return position at which a row would be tried, reversed or not, by a reader which keeps
+     *  state or not, when rows are scanned one at a time. Readers which keep state come last in
+     *  each row, as in {@link MultiFormatOneDReader}.
+     */
+    private static int order(int line, int attempt, boolean stateful) {
+      return (line * 2 + attempt) * 2 + (stateful ? 1 : 0);
+    }
+
+    /**
+     * @return true if the share is to be scanned by the caller, as no other thread has started it
+     */
+    synchronized boolean claim(RowShare share) {
+      if (share.claimed) {
+        return false;
+      }
+      share.claimed = true;
+      running++;
+      return true;
+    }
+
+    synchronized boolean isWanted(int line, int attempt, boolean stateful) {
+      return order(line, attempt, stateful) < nearestOrder && failure == null && !cancelled;
+    }
+
+    synchronized void found(int line, int attempt, boolean stateful, Result result) {
+      int order = order(line, attempt, stateful);
+      if (order < nearestOrder) {
+        nearestOrder = order;
+        nearest = result;
+      }
+    }
+
+    synchronized void fail(RuntimeException e) {
+      if (failure == null) {
+        failure = e;
+      }
+    }
+
+    synchronized void finished() {
+      running--;
+      notifyAll();
+    }
+
+    /**
+     * @return result nearest the middle, once all the shares started have stopped, or null if
+     *  none succeeded
+     */
+    synchronized Result awaitNearest() {
+      boolean wasInterrupted = false;
+      while (running > 0) {
+        try {
+          wait();
+        } catch (InterruptedException ie) {
+          // Stop the readers, but still wait for them, as they must not be in use after this
+          wasInterrupted = true;
+          cancelled = true;
+        }
+      }
+      if (wasInterrupted) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return nearest;
+    }
+
+  }
+
+  /**
+   * One reader's share of the rows of a {@link ParallelRowScan}: every stride-th row from
+   * firstLine. It is scanned by whichever thread claims it first, the executor's or the
+   * decoding thread.
+   */
+  private static final class RowShare implements Runnable {
+
+    private final ParallelRowScan scan;
+    private final OneDReader reader;
+    private final int firstLine;
+    private final int stride;
+    private final boolean stateful;
+    private boolean claimed; // guarded by scan
+
+    RowShare(ParallelRowScan scan, OneDReader reader, int firstLine, int stride, boolean stateful) {
+      this.scan = scan;
+      this.reader = reader;
+      this.firstLine = firstLine;
+      this.stride = stride;
+      this.stateful = stateful;
+    }
+
+    boolean isWanted(int line, int attempt) {
+      return scan.isWanted(line, attempt, stateful);
+    }
+
+    void found(int line, int attempt, Result result) {
+      scan.found(line, attempt, stateful, result);
+    }
+
+    /**
+     * Scans the share on the decoding thread, unless another thread has started it.
+     */
+    void scanHere(DecodeOptions options, BitArray row) {
+      if (scan.claim(this)) {
+        scanRows(scan.image, options, row);
+      }
+    }
+
+    @Override
+    public void run() {
+      if (scan.claim(this)) {
+        scanRows(null, scan.otherOptions, null);
+      }
+    }
+
+    /**
+     * @param image image to scan, or null to scan one binarized apart from the decoding thread's
+     * @param row row to load pixels into, or null for the reader's own
+     */
+    private void scanRows(BinaryBitmap image, DecodeOptions options, BitArray row) {
+      try {
+        if (image == null) {
+          // Rows are then binarized in parallel, rather than one at a time
+          image = scan.image.withOwnBinarizer();
+          row = reader.getShareRow(image.getWidth());
+        }
+        reader.scanRows(image, options, scan.rowStep, scan.lines, row, this, null);
+      } catch (RuntimeException e) {
+        scan.fail(e);
+      } finally {
+        scan.finished();
+      }
+    }
+
+  }
+
 }
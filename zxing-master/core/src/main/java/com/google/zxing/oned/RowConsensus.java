@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Tallies what each row scanned across a barcode decodes to, character by character, to find
+ * what enough rows agree on; see {@link DecodeHintType#ROW_AGREEMENT}. A damaged label may misread
+ * in some rows, even past its check digit, while rows through other parts of it read right.</p>
+ *
+ * <p>Only results of the same format and length are compared. Each character of a result is as
+ * agreed as the number of rows which read that character there, whatever they read elsewhere;
+ * a result is agreed by as many rows as its least agreed character. So rows which each misread a
+ * different character still agree on the right result, which is returned once some row reads it
+ * whole. Results are tried in the order their rows were scanned, from the middle out.</p>
+ */
+final class RowConsensus {
+
+  private final int agreement;
+  private final List<Candidate> candidates;
+
+  /**
+   * @param agreement number of rows which must agree on a result
+   */
+  RowConsensus(int agreement) {
+    this.agreement = agreement;
+    candidates = new ArrayList<>();
+  }
+
+  /**
+   * @param result what a row decoded to
+   * @return a result enough rows agree on, now that they include this one, or null if none is yet
+   */
+  Result vote(Result result) {
+    Candidate voted = null;
+    for (Candidate candidate : candidates) {
+      if (candidate.isLike(result) && candidate.result.getText().equals(result.getText())) {
+        voted = candidate;
+        break;
+      }
+    }
+    if (voted == null) {
+      voted = new Candidate(result);
+      candidates.add(voted);
+    }
+    voted.votes++;
+    // Only results of the same format and length as this one agree any more than before
+    for (Candidate candidate : candidates) {
+      if (candidate.isLike(result) && getAgreement(candidate) >= agreement) {
+        return candidate.result;
+      }
+    }
+    return null;
+  }
+
+  private int getAgreement(Candidate candidate) {
+    String text = candidate.result.getText();
+    int least = text.isEmpty() ? candidate.votes : Integer.MAX_VALUE;
+    for (int i = 0; i < text.length(); i++) {
+      int votes = 0;
+      for (Candidate other : candidates) {
+        if (other.isLike(candidate.result) && other.result.getText().charAt(i) == text.charAt(i)) {
+          votes += other.votes;
+        }
+      }
+      least = Math.min(least, votes);
+    }
+    return least;
+  }
+
+  private static final class Candidate {
+
+    private final Result result;
+    private int votes;
+
+    Candidate(Result result) {
+      this.result = result;
+    }
+
+    /**
+     * @return true if the result is of the same format and length as this one's
+     */
+    boolean isLike(Result other) {
+      return result.getBarcodeFormat() == other.getBarcodeFormat() &&
+          result.getText().length() == other.getText().length();
+    }
+  }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.common.BitArray;
+
+import java.util.Arrays;
+
+/**
+ * <p>A row of black and white pixels as the runs of each color along it: the bars and spaces
+ * which 1D readers match patterns against. {@link OneDReader} encodes each row it scans once, in
+ * each orientation, and passes it to every reader, which can then step from run to run rather
+ * than read the row pixel by pixel.</p>
+ *
+ * <p>Runs are numbered from 0 at the left, and alternate in color. It also answers the same
+ * queries about pixels as the {@link BitArray} it was encoded from, from the runs. An instance may
+ * be encoded from another row, to reuse its storage.</p>
+ */
+public final class RunLengthRow {
+
+  private BitArray row;
+  // The row this is the reverse of, until getRow() reverses it; see reversed()
+  private BitArray unreversedRow;
+  // Reused by reversed()
+  private RunLengthRow reversed;
+  private int size;
+  // ends[i] is the position just past run i
+  private int[] ends;
+  private int runCount;
+  private boolean firstBlack;
+
+  public RunLengthRow() {
+    ends = new int[64];
+  }
+
+  /**
+   * @param row row to encode
+   */
+  public RunLengthRow(BitArray row) {
+    this();
+    encode(row);
+  }
+
+  /**
+   * Encodes a row, replacing the one encoded before. The row must not change while this is used.
+   *
+   * @param row row to encode
+   * @return this
+   */
+  public RunLengthRow encode(BitArray row) {
+    this.row = row;
+    unreversedRow = null;
+    size = row.getSize();
+    runCount = 0;
+    firstBlack = size > 0 && row.get(0);
+    boolean black = firstBlack;
+    int x = 0;
+    while (x < size) {
+      x = black ? row.getNextUnset(x) : row.getNextSet(x);
+      if (runCount == ends.length) {
+        ends = Arrays.copyOf(ends, 2 * runCount);
+      }
+      ends[runCount++] = x;
+      black = !black;
+    }
+    return this;
+  }
+
+  /**
+   * @return the row this encodes
+   */
+  public BitArray getRow() {
+    if (unreversedRow != null) {
+      // Only reversed once asked for, as readers of reversed runs rarely look at the pixels
+      BitArray reversedRow = unreversedRow.clone();
+      reversedRow.reverse();
+      row = reversedRow;
+      unreversedRow = null;
+    }
+    return row;
+  }
+
+  /**
+   * @return number of pixels in the row
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * @return number of runs in the row
+   */
+  public int getRunCount() {
+    return runCount;
+  }
+
+  /**
+   * @param run index of a run
+   * @return true if the run is black
+   */
+  public boolean isBlack(int run) {
+    return ((run & 0x01) == 0) == firstBlack;
+  }
+
+  /**
+   * @param run index of a run
+   * @return position of the run's first pixel
+   */
+  public int getRunStart(int run) {
+    return run == 0 ? 0 : ends[run - 1];
+  }
+
+  /**
+   * @param run index of a run
+   * @return position just past the run's last pixel
+   */
+  public int getRunEnd(int run) {
+    return ends[run];
+  }
+
+  /**
+   * @param x position in the row
+   * @return index of the run containing the position; {@link #getRunCount()} if it is past the end
+   */
+  public int runAt(int x) {
+    int i = Arrays.binarySearch(ends, 0, runCount, x);
+    return i >= 0 ? i + 1 : -i - 1;
+  }
+
+  /**
+   * @param x position in the row
+   * @return true if the pixel is black
+   */
+  public boolean get(int x) {
+    return isBlack(runAt(x));
+  }
+
+  /**
+   * @param from first position to check
+   * @return position of the first black pixel at or after it, or the size of the row if none
+   * @see BitArray#getNextSet(int)
+   */
+  public int getNextSet(int from) {
+    if (from >= size) {
+      return size;
+    }
+    int run = runAt(from);
+    return isBlack(run) ? from : ends[run];
+  }
+
+  /**
+   * @param from first position to check
+   * @return position of the first white pixel at or after it, or the size of the row if none
+   * @see BitArray#getNextUnset(int)
+   */
+  public int getNextUnset(int from) {
+    if (from >= size) {
+      return size;
+    }
+    int run = runAt(from);
+    return isBlack(run) ? ends[run] : from;
+  }
+
+  /**
+   * @param start start of range, inclusive
+   * @param end end of range, exclusive
+   * @param value true to check for black pixels, false for white
+   * @return true iff all pixels in the range are of the color
+   * @see BitArray#isRange(int, int, boolean)
+   */
+  public boolean isRange(int start, int end, boolean value) {
+    if (end < start || start < 0 || end > size) {
+      throw new IllegalArgumentException();
+    }
+    if (end == start) {
+      return true; // empty range matches
+    }
+    int run = runAt(start);
+    return isBlack(run) == value && ends[run] >= end;
+  }
+
+  /**
+   * @return the runs of this row, reversed, as if encoded from the reversed row, which it has as
+   *  its {@link #getRow()}. The same instance is returned, with the runs of this row as it is
+   *  then, by the next call.
+   */
+  RunLengthRow reversed() {
+    if (reversed == null) {
+      reversed = new RunLengthRow();
+    }
+    if (unreversedRow != null) {
+      // This is itself reversed, and not yet its row
+      reversed.row = unreversedRow;
+      reversed.unreversedRow = null;
+    } else {
+      reversed.row = null;
+      reversed.unreversedRow = row;
+    }
+    reversed.size = size;
+    reversed.runCount = runCount;
+    reversed.firstBlack = runCount > 0 && isBlack(runCount - 1);
+    if (reversed.ends.length < runCount) {
+      reversed.ends = new int[runCount];
+    }
+    for (int i = 0; i < runCount; i++) {
+      reversed.ends[i] = size - getRunStart(runCount - 1 - i);
+    }
+    return reversed;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder(2 + 4 * runCount);
+    result.append(firstBlack ? 'X' : '.').append(' ');
+    for (int i = 0; i < runCount; i++) {
+      if (i > 0) {
+        result.append(',');
+      }
+      result.append(ends[i] - getRunStart(i));
+    }
+    return result.toString();
+  }
+
+}
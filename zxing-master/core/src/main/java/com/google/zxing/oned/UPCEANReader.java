@@ -19,6 +19,7 @@ package com.google.zxing.oned;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ReaderException;
@@ -28,7 +29,6 @@ import com.google.zxing.ResultPoint;
 import com.google.zxing.ResultPointCallback;
 import com.google.zxing.common.BitArray;
 
-import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -44,8 +44,14 @@ public abstract class UPCEANReader extends OneDReader {
   // These two values are critical for determining how permissive the decoding will be.
   // We've arrived at these values through a lot of trial and error. Setting them any higher
   // lets false positives creep in quickly.
-  private static final float MAX_AVG_VARIANCE = 0.48f;
-  private static final float MAX_INDIVIDUAL_VARIANCE = 0.7f;
+  private static final int MAX_AVG_VARIANCE = (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.48f);
+  private static final int MAX_INDIVIDUAL_VARIANCE = (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.7f);
+  // Digits are still matched in floating point: counters often match two digits' patterns equally
+  // well, and the values above were tuned to how floating point rounding chooses between them
+  private static final float MAX_DIGIT_AVG_VARIANCE = 0.48f;
+  private static final float MAX_DIGIT_INDIVIDUAL_VARIANCE = 0.7f;
+  // Off by less than a module in all of a digit's 7 can't be bettered by another digit
+  private static final float UNBEATABLE_DIGIT_VARIANCE = 0.75f / 7;
 
   /**
    * Start/end guard pattern.
@@ -104,13 +110,12 @@ public abstract class UPCEANReader extends OneDReader {
     eanManSupport = new EANManufacturerOrgSupport();
   }
 
-  static int[] findStartGuardPattern(BitArray row) throws NotFoundException {
+  static int[] findStartGuardPattern(RunLengthRow row) throws NotFoundException {
     boolean foundStart = false;
     int[] startRange = null;
     int nextStart = 0;
     int[] counters = new int[START_END_PATTERN.length];
     while (!foundStart) {
-      Arrays.fill(counters, 0, START_END_PATTERN.length, 0);
       startRange = findGuardPattern(row, nextStart, false, START_END_PATTERN, counters);
       int start = startRange[0];
       nextStart = startRange[1];
@@ -128,7 +133,13 @@ public abstract class UPCEANReader extends OneDReader {
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
-    return decodeRow(rowNumber, row, findStartGuardPattern(row), hints);
+    return decodeRow(rowNumber, encodeRow(row), hints);
+  }
+
+  @Override
+  protected Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, row.getRow(), findStartGuardPattern(row), hints);
   }
 
   /**
@@ -151,8 +162,15 @@ public abstract class UPCEANReader extends OneDReader {
                           Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
 
-    ResultPointCallback resultPointCallback = hints == null ? null :
-        (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    // Options, as OneDReader passes, have their hints looked up already; a plain map is searched
+    DecodeOptions options = hints instanceof DecodeOptions ? (DecodeOptions) hints : null;
+    ResultPointCallback resultPointCallback;
+    if (options != null) {
+      resultPointCallback = options.getResultPointCallback();
+    } else {
+      resultPointCallback = hints == null ? null :
+          (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    }
     int symbologyIdentifier = 0;
 
     if (resultPointCallback != null) {
@@ -219,8 +237,12 @@ public abstract class UPCEANReader extends OneDReader {
       // continue
     }
 
-    int[] allowedExtensions =
-        hints == null ? null : (int[]) hints.get(DecodeHintType.ALLOWED_EAN_EXTENSIONS);
+    int[] allowedExtensions;
+    if (options != null) {
+      allowedExtensions = options.getAllowedEANExtensions();
+    } else {
+      allowedExtensions = hints == null ? null : (int[]) hints.get(DecodeHintType.ALLOWED_EAN_EXTENSIONS);
+    }
     if (allowedExtensions != null) {
       boolean valid = false;
       for (int length : allowedExtensions) {
@@ -356,6 +378,28 @@ private int symbologyIdentifier(int symbologyIdentifier, BarcodeFormat format) {
     throw NotFoundException.getNotFoundInstance();
   }
 
+  /**
+   * Like {@link #findGuardPattern(BitArray, int, boolean, int[], int[])}, but steps through the
+   * runs of the row two at a time, rather than through its pixels.
+   */
+  private static int[] findGuardPattern(RunLengthRow row,
+                                        int rowOffset,
+                                        boolean whiteFirst,
+                                        int[] pattern,
+                                        int[] counters) throws NotFoundException {
+    int patternStart = whiteFirst ? row.getNextUnset(rowOffset) : row.getNextSet(rowOffset);
+    int patternLength = pattern.length;
+    // Like the pixel by pixel search, only match a pattern followed by another run
+    for (int run = row.runAt(patternStart); run + patternLength < row.getRunCount(); run += 2) {
+      recordPattern(row, patternStart, counters);
+      if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        return new int[]{patternStart, row.getRunEnd(run + patternLength - 1)};
+      }
+      patternStart = row.getRunStart(run + 2);
+    }
+    throw NotFoundException.getNotFoundInstance();
+  }
+
   /**
    * Attempts to decode a single UPC/EAN-encoded digit.
    *
@@ -370,14 +414,29 @@ private int symbologyIdentifier(int symbologyIdentifier, BarcodeFormat format) {
    */
   static int decodeDigit(BitArray row, int[] counters, int rowOffset, int[][] patterns)
       throws NotFoundException {
+    return decodeDigit(row, counters, rowOffset, patterns, 0);
+  }
+
+  /**
+   * Like {@link #decodeDigit(BitArray, int[], int, int[][])}, but tries the patterns from the given
+   * one on, as from the parity set the previous digit was in, which the next digit is likely to be
+   * in too; the digit it finds is the same.
+   *
+   * @param firstPattern index of the pattern to try first
+   */
+  static int decodeDigit(BitArray row, int[] counters, int rowOffset, int[][] patterns, int firstPattern)
+      throws NotFoundException {
     recordPattern(row, rowOffset, counters);
-    float bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
+    float bestVariance = MAX_DIGIT_AVG_VARIANCE; // worst variance we'll accept
     int bestMatch = -1;
     int max = patterns.length;
-    for (int i = 0; i < max; i++) {
-      int[] pattern = patterns[i];
-      float variance = patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE);
-      if (variance < bestVariance) {
+    for (int n = 0; n < max; n++) {
+      int i = firstPattern + n < max ? firstPattern + n : firstPattern + n - max;
+      float variance = patternMatchVariance(counters, patterns[i], MAX_DIGIT_INDIVIDUAL_VARIANCE);
+      if (variance < bestVariance || (variance == bestVariance && i < bestMatch)) {
+        if (variance < UNBEATABLE_DIGIT_VARIANCE) {
+          return i;
+        }
         bestVariance = variance;
         bestMatch = i;
       }
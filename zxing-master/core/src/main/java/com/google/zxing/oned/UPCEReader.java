@@ -76,6 +76,11 @@ public final class UPCEReader extends UPCEANReader {
     decodeMiddleCounters = new int[4];
   }
 
+  @Override
+  protected OneDReader newRowReader() {
+    return new UPCEReader();
+  }
+
   @Override
   protected int decodeMiddle(BitArray row, int[] startRange, StringBuilder result)
       throws NotFoundException {
@@ -88,9 +93,12 @@ public final class UPCEReader extends UPCEANReader {
     int rowOffset = startRange[1];
 
     int lgPatternFound = 0;
+    // Try the patterns of the previous digit's parity first
+    int firstPattern = 0;
 
     for (int x = 0; x < 6 && rowOffset < end; x++) {
-      int bestMatch = decodeDigit(row, counters, rowOffset, L_AND_G_PATTERNS);
+      int bestMatch = decodeDigit(row, counters, rowOffset, L_AND_G_PATTERNS, firstPattern);
+      firstPattern = bestMatch - bestMatch % 10;
       result.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
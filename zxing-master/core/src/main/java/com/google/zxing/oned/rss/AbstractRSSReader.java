@@ -26,8 +26,8 @@ import com.google.zxing.oned.OneDReader;
  */
 public abstract class AbstractRSSReader extends OneDReader {
 
-  private static final float MAX_AVG_VARIANCE = 0.2f;
-  private static final float MAX_INDIVIDUAL_VARIANCE = 0.45f;
+  private static final int MAX_AVG_VARIANCE = (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.2f);
+  private static final int MAX_INDIVIDUAL_VARIANCE = (int) (PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.45f);
 
   private static final float MIN_FINDER_PATTERN_RATIO = 9.5f / 12.0f;
   private static final float MAX_FINDER_PATTERN_RATIO = 12.5f / 14.0f;
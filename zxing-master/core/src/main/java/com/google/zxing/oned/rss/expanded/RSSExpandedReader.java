@@ -27,6 +27,7 @@
 package com.google.zxing.oned.rss.expanded;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.DecodeDeadline;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
@@ -121,6 +122,7 @@ private static final int[] SYMBOL_WIDEST = {7, 5, 4, 3, 1};
   private final List<ExpandedPair> pairs = new ArrayList<>(MAX_PAIRS);
   private final List<ExpandedRow> rows = new ArrayList<>();
   private boolean startFromEven;
+  private DecodeDeadline deadline;
 
   @Override
   public Result decodeRow(int rowNumber,
@@ -128,6 +130,7 @@ private static final int[] SYMBOL_WIDEST = {7, 5, 4, 3, 1};
                           Map<DecodeHintType,?> hints) throws NotFoundException, FormatException {
     // Rows can start with even pattern in case in prev rows there where odd number of patters.
     // So lets try twice
+    this.deadline = DecodeDeadline.fromHints(hints);
     this.pairs.clear();
     this.startFromEven = false;
     try {
@@ -204,10 +207,11 @@ private static final int[] SYMBOL_WIDEST = {7, 5, 4, 3, 1};
       ps = checkRows(new ArrayList<>(), 0);
     } catch (NotFoundException e) {
       // OK
-    }
-
-    if (reverse) {
-      Collections.reverse(this.rows);
+    } finally {
+      // Even if the deadline passed
+      if (reverse) {
+        Collections.reverse(this.rows);
+      }
     }
 
     return ps;
@@ -216,6 +220,9 @@ private static final int[] SYMBOL_WIDEST = {7, 5, 4, 3, 1};
   // Try to construct a valid rows sequence
   // Recursion is used to implement backtracking
   private List<ExpandedPair> checkRows(List<ExpandedRow> collectedRows, int currentRow) throws NotFoundException {
+    if (deadline != null) {
+      deadline.check();
+    }
     for (int i = currentRow; i < rows.size(); i++) {
       ExpandedRow row = rows.get(i);
       this.pairs.clear();
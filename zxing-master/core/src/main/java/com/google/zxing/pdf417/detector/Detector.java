@@ -80,9 +80,12 @@ public final class Detector {
     BitMatrix bitMatrix = image.getBlackMatrix();
 
     List<ResultPoint[]> barcodeCoordinates = detect(multiple, bitMatrix);
-    // Try 180, 270, 90 degree rotations, in that order
+    // Try 180, 270, 90 degree rotations, in that order. The image's matrix is copied once, and the
+    // copy rotated in place from one orientation to the next.
     for (int rotate = 0; barcodeCoordinates.isEmpty() && rotate < 3; rotate++) {
-      bitMatrix = bitMatrix.clone();
+      if (rotate == 0) {
+        bitMatrix = bitMatrix.clone();
+      }
       if (rotate != 1) {
         bitMatrix.rotate180();
       } else {
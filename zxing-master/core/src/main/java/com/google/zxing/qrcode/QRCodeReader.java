@@ -20,6 +20,8 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeListener;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
@@ -67,18 +69,57 @@ public class QRCodeReader implements Reader {
   @Override
   public final Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    DecodeOptions options = DecodeOptions.of(hints);
+    DecodeListener listener = options.getDecodeListener();
     DecoderResult decoderResult;
     ResultPoint[] points;
-    if (hints != null && hints.containsKey(DecodeHintType.PURE_BARCODE)) {
-      BitMatrix bits = extractPureBits(image.getBlackMatrix());
-      decoderResult = decoder.decode(bits, hints);
+    if (options.isPureBarcode()) {
+      BitMatrix bits = extractPureBits(image.getBlackMatrix(listener));
+      decoderResult = decoder.decode(bits, options);
       points = NO_POINTS;
     } else {
-      DetectorResult detectorResult = new Detector(image.getBlackMatrix()).detect(hints);
-      decoderResult = decoder.decode(detectorResult.getBits(), hints);
+      Detector detector = new Detector(image.getBlackMatrix(listener));
+      DetectorResult detectorResult = null;
+      decoderResult = null;
+      int level = image.getCoarsestLevel();
+      if (level > 0) {
+        try {
+          detectorResult = detector.detect(image.getBlackMatrix(level), 1 << level, options);
+          decoderResult = decoder.decode(detectorResult.getBits(), options);
+        } catch (NotFoundException | ChecksumException | FormatException re) {
+          // Smaller codes may only be found at full resolution
+        }
+      }
+      if (decoderResult == null) {
+        detectorResult = detector.detect(options);
+        decoderResult = decoder.decode(detectorResult.getBits(), options);
+      }
       points = detectorResult.getPoints();
     }
+    return toResult(decoderResult, points);
+  }
+
+  /**
+   * Decodes a QR Code which was found before near the given points, as in the previous frame of a
+   * video, by locating its finder patterns around them rather than searching the whole image.
+   *
+   * @param image image to decode
+   * @param points points of the QR Code's earlier {@link Result}, or where they are expected now
+   * @param hints optional hints to the reader
+   * @return a String representing the content encoded by the QR code
+   * @throws NotFoundException if a QR code cannot be found near the points
+   * @throws FormatException if a QR code cannot be decoded
+   * @throws ChecksumException if error correction fails
+   */
+  public final Result decodeNear(BinaryBitmap image, ResultPoint[] points, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    DecodeOptions options = DecodeOptions.of(hints);
+    Detector detector = new Detector(image.getBlackMatrix(options.getDecodeListener()));
+    DetectorResult detectorResult = detector.detectNear(points, options);
+    return toResult(decoder.decode(detectorResult.getBits(), options), detectorResult.getPoints());
+  }
 
+  private static Result toResult(DecoderResult decoderResult, ResultPoint[] points) {
     // If the code was mirrored: swap the bottom-left and the top-right points.
     if (decoderResult.getOther() instanceof QRCodeDecoderMetaData) {
       ((QRCodeDecoderMetaData) decoderResult.getOther()).applyMirroredCorrection(points);
@@ -17,6 +17,8 @@
 package com.google.zxing.qrcode.detector;
 
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeListener;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ResultPoint;
@@ -40,6 +42,7 @@ public class Detector {
 
   private final BitMatrix image;
   private ResultPointCallback resultPointCallback;
+  private DecodeListener decodeListener;
 
   public Detector(BitMatrix image) {
     this.image = image;
@@ -74,15 +77,98 @@ public class Detector {
    */
   public final DetectorResult detect(Map<DecodeHintType,?> hints) throws NotFoundException, FormatException {
 
-    resultPointCallback = hints == null ? null :
-        (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    DecodeOptions options = DecodeOptions.of(hints);
+    resultPointCallback = options.getResultPointCallback();
+    decodeListener = options.getDecodeListener();
 
+    long start = decodeListener == null ? 0L : System.nanoTime();
     FinderPatternFinder finder = new FinderPatternFinder(image, resultPointCallback);
-    FinderPatternInfo info = finder.find(hints);
+    FinderPatternInfo info;
+    try {
+      info = finder.find(options);
+    } finally {
+      stageFinished(DecodeListener.Stage.DETECTION, start);
+    }
 
     return processFinderPatternInfo(info);
   }
 
+  /**
+   * <p>Detects a QR Code by finding its finder patterns in a lower resolution copy of the image,
+   * then locating them precisely, finding the alignment pattern and sampling in this image.</p>
+   *
+   * @param coarseImage this image at 1/scale of its resolution
+   * @param scale ratio of this image's resolution to coarseImage's
+   * @param hints optional hints to detector
+   * @return {@link DetectorResult} encapsulating results of detecting a QR Code
+   * @throws NotFoundException if QR Code cannot be found
+   * @throws FormatException if a QR Code cannot be decoded
+   */
+  public final DetectorResult detect(BitMatrix coarseImage, int scale, Map<DecodeHintType,?> hints)
+      throws NotFoundException, FormatException {
+
+    DecodeOptions options = DecodeOptions.of(hints);
+    resultPointCallback = options.getResultPointCallback();
+    decodeListener = options.getDecodeListener();
+
+    long start = decodeListener == null ? 0L : System.nanoTime();
+    FinderPattern[] patterns;
+    try {
+      FinderPatternInfo coarseInfo = new FinderPatternFinder(coarseImage).find(options);
+
+      FinderPatternFinder finder = new FinderPatternFinder(image, resultPointCallback);
+      patterns = new FinderPattern[] {
+          finder.findNear(coarseInfo.getBottomLeft(), scale),
+          finder.findNear(coarseInfo.getTopLeft(), scale),
+          finder.findNear(coarseInfo.getTopRight(), scale),
+      };
+    } finally {
+      stageFinished(DecodeListener.Stage.DETECTION, start);
+    }
+    return processFinderPatternInfo(new FinderPatternInfo(patterns));
+  }
+
+  /**
+   * <p>Detects a QR Code which was found before near the given points, as in the previous frame
+   * of a video, by locating its finder patterns again around them rather than searching the
+   * whole image. A pattern which has moved too far to be found is assumed to be where it was.</p>
+   *
+   * @param points centers of the QR Code's three finder patterns, in any order, as in the points
+   *  of a {@link DetectorResult}; any further points are ignored
+   * @param hints optional hints to detector
+   * @return {@link DetectorResult} encapsulating results of detecting a QR Code
+   * @throws NotFoundException if the points are not all in the image
+   * @throws FormatException if a QR Code cannot be decoded
+   */
+  public final DetectorResult detectNear(ResultPoint[] points, Map<DecodeHintType,?> hints)
+      throws NotFoundException, FormatException {
+    if (points.length < 3) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+
+    DecodeOptions options = DecodeOptions.of(hints);
+    resultPointCallback = options.getResultPointCallback();
+    decodeListener = options.getDecodeListener();
+
+    long start = decodeListener == null ? 0L : System.nanoTime();
+    FinderPattern[] patterns = new FinderPattern[3];
+    try {
+      FinderPatternFinder finder = new FinderPatternFinder(image, resultPointCallback);
+      for (int i = 0; i < patterns.length; i++) {
+        ResultPoint point = points[i];
+        if (point.getX() < 0.0f || point.getY() < 0.0f) {
+          throw NotFoundException.getNotFoundInstance();
+        }
+        float moduleSize = point instanceof FinderPattern ? ((FinderPattern) point).getEstimatedModuleSize() : 1.0f;
+        patterns[i] = finder.findNear(new FinderPattern(point.getX(), point.getY(), moduleSize), 1);
+      }
+      ResultPoint.orderBestPatterns(patterns);
+    } finally {
+      stageFinished(DecodeListener.Stage.DETECTION, start);
+    }
+    return processFinderPatternInfo(new FinderPatternInfo(patterns));
+  }
+
   protected final DetectorResult processFinderPatternInfo(FinderPatternInfo info)
       throws NotFoundException, FormatException {
 
@@ -130,7 +216,13 @@ public class Detector {
     PerspectiveTransform transform =
         createTransform(topLeft, topRight, bottomLeft, alignmentPattern, dimension);
 
-    BitMatrix bits = sampleGrid(image, transform, dimension);
+    long start = decodeListener == null ? 0L : System.nanoTime();
+    BitMatrix bits;
+    try {
+      bits = sampleGrid(image, transform, dimension);
+    } finally {
+      stageFinished(DecodeListener.Stage.GRID_SAMPLING, start);
+    }
 
     ResultPoint[] points;
     if (alignmentPattern == null) {
@@ -183,6 +275,12 @@ public class Detector {
         bottomLeft.getY());
   }
 
+  private void stageFinished(DecodeListener.Stage stage, long start) {
+    if (decodeListener != null) {
+      decodeListener.stageFinished(stage, System.nanoTime() - start);
+    }
+  }
+
   private static BitMatrix sampleGrid(BitMatrix image,
                                       PerspectiveTransform transform,
                                       int dimension) throws NotFoundException {
@@ -16,7 +16,9 @@
 
 package com.google.zxing.qrcode.detector;
 
+import com.google.zxing.DecodeDeadline;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.ResultPointCallback;
@@ -73,7 +75,8 @@ public class FinderPatternFinder {
   }
 
   final FinderPatternInfo find(Map<DecodeHintType,?> hints) throws NotFoundException {
-    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
+    DecodeOptions options = DecodeOptions.of(hints);
+    boolean tryHarder = options.isTryHarder();
     int maxI = image.getHeight();
     int maxJ = image.getWidth();
     // We are looking for black/white/black/white/black modules in
@@ -90,7 +93,15 @@ public class FinderPatternFinder {
 
     boolean done = false;
     int[] stateCount = new int[5];
+    DecodeDeadline deadline = options.getDeadline();
     for (int i = iSkip - 1; i < maxI && !done; i += iSkip) {
+      if (options.isCancelled()) {
+        // Decoding was cancelled, as when another reader wins; see MultiFormatReader#setExecutor
+        throw NotFoundException.getNotFoundInstance();
+      }
+      if (deadline != null) {
+        deadline.check();
+      }
       // Get a row of black/white values
       doClearCounts(stateCount);
       int currentState = 0;
@@ -528,6 +539,59 @@ public class FinderPatternFinder {
     return false;
   }
 
+  /**
+   * Locates precisely, in this finder's image, a finder pattern which was found in a lower
+   * resolution copy of the image.
+   *
+   * @param coarsePattern pattern found in the copy
+   * @param scale ratio of this image's resolution to the copy's
+   * @return the pattern as found in this image, or else simply scaled up
+   */
+  final FinderPattern findNear(FinderPattern coarsePattern, int scale) {
+    float x = coarsePattern.getX() * scale;
+    float y = coarsePattern.getY() * scale;
+    FinderPattern scaled = new FinderPattern(x, y, coarsePattern.getEstimatedModuleSize() * scale);
+    int centerI = (int) y;
+    int centerJ = (int) x;
+    if (centerI >= image.getHeight() || centerJ >= image.getWidth() || !image.get(centerJ, centerI)) {
+      return scaled;
+    }
+    // Read the pattern's proportions across its center, then check it just as find() does
+    int[] stateCount = new int[5];
+    int maxJ = image.getWidth();
+    int j = centerJ;
+    while (j >= 0 && image.get(j, centerI)) {
+      stateCount[2]++;
+      j--;
+    }
+    while (j >= 0 && !image.get(j, centerI)) {
+      stateCount[1]++;
+      j--;
+    }
+    while (j >= 0 && image.get(j, centerI)) {
+      stateCount[0]++;
+      j--;
+    }
+    j = centerJ + 1;
+    while (j < maxJ && image.get(j, centerI)) {
+      stateCount[2]++;
+      j++;
+    }
+    while (j < maxJ && !image.get(j, centerI)) {
+      stateCount[3]++;
+      j++;
+    }
+    while (j < maxJ && image.get(j, centerI)) {
+      stateCount[4]++;
+      j++;
+    }
+    possibleCenters.clear();
+    if (foundPatternCross(stateCount) && handlePossibleCenter(stateCount, centerI, j)) {
+      return possibleCenters.get(0);
+    }
+    return scaled;
+  }
+
   /**
    * @return number of rows we could safely skip during scanning, based on the first
    *         two finder patterns that have been located. In some cases their position will
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Tests {@link BatchDecoder}.
+ */
+public final class BatchDecoderTestCase extends Assert {
+
+  private static final int IMAGES = 24;
+
+  @Test
+  public void testDecodeAll() throws WriterException {
+    List<Supplier<LuminanceSource>> sources = new ArrayList<>();
+    for (int i = 0; i < IMAGES; i++) {
+      // Every third image has no barcode
+      sources.add(source(i % 3 == 2 ? null : "Image " + i));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try (BatchDecoder.Outcomes outcomes = new BatchDecoder(null, 3, executor).decode(sources.iterator())) {
+      boolean[] seen = new boolean[IMAGES];
+      while (outcomes.hasNext()) {
+        BatchDecoder.Outcome outcome = outcomes.next();
+        int index = outcome.getIndex();
+        assertFalse(seen[index]);
+        seen[index] = true;
+        if (index % 3 == 2) {
+          assertNull(outcome.getResult());
+          assertTrue(outcome.getException() instanceof NotFoundException);
+        } else {
+          assertNull(outcome.getException());
+          assertEquals("Image " + index, outcome.getResult().getText());
+        }
+      }
+      for (boolean imageSeen : seen) {
+        assertTrue(imageSeen);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testFailures() {
+    final List<Supplier<LuminanceSource>> sources = new ArrayList<>();
+    sources.add(new Supplier<LuminanceSource>() {
+      @Override
+      public LuminanceSource get() {
+        throw new IllegalStateException("Can't load image");
+      }
+    });
+    Iterator<Supplier<LuminanceSource>> input = new Iterator<Supplier<LuminanceSource>>() {
+      private int next;
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+      @Override
+      public Supplier<LuminanceSource> next() {
+        if (next == sources.size()) {
+          throw new IllegalArgumentException("Can't list images");
+        }
+        return sources.get(next++);
+      }
+    };
+    List<String> messages = new ArrayList<>();
+    try (BatchDecoder.Outcomes outcomes = new BatchDecoder(null, 2).decode(input)) {
+      while (outcomes.hasNext()) {
+        BatchDecoder.Outcome outcome = outcomes.next();
+        assertNull(outcome.getResult());
+        messages.add(outcome.getIndex() + " " + outcome.getException().getMessage());
+      }
+      try {
+        outcomes.next();
+        fail("No more outcomes");
+      } catch (NoSuchElementException nsee) {
+        // continue
+      }
+    }
+    assertEquals(2, messages.size());
+    assertTrue(messages.contains("0 Can't load image"));
+    assertTrue(messages.contains("1 Can't list images"));
+  }
+
+  @Test
+  public void testBackpressure() throws Exception {
+    final AtomicInteger taken = new AtomicInteger();
+    final Supplier<LuminanceSource> blank = source(null);
+    Iterator<Supplier<LuminanceSource>> endless = new Iterator<Supplier<LuminanceSource>>() {
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+      @Override
+      public Supplier<LuminanceSource> next() {
+        taken.incrementAndGet();
+        return blank;
+      }
+    };
+    int parallelism = 2;
+    BatchDecoder.Outcomes outcomes = new BatchDecoder(null, parallelism).decode(endless);
+    assertTrue(outcomes.hasNext());
+    Thread.sleep(200L);
+    // The buffer is full and each thread is waiting to add one more
+    assertTrue(taken.get() <= 4 * parallelism);
+    outcomes.close();
+    int takenWhenClosed = taken.get();
+    assertFalse(outcomes.hasNext());
+    Thread.sleep(50L);
+    assertEquals(takenWhenClosed, taken.get());
+  }
+
+  @Test
+  public void testBadHints() throws WriterException {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, BarcodeFormat.QR_CODE);
+    List<Supplier<LuminanceSource>> sources = new ArrayList<>();
+    sources.add(source("Image"));
+    try {
+      new BatchDecoder(hints, 2).decode(sources.iterator());
+      fail("Should fail on the caller's thread");
+    } catch (ClassCastException cce) {
+      // continue
+    }
+  }
+
+  @Test
+  public void testRejectedExecution() throws WriterException {
+    List<Supplier<LuminanceSource>> sources = new ArrayList<>();
+    for (int i = 0; i < IMAGES; i++) {
+      sources.add(source(null));
+    }
+    final AtomicInteger started = new AtomicInteger();
+    // Runs only the first of the decoding threads
+    Executor executor = new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        if (started.getAndIncrement() > 0) {
+          throw new RejectedExecutionException("Full");
+        }
+        new Thread(command).start();
+      }
+    };
+    try {
+      new BatchDecoder(null, 3, executor).decode(sources.iterator());
+      fail("Should not start");
+    } catch (RejectedExecutionException ree) {
+      // The thread which did start has stopped, rather than decoding all the images
+      assertEquals(2, started.get());
+    }
+  }
+
+  /**
+   * @return supplier of an image of a QR Code of the given contents, or of a blank image if null
+   */
+  private static Supplier<LuminanceSource> source(final String contents) throws WriterException {
+    final BitMatrix code = contents == null ?
+        new BitMatrix(25) : new QRCodeWriter().encode(contents, BarcodeFormat.QR_CODE, 0, 0);
+    return new Supplier<LuminanceSource>() {
+      @Override
+      public LuminanceSource get() {
+        int moduleSize = 4;
+        int border = 40;
+        int width = code.getWidth() * moduleSize + 2 * border;
+        int height = code.getHeight() * moduleSize + 2 * border;
+        byte[] pixels = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+          for (int x = 0; x < width; x++) {
+            int codeX = (x - border) / moduleSize;
+            int codeY = (y - border) / moduleSize;
+            boolean black = x >= border && y >= border && codeX < code.getWidth() && codeY < code.getHeight() &&
+                code.get(codeX, codeY);
+            pixels[y * width + x] = (byte) (black ? 30 : 220);
+          }
+        }
+        return new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false);
+      }
+    };
+  }
+
+}
@@ -131,25 +131,12 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
     return true;
   }
 
+  /**
+   * @return a view of this source rotated by 90 degrees, rather than a rotated copy of the image
+   */
   @Override
   public LuminanceSource rotateCounterClockwise() {
-    int sourceWidth = image.getWidth();
-    int sourceHeight = image.getHeight();
-
-    // Rotate 90 degrees counterclockwise.
-    AffineTransform transform = new AffineTransform(0.0, -1.0, 1.0, 0.0, 0.0, sourceWidth);
-
-    // Note width/height are flipped since we are rotating 90 degrees.
-    BufferedImage rotatedImage = new BufferedImage(sourceHeight, sourceWidth, BufferedImage.TYPE_BYTE_GRAY);
-
-    // Draw the original image into rotated, via transformation
-    Graphics2D g = rotatedImage.createGraphics();
-    g.drawImage(image, transform, null);
-    g.dispose();
-
-    // Maintain the cropped region, but rotate it too.
-    int width = getWidth();
-    return new BufferedImageLuminanceSource(rotatedImage, top, sourceWidth - (left + width), getHeight(), width);
+    return new RotatedLuminanceSource(this);
   }
 
   @Override
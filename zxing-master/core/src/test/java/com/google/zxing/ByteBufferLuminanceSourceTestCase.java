@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests {@link ByteBufferLuminanceSource}.
+ */
+public final class ByteBufferLuminanceSourceTestCase extends Assert {
+
+  private static final int COLS = 7;
+  private static final int ROWS = 5;
+  private static final byte[] DATA = new byte[COLS * ROWS];
+  static {
+    for (int i = 0; i < DATA.length; i++) {
+      DATA[i] = (byte) i;
+    }
+  }
+
+  @Test
+  public void testHeapBuffer() {
+    ByteBufferLuminanceSource source = new ByteBufferLuminanceSource(ByteBuffer.wrap(DATA), COLS, ROWS);
+    assertSame(DATA, source.getMatrix());
+    for (int y = 0; y < ROWS; y++) {
+      assertArrayEquals(Arrays.copyOfRange(DATA, y * COLS, (y + 1) * COLS), source.getRow(y, null));
+    }
+  }
+
+  @Test
+  public void testDirectBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(DATA.length + 3);
+    buffer.put(new byte[3]).put(DATA);
+    ((Buffer) buffer).flip();
+    buffer.get(new byte[3]);
+    ByteBufferLuminanceSource source = new ByteBufferLuminanceSource(buffer, COLS, ROWS);
+    assertEquals(3, buffer.position());
+    assertArrayEquals(DATA, source.getMatrix());
+    byte[] rows = source.getRows(1, 2, null);
+    assertArrayEquals(Arrays.copyOfRange(DATA, COLS, 3 * COLS), rows);
+  }
+
+  @Test
+  public void testCrop() {
+    LuminanceSource source = new ByteBufferLuminanceSource(ByteBuffer.wrap(DATA), COLS, ROWS, 1, 1, 5, 3);
+    LuminanceSource cropped = source.crop(1, 1, 3, 2);
+    assertEquals(3, cropped.getWidth());
+    assertEquals(2, cropped.getHeight());
+    assertArrayEquals(new byte[] {16, 17, 18}, cropped.getRow(0, null));
+    assertArrayEquals(new byte[] {16, 17, 18, 23, 24, 25}, cropped.getMatrix());
+  }
+
+  @Test
+  public void testRotate() {
+    LuminanceSource source = new ByteBufferLuminanceSource(ByteBuffer.wrap(DATA), COLS, ROWS);
+    LuminanceSource expected = new PlanarYUVLuminanceSource(DATA, COLS, ROWS, 0, 0, COLS, ROWS, false);
+    for (int i = 0; i < 4; i++) {
+      source = source.rotateCounterClockwise();
+      expected = rotate(expected);
+      assertEquals(expected.getWidth(), source.getWidth());
+      assertArrayEquals(expected.getMatrix(), source.getMatrix());
+      assertArrayEquals(expected.getRow(1, null), source.getRow(1, null));
+    }
+    assertArrayEquals(DATA, source.getMatrix());
+  }
+
+  @Test
+  public void testBinarizersMatchArraySource() throws NotFoundException {
+    int width = 301;
+    int height = 203;
+    byte[] pixels = new byte[width * height];
+    Random random = new Random(0x5EEDL);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        boolean dark = ((x / 9) + (y / 13)) % 3 == 0;
+        pixels[y * width + x] = (byte) (dark ? 20 + random.nextInt(40) : 150 + random.nextInt(100));
+      }
+    }
+    ByteBuffer direct = ByteBuffer.allocateDirect(pixels.length);
+    direct.put(pixels);
+    ((Buffer) direct).flip();
+    LuminanceSource bufferSource = new ByteBufferLuminanceSource(direct, width, height);
+    LuminanceSource arraySource = new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false);
+    assertBinarizersMatch(arraySource, bufferSource);
+    assertBinarizersMatch(arraySource.crop(13, 7, 250, 150), bufferSource.crop(13, 7, 250, 150));
+    assertBinarizersMatch(rotate(arraySource), bufferSource.rotateCounterClockwise());
+  }
+
+  private static void assertBinarizersMatch(LuminanceSource expected, LuminanceSource actual)
+      throws NotFoundException {
+    assertEquals(new HybridBinarizer(expected).getBlackMatrix(), new HybridBinarizer(actual).getBlackMatrix());
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      assertEquals(new HybridBinarizer(expected).getBlackMatrix(),
+                   new HybridBinarizer(actual, pool).getBlackMatrix());
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(new GlobalHistogramBinarizer(expected).getBlackMatrix(),
+                 new GlobalHistogramBinarizer(actual).getBlackMatrix());
+    for (int y = 0; y < expected.getHeight(); y += 17) {
+      assertEquals(new GlobalHistogramBinarizer(expected).getBlackRow(y, null),
+                   new GlobalHistogramBinarizer(actual).getBlackRow(y, null));
+    }
+  }
+
+  private static LuminanceSource rotate(LuminanceSource source) {
+    return new PlanarYUVLuminanceSource(manualRotation(source), source.getHeight(), source.getWidth(),
+                                        0, 0, source.getHeight(), source.getWidth(), false);
+  }
+
+  /**
+   * @return the matrix of the source rotated 90 degrees counterclockwise
+   */
+  private static byte[] manualRotation(LuminanceSource source) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    byte[] matrix = source.getMatrix();
+    byte[] rotated = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        // Pixel (x, y) ends up at (y, width - 1 - x)
+        rotated[(width - 1 - x) * height + y] = matrix[y * width + x];
+      }
+    }
+    return rotated;
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.multi.GenericMultipleBarcodeReader;
+import com.google.zxing.oned.MultiFormatOneDReader;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link DecodeDeadline} and {@link DecodeHintType#DEADLINE}.
+ */
+public final class DecodeDeadlineTestCase extends Assert {
+
+  private static final String CONTENTS = "Deadline";
+
+  @Test
+  public void testExpiry() {
+    DecodeDeadline deadline = DecodeDeadline.after(1, TimeUnit.HOURS);
+    assertFalse(deadline.isExpired());
+    deadline.check();
+    deadline.cancel();
+    assertTrue(deadline.isExpired());
+    assertTrue(DecodeDeadline.after(0, TimeUnit.NANOSECONDS).isExpired());
+    assertNull(DecodeDeadline.fromHints(null));
+  }
+
+  @Test
+  public void testDecodesBeforeDeadline() throws NotFoundException {
+    Map<DecodeHintType,Object> hints = hints(DecodeDeadline.after(1, TimeUnit.HOURS));
+    assertEquals(CONTENTS, new MultiFormatReader().decode(qrCode(), hints).getText());
+  }
+
+  @Test
+  public void testMultiFormatReader() throws NotFoundException {
+    DecodeDeadline deadline = DecodeDeadline.after(1, TimeUnit.HOURS);
+    deadline.cancel();
+    try {
+      new MultiFormatReader().decode(qrCode(), hints(deadline));
+      fail("Deadline passed");
+    } catch (DeadlineExceededException dee) {
+      // continue
+    }
+  }
+
+  @Test
+  public void testReaders() throws ReaderException {
+    Map<DecodeHintType,Object> hints = hints(DecodeDeadline.after(0, TimeUnit.NANOSECONDS));
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    BinaryBitmap blank = new BinaryBitmap(new HybridBinarizer(render(new BitMatrix(60, 60))));
+    Reader[] readers = {new MultiFormatOneDReader(hints), new QRCodeReader()};
+    for (Reader reader : readers) {
+      try {
+        reader.decode(blank, hints);
+        fail("Deadline passed");
+      } catch (DeadlineExceededException dee) {
+        // continue
+      }
+    }
+    try {
+      new GenericMultipleBarcodeReader(new MultiFormatReader()).decodeMultiple(qrCode(), hints);
+      fail("Deadline passed");
+    } catch (DeadlineExceededException dee) {
+      // continue
+    }
+  }
+
+  private static Map<DecodeHintType,Object> hints(DecodeDeadline deadline) {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.DEADLINE, deadline);
+    return hints;
+  }
+
+  private static BinaryBitmap qrCode() {
+    try {
+      return new BinaryBitmap(new HybridBinarizer(render(
+          new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, 0, 0))));
+    } catch (WriterException we) {
+      throw new IllegalStateException(we);
+    }
+  }
+
+  /**
+   * @return the matrix drawn with 4 pixel modules and a white border
+   */
+  private static LuminanceSource render(BitMatrix code) {
+    int moduleSize = 4;
+    int border = 40;
+    int width = code.getWidth() * moduleSize + 2 * border;
+    int height = code.getHeight() * moduleSize + 2 * border;
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int codeX = (x - border) / moduleSize;
+        int codeY = (y - border) / moduleSize;
+        boolean black = x >= border && y >= border && codeX < code.getWidth() && codeY < code.getHeight() &&
+            code.get(codeX, codeY);
+        pixels[y * width + x] = (byte) (black ? 30 : 220);
+      }
+    }
+    return new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false);
+  }
+
+}
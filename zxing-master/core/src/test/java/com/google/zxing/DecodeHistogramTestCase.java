@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.datamatrix.DataMatrixReader;
+import com.google.zxing.datamatrix.DataMatrixWriter;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tests {@link DecodeHistogram} as a {@link DecodeListener}.
+ */
+public final class DecodeHistogramTestCase extends Assert {
+
+  private static final String CONTENTS = "Histogram";
+
+  @Test
+  public void testBuckets() {
+    assertEquals(0, DecodeHistogram.bucket(0));
+    assertEquals(1, DecodeHistogram.bucket(1));
+    assertEquals(2, DecodeHistogram.bucket(3));
+    assertEquals(11, DecodeHistogram.bucket(1024));
+    assertEquals(63, DecodeHistogram.bucket(Long.MAX_VALUE));
+
+    DecodeHistogram histogram = new DecodeHistogram();
+    histogram.stageFinished(DecodeListener.Stage.DETECTION, 1000);
+    histogram.stageFinished(DecodeListener.Stage.DETECTION, 600);
+    assertEquals(2, histogram.getCount(DecodeListener.Stage.DETECTION));
+    assertEquals(1600, histogram.getTotalNanos(DecodeListener.Stage.DETECTION));
+    assertEquals(2, histogram.getHistogram(DecodeListener.Stage.DETECTION)[10]);
+    assertEquals(0, histogram.getCount(DecodeListener.Stage.GRID_SAMPLING));
+    histogram.errorsCorrected(1000);
+    assertEquals(1, histogram.getErrorsCorrectedHistogram()[DecodeHistogram.MAX_ERRORS]);
+  }
+
+  @Test
+  public void testQRCode() throws Exception {
+    DecodeHistogram histogram = new DecodeHistogram();
+    BitMatrix code = new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, 0, 0);
+    // Two errors, in the first block of codewords
+    code.flip(20, 20);
+    code.flip(20, 14);
+    assertEquals(CONTENTS, new MultiFormatReader().decode(bitmap(code), hints(histogram)).getText());
+
+    for (DecodeListener.Stage stage : DecodeListener.Stage.values()) {
+      assertTrue(stage.toString(), histogram.getCount(stage) > 0);
+    }
+    assertEquals(1, histogram.getErrorsCorrectedHistogram()[2]);
+    assertEquals(1, histogram.getReaderAttempts(QRCodeReader.class));
+    assertEquals(1, histogram.getReaderHits(QRCodeReader.class));
+    assertTrue(histogram.getReaderNanos(QRCodeReader.class) > 0);
+    assertEquals(0, histogram.getReaderAttempts(DataMatrixReader.class));
+  }
+
+  @Test
+  public void testDataMatrix() throws Exception {
+    DecodeHistogram histogram = new DecodeHistogram();
+    BitMatrix code = new DataMatrixWriter().encode(CONTENTS, BarcodeFormat.DATA_MATRIX, 0, 0);
+    assertEquals(CONTENTS, new DataMatrixReader().decode(bitmap(code), hints(histogram)).getText());
+    assertEquals(1, histogram.getCount(DecodeListener.Stage.BINARIZATION));
+    assertEquals(1, histogram.getCount(DecodeListener.Stage.DETECTION));
+    assertEquals(1, histogram.getErrorsCorrectedHistogram()[0]);
+  }
+
+  private static Map<DecodeHintType,Object> hints(DecodeListener listener) {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.DECODE_LISTENER, listener);
+    return hints;
+  }
+
+  /**
+   * @return the matrix drawn with 4 pixel modules and a white border
+   */
+  private static BinaryBitmap bitmap(BitMatrix code) {
+    int moduleSize = 4;
+    int border = 40;
+    int width = code.getWidth() * moduleSize + 2 * border;
+    int height = code.getHeight() * moduleSize + 2 * border;
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int codeX = (x - border) / moduleSize;
+        int codeY = (y - border) / moduleSize;
+        boolean black = x >= border && y >= border && codeX < code.getWidth() && codeY < code.getHeight() &&
+            code.get(codeX, codeY);
+        pixels[y * width + x] = (byte) (black ? 30 : 220);
+      }
+    }
+    return new BinaryBitmap(new HybridBinarizer(
+        new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false)));
+  }
+
+}
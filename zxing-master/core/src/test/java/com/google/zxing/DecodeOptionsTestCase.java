@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link DecodeOptions}.
+ */
+public final class DecodeOptionsTestCase extends Assert {
+
+  @Test
+  public void testEmpty() {
+    DecodeOptions options = DecodeOptions.of(null);
+    assertTrue(options.isEmpty());
+    assertSame(options, DecodeOptions.of(new HashMap<DecodeHintType,Object>()));
+    assertFalse(options.isTryHarder());
+    assertFalse(options.isPureBarcode());
+    assertNull(options.getPossibleFormats());
+    assertNull(options.getAllowedLengths());
+    assertNull(options.getDeadline());
+    assertSame(options, options.withoutResultPointCallback());
+  }
+
+  @Test
+  public void testTypedHints() {
+    int[] lengths = {6, 8};
+    DecodeDeadline deadline = DecodeDeadline.after(1, TimeUnit.HOURS);
+    Map<DecodeHintType,Object> hints = new HashMap<>();
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, Collections.singleton(BarcodeFormat.ITF));
+    hints.put(DecodeHintType.ALLOWED_LENGTHS, lengths);
+    hints.put(DecodeHintType.CHARACTER_SET, "UTF-8");
+    hints.put(DecodeHintType.ASSUME_GS1, Boolean.TRUE);
+    hints.put(DecodeHintType.DEADLINE, deadline);
+    DecodeOptions options = DecodeOptions.of(hints);
+    assertTrue(options.isTryHarder());
+    assertEquals(Collections.singleton(BarcodeFormat.ITF), options.getPossibleFormats());
+    assertSame(lengths, options.getAllowedLengths());
+    assertEquals("UTF-8", options.getCharacterSet());
+    assertTrue(options.isAssumeGS1());
+    assertFalse(options.isAssumeCode39CheckDigit());
+    assertFalse(options.isReturnCodabarStartEnd());
+    assertSame(deadline, options.getDeadline());
+    assertSame(deadline, DecodeDeadline.fromHints(options));
+    // Works as the map it was built from, and is not changed by it
+    assertEquals(hints, options);
+    assertSame(options, DecodeOptions.of(options));
+    hints.remove(DecodeHintType.TRY_HARDER);
+    assertTrue(options.containsKey(DecodeHintType.TRY_HARDER));
+    try {
+      options.remove(DecodeHintType.TRY_HARDER);
+      fail("Options can't be changed");
+    } catch (UnsupportedOperationException uoe) {
+      // continue
+    }
+  }
+
+  @Test
+  public void testWithoutResultPointCallback() {
+    ResultPointCallback callback = new ResultPointCallback() {
+      @Override
+      public void foundPossibleResultPoint(ResultPoint point) {
+        // nothing
+      }
+    };
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, callback);
+    hints.put(DecodeHintType.PURE_BARCODE, Boolean.TRUE);
+    DecodeOptions options = DecodeOptions.of(hints);
+    assertSame(callback, options.getResultPointCallback());
+    DecodeOptions withoutCallback = options.withoutResultPointCallback();
+    assertNull(withoutCallback.getResultPointCallback());
+    assertFalse(withoutCallback.containsKey(DecodeHintType.NEED_RESULT_POINT_CALLBACK));
+    assertTrue(withoutCallback.isPureBarcode());
+    assertSame(withoutCallback, withoutCallback.withoutResultPointCallback());
+  }
+
+  @Test(expected = ClassCastException.class)
+  public void testWrongType() {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.ALLOWED_LENGTHS, "6,8");
+    DecodeOptions.of(hints);
+  }
+
+}
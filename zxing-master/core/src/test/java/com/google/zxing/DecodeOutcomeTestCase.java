@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.oned.Code128Writer;
+import com.google.zxing.oned.MultiFormatOneDReader;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+/**
+ * Tests {@link DecodeOutcome} and the {@code tryDecode} methods.
+ */
+public final class DecodeOutcomeTestCase extends Assert {
+
+  private static final String CONTENTS = "Outcome";
+
+  @Test
+  public void testMultiFormatReader() throws WriterException {
+    MultiFormatReader reader = new MultiFormatReader();
+    BinaryBitmap code = bitmap(new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, 0, 0));
+    DecodeOutcome outcome = reader.tryDecode(code, null);
+    assertTrue(outcome.isDecoded());
+    assertEquals(DecodeOutcome.Status.DECODED, outcome.getStatus());
+    assertEquals(CONTENTS, outcome.getResult().getText());
+
+    outcome = reader.tryDecodeWithState(bitmap(new BitMatrix(40)));
+    assertFalse(outcome.isDecoded());
+    assertEquals(DecodeOutcome.Status.NOT_FOUND, outcome.getStatus());
+    assertNull(outcome.getResult());
+    assertSame(DecodeOutcome.notFound(), outcome);
+  }
+
+  @Test
+  public void testOneDReader() throws WriterException {
+    MultiFormatOneDReader reader = new MultiFormatOneDReader(null);
+    BinaryBitmap code = bitmap(new Code128Writer().encode(CONTENTS, BarcodeFormat.CODE_128, 0, 20));
+    DecodeOutcome outcome = DecodeOutcome.tryDecode(reader, code, null);
+    assertEquals(BarcodeFormat.CODE_128, outcome.getResult().getBarcodeFormat());
+    assertEquals(CONTENTS, outcome.getResult().getText());
+    assertEquals(DecodeOutcome.Status.NOT_FOUND, reader.tryDecode(bitmap(new BitMatrix(40)), null).getStatus());
+  }
+
+  @Test
+  public void testOtherReaders() {
+    assertEquals(DecodeOutcome.Status.NOT_FOUND,
+                 DecodeOutcome.tryDecode(new QRCodeReader(), bitmap(new BitMatrix(40)), null).getStatus());
+    Reader failing = new Reader() {
+      @Override
+      public Result decode(BinaryBitmap image) throws ChecksumException {
+        throw ChecksumException.getChecksumInstance();
+      }
+      @Override
+      public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints) throws ChecksumException {
+        return decode(image);
+      }
+      @Override
+      public void reset() {
+        // do nothing
+      }
+    };
+    assertEquals(DecodeOutcome.Status.CHECKSUM_ERROR,
+                 DecodeOutcome.tryDecode(failing, bitmap(new BitMatrix(40)), null).getStatus());
+    assertEquals(DecodeOutcome.Status.FORMAT_ERROR,
+                 DecodeOutcome.failed(FormatException.getFormatInstance()).getStatus());
+  }
+
+  /**
+   * @return the matrix drawn with 4 pixel modules and a white border
+   */
+  private static BinaryBitmap bitmap(BitMatrix code) {
+    int moduleSize = 4;
+    int border = 40;
+    int width = code.getWidth() * moduleSize + 2 * border;
+    int height = code.getHeight() * moduleSize + 2 * border;
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int codeX = (x - border) / moduleSize;
+        int codeY = (y - border) / moduleSize;
+        boolean black = x >= border && y >= border && codeX < code.getWidth() && codeY < code.getHeight() &&
+            code.get(codeX, codeY);
+        pixels[y * width + x] = (byte) (black ? 30 : 220);
+      }
+    }
+    return new BinaryBitmap(new HybridBinarizer(
+        new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false)));
+  }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.datamatrix.DataMatrixReader;
+import com.google.zxing.datamatrix.DataMatrixWriter;
+import com.google.zxing.oned.Code128Writer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests {@link MultiFormatReader}, in particular racing readers with
+ * {@link MultiFormatReader#setExecutor(java.util.concurrent.Executor)} and ordering them with
+ * {@link ReaderStatistics}.
+ */
+public final class MultiFormatReaderTestCase extends Assert {
+
+  private static final int THREADS = 6;
+  private static final String CONTENTS = "Racing readers";
+
+  private ExecutorService executor;
+
+  @Before
+  public void createExecutor() {
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @After
+  public void shutdownExecutor() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void testConcurrentDecode() throws Exception {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(hints);
+    reader.setExecutor(executor);
+    LuminanceSource source = render(new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, 0, 0));
+    for (int i = 0; i < 3; i++) {
+      Result result = reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(source)));
+      assertEquals(CONTENTS, result.getText());
+      assertEquals(BarcodeFormat.QR_CODE, result.getBarcodeFormat());
+    }
+    // The readers that lost were cancelled, not interrupted, as the threads are the executor's
+    assertNoThreadInterrupted();
+  }
+
+  @Test
+  public void testConcurrentDecodeAlsoInverted() throws Exception {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.ALSO_INVERTED, Boolean.TRUE);
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(hints);
+    reader.setExecutor(executor);
+    LuminanceSource source = render(new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, 0, 0)).invert();
+    assertEquals(CONTENTS, reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(source))).getText());
+  }
+
+  @Test
+  public void testAlsoInvertedLeavesImageUnchanged() throws Exception {
+    final Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.ALSO_INVERTED, Boolean.TRUE);
+    LuminanceSource source = render(new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, 0, 0)).invert();
+    final BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+    BitMatrix original = bitmap.getBlackMatrix().clone();
+    assertSame(bitmap, bitmap.invert().invert());
+
+    // One bitmap and its inverse, decoded at the same time by several readers
+    List<Future<String>> texts = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      final boolean inverse = i % 2 == 0;
+      texts.add(executor.submit(new Callable<String>() {
+        @Override
+        public String call() throws NotFoundException {
+          MultiFormatReader reader = new MultiFormatReader();
+          return inverse ? reader.decode(bitmap.invert()).getText() : reader.decode(bitmap, hints).getText();
+        }
+      }));
+    }
+    for (Future<String> text : texts) {
+      assertEquals(CONTENTS, text.get());
+    }
+    assertEquals(original, bitmap.getBlackMatrix());
+    original.flip();
+    assertEquals(original, bitmap.invert().getBlackMatrix());
+  }
+
+  @Test
+  public void testConcurrentDecodeNotFound() throws Exception {
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(null);
+    reader.setExecutor(executor);
+    BitMatrix blank = new BitMatrix(30, 30);
+    blank.setRegion(5, 5, 10, 10);
+    assertNotFound(reader, new BinaryBitmap(new HybridBinarizer(render(blank))));
+    // Can't be binarized as a whole, so readers are tried one by one
+    byte[] uniform = new byte[100 * 100];
+    assertNotFound(reader, new BinaryBitmap(new GlobalHistogramBinarizer(
+        new PlanarYUVLuminanceSource(uniform, 100, 100, 0, 0, 100, 100, false))));
+    assertNoThreadInterrupted();
+  }
+
+  @Test
+  public void testSerialDecodeOnInterruptedThread() throws Exception {
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(null);
+    LuminanceSource qrCode = render(new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, 0, 0));
+    LuminanceSource code128 = render(new Code128Writer().encode(CONTENTS, BarcodeFormat.CODE_128, 0, 0));
+    // Without an executor, an interrupt pending on the calling thread is none of the readers' business
+    Thread.currentThread().interrupt();
+    try {
+      assertEquals(CONTENTS, reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(qrCode))).getText());
+      Result result = reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(code128)));
+      assertEquals(CONTENTS, result.getText());
+      assertEquals(BarcodeFormat.CODE_128, result.getBarcodeFormat());
+      assertTrue(Thread.currentThread().isInterrupted());
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  @Test
+  public void testLearnedOrder() throws Exception {
+    ReaderStatistics statistics = new ReaderStatistics();
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(null);
+    reader.setReaderStatistics(statistics);
+    LuminanceSource source = render(new DataMatrixWriter().encode(CONTENTS, BarcodeFormat.DATA_MATRIX, 0, 0));
+    assertEquals(CONTENTS, reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(source))).getText());
+    // QR Code was tried first, and failed
+    assertEquals(0.0, statistics.getHitRate(QRCodeReader.class), 0.0);
+    assertEquals(1.0, statistics.getHitRate(DataMatrixReader.class), 0.0);
+    double qrCodeNanos = statistics.getMeanNanos(QRCodeReader.class);
+
+    // Now Data Matrix is tried first
+    assertEquals(CONTENTS, reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(source))).getText());
+    assertEquals(qrCodeNanos, statistics.getMeanNanos(QRCodeReader.class), 0.0);
+    assertEquals(1.0, statistics.getHitRate(DataMatrixReader.class), 0.0);
+  }
+
+  private static void assertNotFound(MultiFormatReader reader, BinaryBitmap bitmap) {
+    try {
+      reader.decodeWithState(bitmap);
+      fail("Should not decode");
+    } catch (NotFoundException nfe) {
+      // continue
+    }
+  }
+
+  /**
+   * Checks every thread of the executor at once, by making each wait for the rest.
+   */
+  private void assertNoThreadInterrupted() throws Exception {
+    final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+    Collection<Callable<Boolean>> checks = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      checks.add(new Callable<Boolean>() {
+        @Override
+        public Boolean call() throws Exception {
+          boolean interrupted = Thread.currentThread().isInterrupted();
+          barrier.await();
+          return interrupted;
+        }
+      });
+    }
+    List<Future<Boolean>> results = executor.invokeAll(checks);
+    for (Future<Boolean> result : results) {
+      assertFalse(result.get());
+    }
+  }
+
+  /**
+   * @return the code drawn with 4 pixel modules and a white border
+   */
+  private static LuminanceSource render(BitMatrix code) {
+    int moduleSize = 4;
+    int border = 40;
+    int width = code.getWidth() * moduleSize + 2 * border;
+    int height = code.getHeight() * moduleSize + 2 * border;
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int codeX = (x - border) / moduleSize;
+        int codeY = (y - border) / moduleSize;
+        boolean black = x >= border && y >= border && codeX < code.getWidth() && codeY < code.getHeight() &&
+            code.get(codeX, codeY);
+        pixels[y * width + x] = (byte) (black ? 30 : 220);
+      }
+    }
+    return new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false);
+  }
+
+}
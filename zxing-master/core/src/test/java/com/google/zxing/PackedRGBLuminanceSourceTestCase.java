@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link PackedRGBLuminanceSource}.
+ */
+public final class PackedRGBLuminanceSourceTestCase extends Assert {
+
+  private static final int COLS = 3;
+  private static final int ROWS = 2;
+  // Red, green, blue; white, black, grey
+  private static final int[][] RGB = {
+      {0xFF, 0, 0}, {0, 0xFF, 0}, {0, 0, 0xFF},
+      {0xFF, 0xFF, 0xFF}, {0, 0, 0}, {0x80, 0x80, 0x80},
+  };
+  private static final byte[] EXPECTED = {
+      77, (byte) 149, 29,
+      (byte) 0xFF, 0, (byte) 0x80,
+  };
+
+  @Test
+  public void testLayouts() {
+    for (PackedRGBLuminanceSource.Layout layout : PackedRGBLuminanceSource.Layout.values()) {
+      LuminanceSource source = new PackedRGBLuminanceSource(pack(layout, 0), COLS, ROWS, layout);
+      assertArrayEquals(layout.toString(), EXPECTED, source.getMatrix());
+    }
+  }
+
+  @Test
+  public void testRowsBeforeAndAfterMatrix() {
+    LuminanceSource source =
+        new PackedRGBLuminanceSource(pack(PackedRGBLuminanceSource.Layout.BGR, 0), COLS, ROWS,
+                                     PackedRGBLuminanceSource.Layout.BGR);
+    assertArrayEquals(new byte[] {77, (byte) 149, 29}, source.getRow(0, null));
+    source.getMatrix();
+    assertArrayEquals(new byte[] {(byte) 0xFF, 0, (byte) 0x80}, source.getRow(1, null));
+  }
+
+  @Test
+  public void testCropWithRowStride() {
+    PackedRGBLuminanceSource.Layout layout = PackedRGBLuminanceSource.Layout.RGBA;
+    int rowStride = COLS * 4 + 5;
+    LuminanceSource source =
+        new PackedRGBLuminanceSource(pack(layout, 5), COLS, ROWS, rowStride, layout, 1, 0, 2, 2);
+    assertArrayEquals(new byte[] {(byte) 149, 29, 0, (byte) 0x80}, source.getMatrix());
+    LuminanceSource cropped = source.crop(1, 1, 1, 1);
+    assertArrayEquals(new byte[] {(byte) 0x80}, cropped.getRow(0, null));
+    assertArrayEquals(new byte[] {(byte) 0x80}, cropped.getMatrix());
+  }
+
+  @Test
+  public void testSameAsRGBLuminanceSourceOnGreys() {
+    int[] argb = new int[256];
+    byte[] rgb = new byte[256 * 3];
+    for (int i = 0; i < 256; i++) {
+      argb[i] = 0xFF000000 | (i * 0x010101);
+      rgb[3 * i] = (byte) i;
+      rgb[3 * i + 1] = (byte) i;
+      rgb[3 * i + 2] = (byte) i;
+    }
+    assertArrayEquals(new RGBLuminanceSource(16, 16, argb).getMatrix(),
+                      new PackedRGBLuminanceSource(rgb, 16, 16, PackedRGBLuminanceSource.Layout.RGB).getMatrix());
+  }
+
+  /**
+   * @return RGB pixels in the given layout, with an alpha of 0x42 and padding at the end of each row
+   */
+  private static byte[] pack(PackedRGBLuminanceSource.Layout layout, int padding) {
+    int bytesPerPixel = layout.getBytesPerPixel();
+    int rowStride = COLS * bytesPerPixel + padding;
+    byte[] packed = new byte[ROWS * rowStride];
+    boolean bgr = layout == PackedRGBLuminanceSource.Layout.BGR || layout == PackedRGBLuminanceSource.Layout.BGRA;
+    for (int y = 0; y < ROWS; y++) {
+      for (int x = 0; x < COLS; x++) {
+        int[] color = RGB[y * COLS + x];
+        int index = y * rowStride + x * bytesPerPixel;
+        packed[index] = (byte) (bgr ? color[2] : color[0]);
+        packed[index + 1] = (byte) color[1];
+        packed[index + 2] = (byte) (bgr ? color[0] : color[2]);
+        if (bytesPerPixel == 4) {
+          packed[index + 3] = 0x42;
+        }
+      }
+    }
+    return packed;
+  }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.aztec.AztecReader;
+import com.google.zxing.aztec.AztecWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DetectorResult;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.datamatrix.DataMatrixReader;
+import com.google.zxing.datamatrix.DataMatrixWriter;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link PyramidLuminanceSource} and coarse-to-fine detection with it.
+ */
+public final class PyramidLuminanceSourceTestCase extends Assert {
+
+  private static final String CONTENTS = "Coarse to fine detection";
+
+  @Test
+  public void testLevels() {
+    int width = 1030;
+    int height = 555;
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        pixels[y * width + x] = (byte) (x + y);
+      }
+    }
+    PyramidLuminanceSource source =
+        new PyramidLuminanceSource(new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false));
+    // 1/4 of the height would be too small
+    assertEquals(2, source.getLevelCount());
+    assertSame(pixels, source.getMatrix());
+    LuminanceSource half = source.getLevel(1);
+    assertSame(half, source.getLevel(1));
+    assertEquals(515, half.getWidth());
+    assertEquals(277, half.getHeight());
+    byte[] row = half.getRow(10, null);
+    for (int x = 0; x < 100; x++) {
+      // Average of (2x + 20), (2x + 21), (2x + 21), (2x + 22)
+      assertEquals((byte) (2 * x + 21), row[x]);
+    }
+  }
+
+  @Test
+  public void testQRCode() throws Exception {
+    BitMatrix code = new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, 0, 0);
+    BinaryBitmap bitmap = render(code);
+    assertEquals(2, bitmap.getCoarsestLevel());
+    DetectorResult result = new com.google.zxing.qrcode.detector.Detector(bitmap.getBlackMatrix())
+        .detect(bitmap.getBlackMatrix(2), 4, null);
+    assertEquals(code.getWidth() - 8, result.getBits().getWidth());
+    assertEquals(CONTENTS, new QRCodeReader().decode(bitmap).getText());
+  }
+
+  @Test
+  public void testDataMatrix() throws Exception {
+    BitMatrix code = new DataMatrixWriter().encode(CONTENTS, BarcodeFormat.DATA_MATRIX, 0, 0);
+    BinaryBitmap bitmap = render(code);
+    DetectorResult result = new com.google.zxing.datamatrix.detector.Detector(
+        bitmap.getBlackMatrix(), bitmap.getBlackMatrix(2), 4).detect();
+    assertEquals(code.getWidth(), result.getBits().getWidth());
+    assertEquals(CONTENTS, new DataMatrixReader().decode(bitmap).getText());
+  }
+
+  @Test
+  public void testAztec() throws Exception {
+    BitMatrix code = new AztecWriter().encode(CONTENTS, BarcodeFormat.AZTEC, 0, 0);
+    BinaryBitmap bitmap = render(code);
+    DetectorResult result = new com.google.zxing.aztec.detector.Detector(
+        bitmap.getBlackMatrix(), bitmap.getBlackMatrix(2), 4).detect();
+    assertEquals(code.getWidth(), result.getBits().getWidth());
+    assertEquals(CONTENTS, new AztecReader().decode(bitmap).getText());
+  }
+
+  /**
+   * @return the code drawn large, with a white border, on a pyramid source
+   */
+  private static BinaryBitmap render(BitMatrix code) {
+    int moduleSize = 48;
+    int border = 300;
+    int width = code.getWidth() * moduleSize + 2 * border;
+    int height = code.getHeight() * moduleSize + 2 * border;
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int codeX = (x - border) / moduleSize;
+        int codeY = (y - border) / moduleSize;
+        boolean black = x >= border && y >= border && codeX < code.getWidth() && codeY < code.getHeight() &&
+            code.get(codeX, codeY);
+        pixels[y * width + x] = (byte) (black ? 30 : 220);
+      }
+    }
+    LuminanceSource source = new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false);
+    return new BinaryBitmap(new HybridBinarizer(new PyramidLuminanceSource(source)));
+  }
+
+}
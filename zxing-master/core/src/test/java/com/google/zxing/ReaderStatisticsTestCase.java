@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.aztec.AztecReader;
+import com.google.zxing.datamatrix.DataMatrixReader;
+import com.google.zxing.maxicode.MaxiCodeReader;
+import com.google.zxing.oned.MultiFormatOneDReader;
+import com.google.zxing.pdf417.PDF417Reader;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link ReaderStatistics}.
+ */
+public final class ReaderStatisticsTestCase extends Assert {
+
+  @Test
+  public void testAverages() {
+    ReaderStatistics statistics = new ReaderStatistics(0.5);
+    Reader reader = new QRCodeReader();
+    assertTrue(Double.isNaN(statistics.getHitRate(QRCodeReader.class)));
+    statistics.record(reader, true, 1000L);
+    assertEquals(1.0, statistics.getHitRate(QRCodeReader.class), 0.0);
+    assertEquals(1000.0, statistics.getMeanNanos(QRCodeReader.class), 0.0);
+    statistics.record(reader, false, 3000L);
+    assertEquals(0.5, statistics.getHitRate(QRCodeReader.class), 0.0);
+    assertEquals(2000.0, statistics.getMeanNanos(QRCodeReader.class), 0.0);
+    statistics.record(reader, false, 2000L);
+    assertEquals(0.25, statistics.getHitRate(QRCodeReader.class), 0.0);
+    assertEquals(2000.0, statistics.getMeanNanos(QRCodeReader.class), 0.0);
+    assertTrue(Double.isNaN(statistics.getHitRate(AztecReader.class)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadWeight() {
+    new ReaderStatistics(0.0);
+  }
+
+  @Test
+  public void testOrder() {
+    Reader oneD = new MultiFormatOneDReader(null);
+    Reader qrCode = new QRCodeReader();
+    Reader dataMatrix = new DataMatrixReader();
+    Reader aztec = new AztecReader();
+    Reader pdf417 = new PDF417Reader();
+    Reader maxiCode = new MaxiCodeReader();
+    ReaderStatistics statistics = new ReaderStatistics(1.0);
+    // Hit rate per nanosecond of 0, 0.001, 0.002 and 0.001; the others haven't been tried
+    statistics.record(oneD, false, 1000L);
+    statistics.record(qrCode, true, 1000L);
+    statistics.record(aztec, true, 500L);
+    statistics.record(maxiCode, true, 1000L);
+    Reader[] readers = {oneD, qrCode, dataMatrix, aztec, pdf417, maxiCode};
+    statistics.order(readers);
+    assertArrayEquals(new Reader[] {aztec, qrCode, dataMatrix, maxiCode, pdf417, oneD}, readers);
+  }
+
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    final ReaderStatistics statistics = new ReaderStatistics(0.01);
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          Reader reader = new DataMatrixReader();
+          for (int i = 0; i < 10000; i++) {
+            statistics.record(reader, true, 100L);
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(1.0, statistics.getHitRate(DataMatrixReader.class), 0.0);
+    assertEquals(100.0, statistics.getMeanNanos(DataMatrixReader.class), 0.0);
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link RotatedLuminanceSource}.
+ */
+public final class RotatedLuminanceSourceTestCase extends Assert {
+
+  private static final int COLS = 5;
+  private static final int ROWS = 3;
+  private static final byte[] DATA = new byte[COLS * ROWS];
+  static {
+    for (int i = 0; i < DATA.length; i++) {
+      DATA[i] = (byte) i;
+    }
+  }
+
+  @Test
+  public void testRotations() {
+    LuminanceSource original = new PlanarYUVLuminanceSource(DATA, COLS, ROWS, 0, 0, COLS, ROWS, false);
+    LuminanceSource expected = original;
+    LuminanceSource source = new RotatedLuminanceSource(original);
+    for (int turns = 1; turns < 4; turns++) {
+      expected = rotate(expected);
+      assertSameLuminances(expected, source);
+      source = source.rotateCounterClockwise();
+    }
+    assertSame(original, source);
+  }
+
+  @Test
+  public void testCrop() {
+    LuminanceSource original = new PlanarYUVLuminanceSource(DATA, COLS, ROWS, 0, 0, COLS, ROWS, false);
+    LuminanceSource expected = original;
+    LuminanceSource source = original;
+    for (int turns = 1; turns < 4; turns++) {
+      expected = rotate(expected);
+      source = source == original ? new RotatedLuminanceSource(original) : source.rotateCounterClockwise();
+      assertTrue(source.isCropSupported());
+      int width = source.getWidth();
+      int height = source.getHeight();
+      assertSameLuminances(expected.crop(1, 0, width - 2, height - 1), source.crop(1, 0, width - 2, height - 1));
+      assertSameLuminances(expected.crop(0, 1, 2, 2), source.crop(0, 1, 2, 2));
+    }
+  }
+
+  @Test
+  public void testRotateBinaryBitmapReusesMatrix() throws NotFoundException {
+    int width = 64;
+    int height = 48;
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        pixels[y * width + x] = (byte) (((x / 5) + (y / 3)) % 2 == 0 ? 20 : 230);
+      }
+    }
+    // Upside down
+    LuminanceSource source = new RotatedLuminanceSource(
+        new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false)).rotateCounterClockwise();
+    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+    BitMatrix matrix = bitmap.getBlackMatrix();
+    // Mark the matrix, to show the rotated one is derived from it rather than binarized again
+    matrix.flip(3, 2);
+    BitMatrix expected = matrix.clone();
+    expected.rotate90();
+
+    BitMatrix rotated = bitmap.rotateCounterClockwise().getBlackMatrix();
+    assertEquals(expected, rotated);
+    // The original is left alone
+    assertSame(matrix, bitmap.getBlackMatrix());
+    assertEquals(height, matrix.getHeight());
+  }
+
+  private static void assertSameLuminances(LuminanceSource expected, LuminanceSource actual) {
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertArrayEquals(expected.getMatrix(), actual.getMatrix());
+    for (int y = 0; y < expected.getHeight(); y++) {
+      assertArrayEquals(expected.getRow(y, null), actual.getRow(y, null));
+    }
+  }
+
+  /**
+   * @return a copy of the source rotated 90 degrees counterclockwise
+   */
+  private static LuminanceSource rotate(LuminanceSource source) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    byte[] matrix = source.getMatrix();
+    byte[] rotated = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        // Pixel (x, y) ends up at (y, width - 1 - x)
+        rotated[(width - 1 - x) * height + y] = matrix[y * width + x];
+      }
+    }
+    return new PlanarYUVLuminanceSource(rotated, height, width, 0, 0, height, width, false);
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Tests {@link StridedPlanarYUVLuminanceSource}.
+ */
+public final class StridedPlanarYUVLuminanceSourceTestCase extends Assert {
+
+  private static final int COLS = 6;
+  private static final int ROWS = 4;
+  private static final byte[] Y = {
+      0,  1,  1,  2,  3,  5,
+      8, 13, 21, 34, 55, 89,
+      0,  -1,  -1,  -2,  -3,  -5,
+      -8, -13, -21, -34, -55, -89,
+  };
+  // The same pixels with 3 bytes of padding after each row but the last
+  private static final int ROW_STRIDE = COLS + 3;
+  private static final byte[] PADDED = pad(Y, 1, ROW_STRIDE);
+  // The same pixels interleaved with chroma, as in YUYV, plus padding
+  private static final int INTERLEAVED_ROW_STRIDE = 2 * COLS + 4;
+  private static final byte[] INTERLEAVED = pad(Y, 2, INTERLEAVED_ROW_STRIDE);
+
+  @Test
+  public void testNoCrop() {
+    assertSameAsPlanar(new StridedPlanarYUVLuminanceSource(PADDED, COLS, ROWS, ROW_STRIDE, 0, 0, COLS, ROWS, false),
+                       0, 0, COLS, ROWS, false);
+    assertSameAsPlanar(new StridedPlanarYUVLuminanceSource(INTERLEAVED, COLS, ROWS, INTERLEAVED_ROW_STRIDE, 2,
+                                                           0, 0, COLS, ROWS, false),
+                       0, 0, COLS, ROWS, false);
+  }
+
+  @Test
+  public void testUnpaddedMatrixIsNotCopied() {
+    StridedPlanarYUVLuminanceSource source =
+        new StridedPlanarYUVLuminanceSource(Y, COLS, ROWS, COLS, 0, 0, COLS, ROWS, false);
+    assertSame(Y, source.getMatrix());
+  }
+
+  @Test
+  public void testCrop() {
+    LuminanceSource source =
+        new StridedPlanarYUVLuminanceSource(PADDED, COLS, ROWS, ROW_STRIDE, 1, 1, COLS - 2, ROWS - 2, false);
+    assertTrue(source.isCropSupported());
+    assertSameAsPlanar(source, 1, 1, COLS - 2, ROWS - 2, false);
+    assertSameAsPlanar(source.crop(1, 0, 2, 2), 2, 1, 2, 2, false);
+  }
+
+  @Test
+  public void testReverseHorizontal() {
+    LuminanceSource source =
+        new StridedPlanarYUVLuminanceSource(PADDED, COLS, ROWS, ROW_STRIDE, 1, 1, COLS - 2, ROWS - 1, true);
+    assertSameAsPlanar(source, 1, 1, COLS - 2, ROWS - 1, true);
+    // The data itself is untouched
+    assertArrayEquals(pad(Y, 1, ROW_STRIDE), PADDED);
+    // Cropping the left of the reversed view takes from the right of the data
+    byte[] row = source.crop(0, 0, 2, 1).getRow(0, null);
+    assertArrayEquals(new byte[] {55, 34}, row);
+  }
+
+  @Test
+  public void testThumbnail() {
+    StridedPlanarYUVLuminanceSource source =
+        new StridedPlanarYUVLuminanceSource(INTERLEAVED, COLS, ROWS, INTERLEAVED_ROW_STRIDE, 2,
+                                            0, 0, COLS, ROWS, false);
+    assertEquals(3, source.getThumbnailWidth());
+    assertEquals(2, source.getThumbnailHeight());
+    assertArrayEquals(
+        new int[] { 0xFF000000, 0xFF010101, 0xFF030303, 0xFF000000, 0xFFFFFFFF, 0xFFFDFDFD },
+        source.renderThumbnail());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStrideTooSmall() {
+    new StridedPlanarYUVLuminanceSource(Y, COLS, ROWS, COLS - 1, 0, 0, COLS, ROWS, false);
+  }
+
+  private static void assertSameAsPlanar(LuminanceSource source,
+                                         int left, int top, int width, int height,
+                                         boolean reverseHorizontal) {
+    PlanarYUVLuminanceSource expected =
+        new PlanarYUVLuminanceSource(Y.clone(), COLS, ROWS, left, top, width, height, reverseHorizontal);
+    assertEquals(width, source.getWidth());
+    assertEquals(height, source.getHeight());
+    byte[] expectedMatrix = expected.getMatrix();
+    byte[] matrix = source.getMatrix();
+    for (int i = 0; i < width * height; i++) {
+      assertEquals(expectedMatrix[i], matrix[i]);
+    }
+    for (int y = 0; y < height; y++) {
+      assertArrayEquals(expected.getRow(y, null), source.getRow(y, null));
+    }
+  }
+
+  private static byte[] pad(byte[] pixels, int pixelStride, int rowStride) {
+    byte[] padded = new byte[(ROWS - 1) * rowStride + (COLS - 1) * pixelStride + 1];
+    // Fill padding and chroma with a recognizable value, so that reading it would show up
+    Arrays.fill(padded, (byte) 0x7F);
+    for (int y = 0; y < ROWS; y++) {
+      for (int x = 0; x < COLS; x++) {
+        padded[y * rowStride + x * pixelStride] = pixels[y * COLS + x];
+      }
+    }
+    return padded;
+  }
+
+}
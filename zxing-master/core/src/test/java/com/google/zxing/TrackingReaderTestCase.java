@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.datamatrix.DataMatrixReader;
+import com.google.zxing.datamatrix.DataMatrixWriter;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tests {@link TrackingReader} on frames of a barcode moving across the image.
+ */
+public final class TrackingReaderTestCase extends Assert {
+
+  private static final int SIZE = 400;
+  private static final int MODULE_SIZE = 4;
+  private static final String CONTENTS = "Tracked";
+
+  @Test
+  public void testTrackQRCode() throws Exception {
+    BitMatrix code = new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, 0, 0);
+    assertTracked(code, BarcodeFormat.QR_CODE, QRCodeReader.class, 60, 80);
+  }
+
+  @Test
+  public void testTrackDataMatrix() throws Exception {
+    BitMatrix code = new DataMatrixWriter().encode(CONTENTS, BarcodeFormat.DATA_MATRIX, 0, 0);
+    // Found from scratch only over the middle of the frame, but tracked away from it
+    assertTracked(code, BarcodeFormat.DATA_MATRIX, DataMatrixReader.class, 170, 170);
+  }
+
+  private static void assertTracked(BitMatrix code,
+                                    BarcodeFormat format,
+                                    Class<? extends Reader> readerClass,
+                                    int left,
+                                    int top) throws NotFoundException {
+    DecodeHistogram histogram = new DecodeHistogram();
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.DECODE_LISTENER, histogram);
+    TrackingReader reader = new TrackingReader();
+    reader.setHints(hints);
+    assertFalse(reader.isTracking());
+
+    // Moving 6 pixels right and 3 down each frame
+    for (int frame = 0; frame < 8; frame++) {
+      Result result = reader.decode(frame(code, left + 6 * frame, top + 3 * frame));
+      assertEquals(CONTENTS, result.getText());
+      assertEquals(format, result.getBarcodeFormat());
+      assertTrue(reader.isTracking());
+    }
+    // Only the first frame was decoded from scratch
+    assertEquals(1, histogram.getReaderAttempts(readerClass));
+
+    // Lost, then found again where it started
+    try {
+      reader.decode(frame(new BitMatrix(1), 0, 0));
+      fail("Should not decode");
+    } catch (NotFoundException nfe) {
+      // continue
+    }
+    assertFalse(reader.isTracking());
+    assertEquals(CONTENTS, reader.decode(frame(code, left, top)).getText());
+    assertTrue(reader.isTracking());
+    assertEquals(2, histogram.getReaderHits(readerClass));
+    reader.reset();
+    assertFalse(reader.isTracking());
+  }
+
+  private static BinaryBitmap frame(BitMatrix code, int left, int top) {
+    byte[] pixels = new byte[SIZE * SIZE];
+    for (int y = 0; y < SIZE; y++) {
+      for (int x = 0; x < SIZE; x++) {
+        int codeX = (x - left) / MODULE_SIZE;
+        int codeY = (y - top) / MODULE_SIZE;
+        boolean black = x >= left && y >= top && codeX < code.getWidth() && codeY < code.getHeight() &&
+            code.get(codeX, codeY);
+        pixels[y * SIZE + x] = (byte) (black ? 30 : 220);
+      }
+    }
+    return new BinaryBitmap(new HybridBinarizer(
+        new PlanarYUVLuminanceSource(pixels, SIZE, SIZE, 0, 0, SIZE, SIZE, false)));
+  }
+
+}
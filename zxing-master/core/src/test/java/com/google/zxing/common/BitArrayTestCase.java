@@ -36,6 +36,20 @@ public final class BitArrayTestCase extends Assert {
     }
   }
 
+  @Test
+  public void testFlipAll() {
+    BitArray array = new BitArray(33);
+    array.set(1);
+    array.flip();
+    assertFalse(array.get(1));
+    for (int i = 2; i < 33; i++) {
+      assertTrue(array.get(i));
+    }
+    // Bits past the size stay clear
+    assertEquals(1, array.getBitArray()[1]);
+    assertEquals(33, array.getNextUnset(2));
+  }
+
   @Test
   public void testGetNextSet1() {
     BitArray array = new BitArray(32);
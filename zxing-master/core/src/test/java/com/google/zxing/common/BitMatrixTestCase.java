@@ -159,6 +159,21 @@ public final class BitMatrixTestCase extends Assert {
     }
   }
 
+  @Test
+  public void testSetRowBits() {
+    BitMatrix matrix = new BitMatrix(70, 3);
+    matrix.set(1, 1);
+    matrix.set(69, 1);
+    // Bits 0, 33 and 64 of the row; the extra word is ignored
+    matrix.setRowBits(1, new int[] {1, 2, 1, -1});
+    for (int y = 0; y < 3; y++) {
+      for (int x = 0; x < 70; x++) {
+        boolean on = y == 1 && (x == 0 || x == 1 || x == 33 || x == 64 || x == 69);
+        assertEquals(on, matrix.get(x, y));
+      }
+    }
+  }
+
   @Test
   public void testRotate90Simple() {
     BitMatrix matrix = new BitMatrix(3, 3);
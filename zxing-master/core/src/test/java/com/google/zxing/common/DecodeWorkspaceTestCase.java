@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.BufferedImageLuminanceSource;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Result;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tests {@link DecodeWorkspace}.
+ */
+public final class DecodeWorkspaceTestCase extends Assert {
+
+  @Test
+  public void testHybridBinarizerReusesBuffers() throws NotFoundException {
+    DecodeWorkspace workspace = new DecodeWorkspace();
+    LuminanceSource first = gradientSource(100, 80, 0);
+    LuminanceSource second = gradientSource(100, 80, 37);
+
+    BitMatrix firstMatrix = new HybridBinarizer(first, workspace).getBlackMatrix();
+    assertEquals(new HybridBinarizer(first).getBlackMatrix(), firstMatrix);
+    BitMatrix secondMatrix = new HybridBinarizer(second, workspace).getBlackMatrix();
+    assertSame(firstMatrix, secondMatrix);
+    assertEquals(new HybridBinarizer(second).getBlackMatrix(), secondMatrix);
+
+    BitMatrix resized = new HybridBinarizer(gradientSource(64, 64, 0), workspace).getBlackMatrix();
+    assertNotSame(secondMatrix, resized);
+    assertEquals(64, resized.getWidth());
+  }
+
+  @Test
+  public void testGlobalHistogramBinarizerReusesBuffers() throws NotFoundException {
+    DecodeWorkspace workspace = new DecodeWorkspace();
+    LuminanceSource first = gradientSource(100, 80, 0);
+    LuminanceSource second = gradientSource(100, 80, 11);
+
+    BitMatrix firstMatrix = new GlobalHistogramBinarizer(first, workspace).getBlackMatrix();
+    assertEquals(new GlobalHistogramBinarizer(first).getBlackMatrix(), firstMatrix);
+    BitMatrix secondMatrix = new GlobalHistogramBinarizer(second, workspace).getBlackMatrix();
+    assertSame(firstMatrix, secondMatrix);
+    assertEquals(new GlobalHistogramBinarizer(second).getBlackMatrix(), secondMatrix);
+
+    for (int y = 0; y < second.getHeight(); y++) {
+      assertEquals(new GlobalHistogramBinarizer(second).getBlackRow(y, null),
+                   new GlobalHistogramBinarizer(second, workspace).getBlackRow(y, null));
+    }
+  }
+
+  @Test
+  public void testBucketsOfExactLength() throws NotFoundException {
+    DecodeWorkspace workspace = new DecodeWorkspace();
+    assertEquals(64, workspace.getBuckets(64).length);
+    assertEquals(32, workspace.getBuckets(32).length);
+    // Even after a longer request, the binarizer counts only its own buckets
+    workspace.getBuckets(64);
+    LuminanceSource source = gradientSource(100, 80, 0);
+    assertEquals(new GlobalHistogramBinarizer(source).getBlackMatrix(),
+                 new GlobalHistogramBinarizer(source, workspace).getBlackMatrix());
+  }
+
+  @Test
+  public void testDerivedBinarizerDoesNotShareWorkspace() {
+    DecodeWorkspace workspace = new DecodeWorkspace();
+    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(gradientSource(100, 80, 0), workspace));
+    assertSame(workspace, bitmap.getWorkspace());
+    assertNull(bitmap.crop(0, 0, 50, 50).getWorkspace());
+  }
+
+  @Test
+  public void testDecodeWithWorkspace() throws IOException {
+    assertSameResults("src/test/resources/blackbox/qrcode-1");
+    assertSameResults("src/test/resources/blackbox/ean13-1");
+  }
+
+  private static void assertSameResults(String path) throws IOException {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(hints);
+    DecodeWorkspace workspace = new DecodeWorkspace();
+    Path testBase = AbstractBlackBoxTestCase.buildTestBase(path);
+    try (DirectoryStream<Path> paths = Files.newDirectoryStream(testBase, "*.{jpg,png}")) {
+      for (Path imagePath : paths) {
+        LuminanceSource source = new BufferedImageLuminanceSource(ImageIO.read(imagePath.toFile()));
+        String expected = decodeText(reader, new BinaryBitmap(new HybridBinarizer(source)));
+        String actual = decodeText(reader, new BinaryBitmap(new HybridBinarizer(source, workspace)));
+        assertEquals(imagePath.toString(), expected, actual);
+      }
+    }
+  }
+
+  private static String decodeText(MultiFormatReader reader, BinaryBitmap bitmap) {
+    try {
+      Result result = reader.decodeWithState(bitmap);
+      return result.getText();
+    } catch (NotFoundException nfe) {
+      return null;
+    }
+  }
+
+  private static LuminanceSource gradientSource(int width, int height, int phase) {
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        boolean dark = (((x + phase) / 6) + (y / 9)) % 3 == 0;
+        pixels[y * width + x] = (byte) (dark ? 30 + x / 4 : 220 - y / 4);
+      }
+    }
+    return new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false);
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link GlobalHistogramBinarizer}.
+ */
+public final class GlobalHistogramBinarizerTestCase extends Assert {
+
+  @Test
+  public void testBlackRowIsCached() throws NotFoundException {
+    int width = 100;
+    int height = 4;
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        pixels[y * width + x] = (byte) ((x / (y + 3)) % 2 == 0 ? 30 : 220);
+      }
+    }
+    CountingLuminanceSource source =
+        new CountingLuminanceSource(new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false));
+    GlobalHistogramBinarizer binarizer = new GlobalHistogramBinarizer(source);
+
+    BitArray row = binarizer.getBlackRow(2, null);
+    BitArray expected = row.clone();
+    assertEquals(1, source.rowsRead);
+    // Readers reverse the rows they are given; that mustn't affect the cached copy
+    row.reverse();
+    BitArray again = binarizer.getBlackRow(2, new BitArray(width + 40));
+    assertEquals(1, source.rowsRead);
+    assertEquals(width + 40, again.getSize());
+    for (int x = 0; x < width + 40; x++) {
+      assertEquals(x < width && expected.get(x), again.get(x));
+    }
+
+    assertEquals(new GlobalHistogramBinarizer(source).getBlackRow(1, null), binarizer.getBlackRow(1, row));
+    assertEquals(3, source.rowsRead);
+  }
+
+  @Test
+  public void testNotFoundRowIsCached() {
+    int width = 50;
+    byte[] pixels = new byte[width * 2];
+    CountingLuminanceSource source =
+        new CountingLuminanceSource(new PlanarYUVLuminanceSource(pixels, width, 2, 0, 0, width, 2, false));
+    GlobalHistogramBinarizer binarizer = new GlobalHistogramBinarizer(source);
+    for (int i = 0; i < 2; i++) {
+      try {
+        binarizer.getBlackRow(0, null);
+        fail("Uniform row should not binarize");
+      } catch (NotFoundException nfe) {
+        // continue
+      }
+    }
+    assertEquals(1, source.rowsRead);
+  }
+
+  private static final class CountingLuminanceSource extends LuminanceSource {
+
+    private final LuminanceSource delegate;
+    private int rowsRead;
+
+    CountingLuminanceSource(LuminanceSource delegate) {
+      super(delegate.getWidth(), delegate.getHeight());
+      this.delegate = delegate;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+      rowsRead++;
+      return delegate.getRow(y, row);
+    }
+
+    @Override
+    public byte[] getMatrix() {
+      return delegate.getMatrix();
+    }
+
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.BufferedImageLuminanceSource;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests {@link HybridBinarizer}.
+ */
+public final class HybridBinarizerTestCase extends Assert {
+
+  private static ForkJoinPool pool;
+
+  @BeforeClass
+  public static void createPool() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterClass
+  public static void shutdownPool() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void testParallelMatchesSerialOnSyntheticImages() throws NotFoundException {
+    Random random = new Random(0xDEADBEEFL);
+    // Include sizes that aren't a multiple of the block size, so that the last row and column
+    // of blocks overlap their neighbors
+    int[][] sizes = {{40, 40}, {41, 43}, {640, 480}, {1001, 757}, {333, 1999}};
+    for (int[] size : sizes) {
+      LuminanceSource source = syntheticSource(size[0], size[1], random);
+      assertParallelMatchesSerial(source);
+    }
+  }
+
+  @Test
+  public void testParallelMatchesSerialOnBlackBoxImages() throws IOException, NotFoundException {
+    Path testBase = AbstractBlackBoxTestCase.buildTestBase("src/test/resources/blackbox/qrcode-2");
+    try (DirectoryStream<Path> paths = Files.newDirectoryStream(testBase, "*.{jpg,png}")) {
+      for (Path path : paths) {
+        assertParallelMatchesSerial(new BufferedImageLuminanceSource(ImageIO.read(path.toFile())));
+      }
+    }
+  }
+
+  @Test
+  public void testCreateBinarizerKeepsPool() throws NotFoundException {
+    LuminanceSource source = syntheticSource(200, 100, new Random(1L));
+    HybridBinarizer binarizer = new HybridBinarizer(source, pool);
+    LuminanceSource cropped = source.crop(10, 10, 150, 80);
+    assertEquals(new HybridBinarizer(cropped).getBlackMatrix(),
+                 binarizer.createBinarizer(cropped).getBlackMatrix());
+  }
+
+  private static void assertParallelMatchesSerial(LuminanceSource source) throws NotFoundException {
+    BitMatrix serial = new HybridBinarizer(source).getBlackMatrix();
+    BitMatrix parallel = new HybridBinarizer(source, pool).getBlackMatrix();
+    assertEquals(serial, parallel);
+  }
+
+  /**
+   * Noisy background with flat regions and high contrast "modules", to exercise both the
+   * local average and the low contrast neighbor correction.
+   */
+  private static LuminanceSource syntheticSource(int width, int height, Random random) {
+    byte[] pixels = new byte[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int value;
+        if (((x / 7) + (y / 11)) % 5 == 0) {
+          value = 20 + random.nextInt(20);
+        } else if ((x / 50) % 2 == 0) {
+          value = 200 + random.nextInt(10);
+        } else {
+          value = 80 + random.nextInt(150);
+        }
+        pixels[y * width + x] = (byte) value;
+      }
+    }
+    return new PlanarYUVLuminanceSource(pixels, width, height, 0, 0, width, height, false);
+  }
+
+}
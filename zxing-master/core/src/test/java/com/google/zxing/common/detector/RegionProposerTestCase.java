@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common.detector;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.oned.Code128Writer;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link RegionProposer}, and decoding only the regions it proposes.
+ */
+public final class RegionProposerTestCase extends Assert {
+
+  private static final int WIDTH = 1200;
+  private static final int HEIGHT = 900;
+  private static final int MODULE_SIZE = 3;
+
+  @Test
+  public void testBlank() {
+    assertTrue(RegionProposer.propose(source(new byte[WIDTH * HEIGHT])).isEmpty());
+  }
+
+  @Test
+  public void testProposeRegions() throws Exception {
+    byte[] pixels = blank();
+    BitMatrix qrCode = new QRCodeWriter().encode("Proposed", BarcodeFormat.QR_CODE, 0, 0);
+    draw(pixels, qrCode, 100, 120);
+    BitMatrix code128 = new Code128Writer().encode("Proposed", BarcodeFormat.CODE_128, 0, 30);
+    draw(pixels, code128, 600, 650);
+
+    List<RegionProposer.Region> regions = RegionProposer.propose(source(pixels));
+    assertEquals(2, regions.size());
+    RegionProposer.Region matrix = find(regions, RegionProposer.Region.Kind.MATRIX);
+    assertContains(matrix, qrCode, 100, 120);
+    RegionProposer.Region linear = find(regions, RegionProposer.Region.Kind.LINEAR);
+    assertContains(linear, code128, 600, 650);
+    // Both small parts of the image
+    assertTrue(matrix.getWidth() * matrix.getHeight() < WIDTH * HEIGHT / 8);
+    assertTrue(linear.getWidth() * linear.getHeight() < WIDTH * HEIGHT / 8);
+  }
+
+  @Test
+  public void testDecodeProposedRegions() throws Exception {
+    byte[] pixels = blank();
+    draw(pixels, new Code128Writer().encode("Elsewhere", BarcodeFormat.CODE_128, 0, 30), 80, 700);
+    draw(pixels, new QRCodeWriter().encode("Proposed", BarcodeFormat.QR_CODE, 0, 0), 700, 300);
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.PROPOSE_REGIONS, Boolean.TRUE);
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, Collections.singletonList(BarcodeFormat.QR_CODE));
+
+    Result result = new MultiFormatReader().decode(new BinaryBitmap(new HybridBinarizer(source(pixels))), hints);
+    assertEquals("Proposed", result.getText());
+    // Points are in the coordinates of the whole image
+    for (ResultPoint point : result.getResultPoints()) {
+      assertTrue(point.toString(), point.getX() > 700 && point.getY() > 300);
+    }
+  }
+
+  private static RegionProposer.Region find(List<RegionProposer.Region> regions, RegionProposer.Region.Kind kind) {
+    for (RegionProposer.Region region : regions) {
+      if (region.getKind() == kind) {
+        return region;
+      }
+    }
+    fail("No " + kind + " region in " + regions);
+    return null;
+  }
+
+  private static void assertContains(RegionProposer.Region region, BitMatrix code, int left, int top) {
+    assertTrue(region.toString(), region.getLeft() <= left && region.getTop() <= top);
+    assertTrue(region.toString(), region.getLeft() + region.getWidth() >= left + code.getWidth() * MODULE_SIZE);
+    assertTrue(region.toString(), region.getTop() + region.getHeight() >= top + code.getHeight() * MODULE_SIZE);
+  }
+
+  private static byte[] blank() {
+    byte[] pixels = new byte[WIDTH * HEIGHT];
+    for (int i = 0; i < pixels.length; i++) {
+      // A little noise, too weak to count as edges
+      pixels[i] = (byte) (200 + i % 7);
+    }
+    return pixels;
+  }
+
+  private static void draw(byte[] pixels, BitMatrix code, int left, int top) {
+    for (int y = 0; y < code.getHeight() * MODULE_SIZE; y++) {
+      for (int x = 0; x < code.getWidth() * MODULE_SIZE; x++) {
+        if (code.get(x / MODULE_SIZE, y / MODULE_SIZE)) {
+          pixels[(top + y) * WIDTH + left + x] = (byte) 40;
+        }
+      }
+    }
+  }
+
+  private static LuminanceSource source(byte[] pixels) {
+    return new PlanarYUVLuminanceSource(pixels, WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT, false);
+  }
+
+}
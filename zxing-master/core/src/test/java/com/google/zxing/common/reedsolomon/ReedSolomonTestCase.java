@@ -412,6 +412,31 @@ public final class ReedSolomonTestCase extends Assert {
     testEncodeDecodeRandom(GenericGF.AZTEC_DATA_12, 3072, 1023);
   }
 
+  @Test
+  public void testDecodeWithECCount() throws ReedSolomonException {
+    testErrorCount(GenericGF.QR_CODE_FIELD_256, 40, 20);
+    testErrorCount(GenericGF.DATA_MATRIX_FIELD_256, 100, 28);
+    testErrorCount(GenericGF.AZTEC_DATA_10, 200, 40);
+  }
+
+  private static void testErrorCount(GenericGF field, int dataSize, int ecSize) throws ReedSolomonException {
+    ReedSolomonEncoder encoder = new ReedSolomonEncoder(field);
+    ReedSolomonDecoder decoder = new ReedSolomonDecoder(field);
+    Random random = getPseudoRandom();
+    int[] expected = new int[dataSize + ecSize];
+    for (int k = 0; k < dataSize; k++) {
+      expected[k] = random.nextInt(field.getSize());
+    }
+    encoder.encode(expected, ecSize);
+    int[] message = new int[expected.length];
+    for (int errors = 0; errors <= ecSize / 2; errors++) {
+      System.arraycopy(expected, 0, message, 0, expected.length);
+      corrupt(message, errors, random, field.getSize());
+      assertEquals("Errors corrected in " + field, errors, decoder.decodeWithECCount(message, ecSize));
+      assertDataEquals("Decode in " + field + " failed at " + errors + " errors", expected, message);
+    }
+  }
+
   public static void corrupt(int[] received, int howMany, Random random, int max) {
     BitSet corrupted = new BitSet(received.length);
     for (int j = 0; j < howMany; j++) {
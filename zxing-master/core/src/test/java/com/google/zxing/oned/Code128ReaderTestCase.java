@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests {@link Code128Reader}'s look up of codes from their widths.
+ */
+public final class Code128ReaderTestCase extends Assert {
+
+  @Test
+  public void testLookUpExactPatterns() {
+    int[] counters = new int[6];
+    for (int code = 0; code < Code128Reader.CODE_PATTERNS.length; code++) {
+      for (int moduleSize = 1; moduleSize <= 5; moduleSize++) {
+        for (int i = 0; i < counters.length; i++) {
+          counters[i] = moduleSize * Code128Reader.CODE_PATTERNS[code][i];
+        }
+        assertEquals(code, Code128Reader.lookUpCode(counters));
+      }
+    }
+  }
+
+  @Test
+  public void testLookUpMatchesVariance() {
+    Random random = new Random(0x128);
+    int[] counters = new int[6];
+    int lookedUp = 0;
+    for (int trial = 0; trial < 200000; trial++) {
+      int[] pattern = Code128Reader.CODE_PATTERNS[random.nextInt(Code128Reader.CODE_PATTERNS.length)];
+      float moduleSize = 1.0f + 4.0f * random.nextFloat();
+      float noise = 0.5f * random.nextFloat();
+      for (int i = 0; i < counters.length; i++) {
+        float width = pattern[i] * moduleSize + (2.0f * random.nextFloat() - 1.0f) * noise * moduleSize;
+        counters[i] = Math.max(1, Math.round(width));
+      }
+      int code = Code128Reader.lookUpCode(counters);
+      if (code >= 0) {
+        lookedUp++;
+        assertEquals(bestByVariance(counters), code);
+      }
+    }
+    // Most are clear enough to look up
+    assertTrue(lookedUp > 100000);
+  }
+
+  private static int bestByVariance(int[] counters) {
+    int bestVariance = (int) (OneDReader.PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.25f);
+    int bestMatch = -1;
+    for (int code = 0; code < Code128Reader.CODE_PATTERNS.length; code++) {
+      int variance = OneDReader.patternMatchVariance(counters, Code128Reader.CODE_PATTERNS[code],
+          (int) (OneDReader.PATTERN_MATCH_RESULT_SCALE_FACTOR * 0.7f));
+      if (variance < bestVariance) {
+        bestVariance = variance;
+        bestMatch = code;
+      }
+    }
+    return bestMatch;
+  }
+
+}
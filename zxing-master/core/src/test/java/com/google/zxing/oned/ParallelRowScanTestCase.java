@@ -0,0 +1,233 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.BufferedImageLuminanceSource;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOptions;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.common.AbstractBlackBoxTestCase;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests scanning rows in parallel with {@link DecodeHintType#ROW_EXECUTOR}.
+ */
+public final class ParallelRowScanTestCase extends Assert {
+
+  private static final int WIDTH = 400;
+  private static final int HEIGHT = 600;
+  private static final int WORKERS = 4;
+
+  private ExecutorService executor;
+  private AtomicInteger tasks;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newCachedThreadPool();
+    tasks = new AtomicInteger();
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testNearestMiddleWins() throws Exception {
+    byte[] pixels = blank();
+    draw(pixels, "Far", 20);
+    draw(pixels, "Near", 380);
+    draw(pixels, "Farther", 520);
+    BinaryBitmap image = image(pixels);
+    DecodeOptions options = options();
+
+    Result serial = new MultiFormatOneDReader(options).doDecode(image, options, 1);
+    assertEquals("Near", serial.getText());
+    for (int workers = 2; workers <= WORKERS; workers++) {
+      Result parallel = new MultiFormatOneDReader(options).doDecode(image, options, workers);
+      assertEquals("Near", parallel.getText());
+      assertEquals(serial.getResultPoints()[0].getY(), parallel.getResultPoints()[0].getY(), 0.0f);
+    }
+    // The calling thread scans a share of the rows too
+    assertEquals(1 + 2 + 3, tasks.get());
+  }
+
+  @Test
+  public void testUpsideDown() throws Exception {
+    byte[] pixels = blank();
+    draw(pixels, "Flipped", 100);
+    // Rotate by 180 degrees
+    for (int i = 0, j = pixels.length - 1; i < j; i++, j--) {
+      byte temp = pixels[i];
+      pixels[i] = pixels[j];
+      pixels[j] = temp;
+    }
+    DecodeOptions options = options();
+    Result result = new Code128Reader().doDecode(image(pixels), options, WORKERS);
+    assertEquals("Flipped", result.getText());
+    assertEquals(180, result.getResultMetadata().get(ResultMetadataType.ORIENTATION));
+  }
+
+  @Test
+  public void testNotFound() {
+    DecodeOptions options = options();
+    assertNull(new MultiFormatOneDReader(options).doDecode(image(blank()), options, WORKERS));
+  }
+
+  @Test
+  public void testStackedRSS() throws Exception {
+    DecodeOptions options = options();
+    Path directory = AbstractBlackBoxTestCase.buildTestBase("src/test/resources/blackbox/rssexpandedstacked-1");
+    try (DirectoryStream<Path> images = Files.newDirectoryStream(directory, "*.png")) {
+      for (Path file : images) {
+        BinaryBitmap image = new BinaryBitmap(new GlobalHistogramBinarizer(
+            new BufferedImageLuminanceSource(ImageIO.read(file.toFile()))));
+        Result serial = new MultiFormatOneDReader(options).doDecode(image, options, 1);
+        // Its rows are paired up as when they are scanned one at a time
+        for (int workers = 2; workers <= WORKERS; workers++) {
+          Result parallel = new MultiFormatOneDReader(options).doDecode(image, options, workers);
+          String message = file + " on " + workers + " threads";
+          if (serial == null) {
+            assertNull(message, parallel);
+          } else {
+            assertNotNull(message, parallel);
+            assertEquals(message, serial.getText(), parallel.getText());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSaturatedExecutor() throws Exception {
+    byte[] pixels = blank();
+    draw(pixels, "Near", 380);
+    draw(pixels, "Far", 20);
+    BinaryBitmap image = image(pixels);
+    // Its only thread is busy until decoding is done
+    ExecutorService saturated = Executors.newSingleThreadExecutor();
+    final CountDownLatch decoded = new CountDownLatch(1);
+    saturated.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          decoded.await();
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    try {
+      DecodeOptions options = options(saturated);
+      assertEquals("Near", new MultiFormatOneDReader(options).doDecode(image, options, WORKERS).getText());
+    } finally {
+      decoded.countDown();
+      saturated.shutdown();
+    }
+    assertTrue(saturated.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testDecodingOnRowExecutor() throws Exception {
+    byte[] pixels = blank();
+    draw(pixels, "Near", 380);
+    final BinaryBitmap image = image(pixels);
+    ExecutorService single = Executors.newSingleThreadExecutor();
+    final DecodeOptions options = options(single);
+    try {
+      // Decoding takes the executor's only thread, so it scans all the rows itself
+      Future<Result> result = single.submit(new Callable<Result>() {
+        @Override
+        public Result call() {
+          return new MultiFormatOneDReader(options).doDecode(image, options, WORKERS);
+        }
+      });
+      assertEquals("Near", result.get(10, TimeUnit.SECONDS).getText());
+    } finally {
+      single.shutdown();
+    }
+  }
+
+  private DecodeOptions options() {
+    return options(new Executor() {
+      @Override
+      public void execute(Runnable task) {
+        tasks.incrementAndGet();
+        executor.execute(task);
+      }
+    });
+  }
+
+  private static DecodeOptions options(Executor rowExecutor) {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    hints.put(DecodeHintType.ROW_EXECUTOR, rowExecutor);
+    return DecodeOptions.of(hints);
+  }
+
+  private static byte[] blank() {
+    byte[] pixels = new byte[WIDTH * HEIGHT];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = (byte) 220;
+    }
+    return pixels;
+  }
+
+  private static void draw(byte[] pixels, String contents, int top) {
+    BitMatrix code = new Code128Writer().encode(contents, BarcodeFormat.CODE_128, 0, 0);
+    int moduleSize = 2;
+    int left = 40;
+    for (int y = top; y < top + 40; y++) {
+      for (int x = 0; x < code.getWidth() * moduleSize; x++) {
+        if (code.get(x / moduleSize, 0)) {
+          pixels[y * WIDTH + left + x] = (byte) 30;
+        }
+      }
+    }
+  }
+
+  private static BinaryBitmap image(byte[] pixels) {
+    return new BinaryBitmap(new GlobalHistogramBinarizer(
+        new PlanarYUVLuminanceSource(pixels, WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT, false)));
+  }
+
+}
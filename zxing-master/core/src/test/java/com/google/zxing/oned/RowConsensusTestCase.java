@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tests {@link RowConsensus}, and decoding with {@link DecodeHintType#ROW_AGREEMENT}.
+ */
+public final class RowConsensusTestCase extends Assert {
+
+  private static final int WIDTH = 400;
+  private static final int HEIGHT = 600;
+
+  @Test
+  public void testWholeRowsAgree() {
+    RowConsensus consensus = new RowConsensus(3);
+    assertNull(consensus.vote(result("12345670", BarcodeFormat.EAN_8)));
+    assertNull(consensus.vote(result("12345670", BarcodeFormat.EAN_8)));
+    assertNull(consensus.vote(result("12395678", BarcodeFormat.EAN_8)));
+    // Same text, but another format, doesn't count
+    assertNull(consensus.vote(result("12345670", BarcodeFormat.CODE_128)));
+    assertEquals("12345670", consensus.vote(result("12345670", BarcodeFormat.EAN_8)).getText());
+  }
+
+  @Test
+  public void testCharactersAgree() {
+    RowConsensus consensus = new RowConsensus(3);
+    // Each row misreads a different character; all but one of them read each character right
+    assertNull(consensus.vote(result("ABCX", BarcodeFormat.CODE_128)));
+    assertNull(consensus.vote(result("AXCD", BarcodeFormat.CODE_128)));
+    assertNull(consensus.vote(result("XBCD", BarcodeFormat.CODE_128)));
+    // Not yet read whole
+    assertNull(consensus.vote(result("ABXD", BarcodeFormat.CODE_128)));
+    assertEquals("ABCD", consensus.vote(result("ABCD", BarcodeFormat.CODE_128)).getText());
+  }
+
+  @Test
+  public void testRowsDisagree() {
+    RowConsensus consensus = new RowConsensus(2);
+    assertNull(consensus.vote(result("12345670", BarcodeFormat.EAN_8)));
+    assertNull(consensus.vote(result("96385074", BarcodeFormat.EAN_8)));
+  }
+
+  @Test
+  public void testMisreadRowOutvoted() throws Exception {
+    byte[] pixels = new byte[WIDTH * HEIGHT];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = (byte) 220;
+    }
+    // Only the middle row reads as the wrong barcode; the rows below it read the right one
+    draw(pixels, "Misread", HEIGHT / 2, 1);
+    draw(pixels, "Right", HEIGHT / 2 + 1, 40);
+    BinaryBitmap image = new BinaryBitmap(new GlobalHistogramBinarizer(
+        new PlanarYUVLuminanceSource(pixels, WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT, false)));
+
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    assertEquals("Misread", new Code128Reader().decode(image, hints).getText());
+    hints.put(DecodeHintType.ROW_AGREEMENT, 3);
+    assertEquals("Right", new Code128Reader().decode(image, hints).getText());
+    // Not enough rows agree on anything
+    hints.put(DecodeHintType.ROW_AGREEMENT, HEIGHT);
+    try {
+      new Code128Reader().decode(image, hints);
+      fail("Not enough rows agree");
+    } catch (NotFoundException nfe) {
+      // continue
+    }
+  }
+
+  @Test
+  public void testTwoRowsDisagree() throws Exception {
+    byte[] pixels = new byte[WIDTH * HEIGHT];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = (byte) 220;
+    }
+    // Rows are scanned 2 apart, so each barcode is read by just one of them
+    draw(pixels, "Misread", HEIGHT / 2, 2);
+    draw(pixels, "Right", HEIGHT / 2 + 2, 2);
+    BinaryBitmap image = new BinaryBitmap(new GlobalHistogramBinarizer(
+        new PlanarYUVLuminanceSource(pixels, WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT, false)));
+
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    assertEquals("Misread", new Code128Reader().decode(image, hints).getText());
+    hints.put(DecodeHintType.ROW_AGREEMENT, 2);
+    assertFalse(new Code128Reader().tryDecode(image, hints).isDecoded());
+  }
+
+  private static Result result(String text, BarcodeFormat format) {
+    return new Result(text, null, null, format);
+  }
+
+  private static void draw(byte[] pixels, String contents, int top, int height) {
+    BitMatrix code = new Code128Writer().encode(contents, BarcodeFormat.CODE_128, 0, 0);
+    int moduleSize = 2;
+    int left = 40;
+    for (int y = top; y < top + height; y++) {
+      for (int x = 0; x < WIDTH - left; x++) {
+        boolean black = x < code.getWidth() * moduleSize && code.get(x / moduleSize, 0);
+        pixels[y * WIDTH + left + x] = (byte) (black ? 30 : 220);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitArray;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests {@link RunLengthRow}.
+ */
+public final class RunLengthRowTestCase extends Assert {
+
+  @Test
+  public void testEncode() {
+    RunLengthRow runs = new RunLengthRow(row("..XXX.X..."));
+    assertEquals(10, runs.getSize());
+    assertEquals(5, runs.getRunCount());
+    assertEquals(". 2,3,1,1,3", runs.toString());
+    assertFalse(runs.isBlack(0));
+    assertTrue(runs.isBlack(1));
+    assertEquals(2, runs.getRunStart(1));
+    assertEquals(5, runs.getRunEnd(1));
+    assertEquals(0, runs.runAt(0));
+    assertEquals(1, runs.runAt(2));
+    assertEquals(1, runs.runAt(4));
+    assertEquals(2, runs.runAt(5));
+    assertEquals(5, runs.runAt(10));
+
+    assertEquals("X 1,2,1", runs.encode(row("X..X")).toString());
+    assertEquals(0, new RunLengthRow(new BitArray(0)).getRunCount());
+  }
+
+  @Test
+  public void testPixelsMatchBitArray() {
+    Random random = new Random(0xBEEF);
+    for (int trial = 0; trial < 20; trial++) {
+      BitArray row = new BitArray(1 + random.nextInt(300));
+      boolean black = random.nextBoolean();
+      for (int x = 0; x < row.getSize(); x++) {
+        if (random.nextInt(5) == 0) {
+          black = !black;
+        }
+        if (black) {
+          row.set(x);
+        }
+      }
+      RunLengthRow runs = new RunLengthRow(row);
+      int size = row.getSize();
+      for (int x = 0; x < size; x++) {
+        assertEquals(row.get(x), runs.get(x));
+        assertEquals(row.getNextSet(x), runs.getNextSet(x));
+        assertEquals(row.getNextUnset(x), runs.getNextUnset(x));
+        int end = x + random.nextInt(size - x + 1);
+        assertEquals(row.isRange(x, end, true), runs.isRange(x, end, true));
+        assertEquals(row.isRange(x, end, false), runs.isRange(x, end, false));
+      }
+
+      BitArray reversedRow = row.clone();
+      reversedRow.reverse();
+      RunLengthRow reversed = runs.reversed();
+      assertEquals(new RunLengthRow(reversedRow).toString(), reversed.toString());
+      assertEquals(reversedRow, reversed.getRow());
+      // Reversing back needs no copy of the row
+      assertSame(row, runs.reversed().reversed().getRow());
+      assertEquals(runs.toString(), runs.reversed().reversed().toString());
+    }
+  }
+
+  @Test
+  public void testRecordPattern() throws NotFoundException {
+    BitArray row = row("..XXX.X..XX");
+    RunLengthRow runs = new RunLengthRow(row);
+    int[] fromPixels = new int[3];
+    int[] fromRuns = new int[3];
+    for (int start = 0; start < row.getSize(); start++) {
+      boolean found;
+      try {
+        OneDReader.recordPattern(row, start, fromPixels);
+        found = true;
+      } catch (NotFoundException nfe) {
+        found = false;
+      }
+      try {
+        OneDReader.recordPattern(runs, start, fromRuns);
+        assertTrue(found);
+        assertArrayEquals(fromPixels, fromRuns);
+      } catch (NotFoundException nfe) {
+        assertFalse(found);
+      }
+
+      try {
+        OneDReader.recordPatternInReverse(row, start, fromPixels);
+        found = true;
+      } catch (NotFoundException nfe) {
+        found = false;
+      }
+      try {
+        OneDReader.recordPatternInReverse(runs, start, fromRuns);
+        assertTrue(found);
+        assertArrayEquals(fromPixels, fromRuns);
+      } catch (NotFoundException nfe) {
+        assertFalse(found);
+      }
+    }
+  }
+
+  private static BitArray row(String pixels) {
+    BitArray row = new BitArray(pixels.length());
+    for (int x = 0; x < pixels.length(); x++) {
+      if (pixels.charAt(x) == 'X') {
+        row.set(x);
+      }
+    }
+    return row;
+  }
+
+}